@@ -0,0 +1,33 @@
+package com.github.booking.infrastructure.messaging.show;
+
+import com.github.booking.domain.show.SeatEvent;
+import com.github.booking.domain.show.SeatReleased;
+import com.github.booking.domain.show.SeatReserved;
+import com.github.booking.domain.show.SeatStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FakeSeatAvailabilityPublisher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(FakeSeatAvailabilityPublisher.class);
+
+  private void publish(final SeatEvent event, final SeatStatus status) {
+    LOGGER.info("Published seat availability (showId={}, seatNumber={}, status={})",
+      event.showId().value(),
+      event.seatNumber().value(),
+      status);
+  }
+
+  @EventListener
+  public void onSeatReserved(final SeatReserved event) {
+    publish(event, SeatStatus.RESERVED);
+  }
+
+  @EventListener
+  public void onSeatReleased(final SeatReleased event) {
+    publish(event, SeatStatus.AVAILABLE);
+  }
+}
@@ -0,0 +1,33 @@
+package com.github.booking.infrastructure.outbox.booking;
+
+import com.github.booking.domain.booking.BookingId;
+import com.github.booking.domain.booking.BookingInitiated;
+import com.github.booking.domain.show.ShowId;
+import com.github.seedwork.infrastructure.outbox.MessageBodyFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+@Component
+public class BookingInitiatedFormat implements MessageBodyFormat<BookingInitiated> {
+
+  @Override
+  public Class<BookingInitiated> type() {
+    return BookingInitiated.class;
+  }
+
+  @Override
+  public void write(final BookingInitiated body, final DataOutput output) throws IOException {
+    output.writeUTF(body.showId().value());
+    output.writeUTF(body.bookingId().value());
+  }
+
+  @Override
+  public BookingInitiated read(final DataInput input) throws IOException {
+    return new BookingInitiated(
+      new ShowId(input.readUTF()),
+      new BookingId(input.readUTF()));
+  }
+}
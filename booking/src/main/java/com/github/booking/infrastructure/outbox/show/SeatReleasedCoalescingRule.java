@@ -0,0 +1,21 @@
+package com.github.booking.infrastructure.outbox.show;
+
+import com.github.booking.domain.show.SeatReleased;
+import com.github.seedwork.infrastructure.outbox.MessageCoalescingRule;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class SeatReleasedCoalescingRule implements MessageCoalescingRule<SeatReleased> {
+
+  @Override
+  public Class<SeatReleased> type() {
+    return SeatReleased.class;
+  }
+
+  @Override
+  public Object key(final SeatReleased body) {
+    return List.of(body.showId(), body.seatNumber());
+  }
+}
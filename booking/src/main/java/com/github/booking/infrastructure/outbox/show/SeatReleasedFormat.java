@@ -0,0 +1,33 @@
+package com.github.booking.infrastructure.outbox.show;
+
+import com.github.booking.domain.hall.SeatNumber;
+import com.github.booking.domain.show.SeatReleased;
+import com.github.booking.domain.show.ShowId;
+import com.github.seedwork.infrastructure.outbox.MessageBodyFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+@Component
+public class SeatReleasedFormat implements MessageBodyFormat<SeatReleased> {
+
+  @Override
+  public Class<SeatReleased> type() {
+    return SeatReleased.class;
+  }
+
+  @Override
+  public void write(final SeatReleased body, final DataOutput output) throws IOException {
+    output.writeUTF(body.showId().value());
+    output.writeUTF(body.seatNumber().value());
+  }
+
+  @Override
+  public SeatReleased read(final DataInput input) throws IOException {
+    return new SeatReleased(
+      new ShowId(input.readUTF()),
+      new SeatNumber(input.readUTF()));
+  }
+}
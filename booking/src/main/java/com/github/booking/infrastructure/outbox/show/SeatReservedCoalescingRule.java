@@ -0,0 +1,21 @@
+package com.github.booking.infrastructure.outbox.show;
+
+import com.github.booking.domain.show.SeatReserved;
+import com.github.seedwork.infrastructure.outbox.MessageCoalescingRule;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class SeatReservedCoalescingRule implements MessageCoalescingRule<SeatReserved> {
+
+  @Override
+  public Class<SeatReserved> type() {
+    return SeatReserved.class;
+  }
+
+  @Override
+  public Object key(final SeatReserved body) {
+    return List.of(body.showId(), body.seatNumber());
+  }
+}
@@ -0,0 +1,36 @@
+package com.github.booking.infrastructure.outbox.show;
+
+import com.github.booking.domain.booking.BookingId;
+import com.github.booking.domain.hall.SeatNumber;
+import com.github.booking.domain.show.SeatReserved;
+import com.github.booking.domain.show.ShowId;
+import com.github.seedwork.infrastructure.outbox.MessageBodyFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+@Component
+public class SeatReservedFormat implements MessageBodyFormat<SeatReserved> {
+
+  @Override
+  public Class<SeatReserved> type() {
+    return SeatReserved.class;
+  }
+
+  @Override
+  public void write(final SeatReserved body, final DataOutput output) throws IOException {
+    output.writeUTF(body.showId().value());
+    output.writeUTF(body.seatNumber().value());
+    output.writeUTF(body.bookingId().value());
+  }
+
+  @Override
+  public SeatReserved read(final DataInput input) throws IOException {
+    return new SeatReserved(
+      new ShowId(input.readUTF()),
+      new SeatNumber(input.readUTF()),
+      new BookingId(input.readUTF()));
+  }
+}
@@ -0,0 +1,30 @@
+package com.github.booking.infrastructure.outbox.ticket;
+
+import com.github.booking.domain.ticket.TicketId;
+import com.github.booking.domain.ticket.TicketIssued;
+import com.github.seedwork.infrastructure.outbox.MessageBodyFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+@Component
+public class TicketIssuedFormat implements MessageBodyFormat<TicketIssued> {
+
+  @Override
+  public Class<TicketIssued> type() {
+    return TicketIssued.class;
+  }
+
+  @Override
+  public void write(final TicketIssued body, final DataOutput output) throws IOException {
+    output.writeUTF(body.ticketId().value());
+  }
+
+  @Override
+  public TicketIssued read(final DataInput input) throws IOException {
+    return new TicketIssued(
+      new TicketId(input.readUTF()));
+  }
+}
@@ -0,0 +1,30 @@
+package com.github.booking.infrastructure.outbox.ticket;
+
+import com.github.booking.domain.ticket.TicketId;
+import com.github.booking.domain.ticket.TicketRedeemed;
+import com.github.seedwork.infrastructure.outbox.MessageBodyFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+@Component
+public class TicketRedeemedFormat implements MessageBodyFormat<TicketRedeemed> {
+
+  @Override
+  public Class<TicketRedeemed> type() {
+    return TicketRedeemed.class;
+  }
+
+  @Override
+  public void write(final TicketRedeemed body, final DataOutput output) throws IOException {
+    output.writeUTF(body.ticketId().value());
+  }
+
+  @Override
+  public TicketRedeemed read(final DataInput input) throws IOException {
+    return new TicketRedeemed(
+      new TicketId(input.readUTF()));
+  }
+}
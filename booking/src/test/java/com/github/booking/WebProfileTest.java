@@ -0,0 +1,31 @@
+package com.github.booking;
+
+import com.github.seedwork.infrastructure.outbox.OutboxProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@ActiveProfiles({"default", "test", "web"})
+class WebProfileTest {
+
+  @Autowired
+  private WebApplicationContext webApplicationContext;
+  @Autowired
+  private OutboxProperties outboxProperties;
+
+  @Test
+  void contextShouldLoadWithoutOutboxPolling() {
+    // Act
+    final var outboxEnabled = outboxProperties.enabled();
+
+    // Assert
+    assertNotNull(webApplicationContext);
+    assertTrue(outboxEnabled);
+    assertFalse(outboxProperties.isPollerEnabled());
+  }
+}
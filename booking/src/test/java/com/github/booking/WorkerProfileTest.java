@@ -0,0 +1,33 @@
+package com.github.booking;
+
+import com.github.seedwork.infrastructure.outbox.OutboxProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles({"default", "test", "worker"})
+class WorkerProfileTest {
+
+  @Autowired
+  private DataSource dataSource;
+  @Autowired
+  private OutboxProperties outboxProperties;
+
+  @Test
+  void contextShouldLoadWithConnectionPoolExceedingMaxConcurrency() {
+    // Act
+    final var hikariDataSource = assertInstanceOf(HikariDataSource.class, dataSource);
+
+    // Assert
+    assertTrue(outboxProperties.isPollerEnabled());
+    // Each in-flight dispatch may hold a connection, so the pool keeps headroom for polling and lease renewal.
+    assertTrue(hikariDataSource.getMaximumPoolSize() >= outboxProperties.maxConcurrency() + 4);
+  }
+}
@@ -0,0 +1,42 @@
+package com.github.booking.infrastructure.outbox.show;
+
+import com.github.booking.domain.booking.BookingId;
+import com.github.booking.domain.hall.SeatNumber;
+import com.github.booking.domain.show.SeatBooked;
+import com.github.booking.domain.show.ShowId;
+import com.github.seedwork.infrastructure.outbox.BinaryMessageCodec;
+import com.github.seedwork.infrastructure.outbox.SerializableMessageCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatBookedFormatTest {
+
+  @Test
+  void decodeWithEncodedBodyShouldReturnSeatBooked() {
+    // Arrange
+    final var messageCodec = new BinaryMessageCodec(List.of(new SeatBookedFormat()), new SerializableMessageCodec());
+    final var body = messageCodec.encode("SeatBooked", new SeatBooked(
+      new ShowId("S00000000000000000"),
+      new SeatNumber("A1"),
+      new BookingId("B00000000000000000")));
+
+    // Act
+    final var seatBooked = messageCodec.decode("SeatBooked", body);
+
+    // Assert
+    final var serializedBody = new SerializableMessageCodec().encode("SeatBooked", new SeatBooked(
+      new ShowId("S00000000000000000"),
+      new SeatNumber("A1"),
+      new BookingId("B00000000000000000")));
+
+    assertTrue(body.length < serializedBody.length);
+    final var decodedSeatBooked = assertInstanceOf(SeatBooked.class, seatBooked);
+
+    assertEquals(new ShowId("S00000000000000000"), decodedSeatBooked.showId());
+    assertEquals(new SeatNumber("A1"), decodedSeatBooked.seatNumber());
+    assertEquals(new BookingId("B00000000000000000"), decodedSeatBooked.bookingId());
+  }
+}
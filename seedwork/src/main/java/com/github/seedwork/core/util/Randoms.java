@@ -12,4 +12,8 @@ public final class Randoms {
   public static long nextLong() {
     return RANDOM_GENERATOR.nextLong();
   }
+
+  public static long nextLong(final long bound) {
+    return RANDOM_GENERATOR.nextLong(bound);
+  }
 }
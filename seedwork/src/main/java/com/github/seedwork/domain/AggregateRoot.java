@@ -25,4 +25,12 @@ public abstract class AggregateRoot implements Entity {
     raisedEvents.forEach(eventConsumer);
     raisedEvents.clear();
   }
+
+  public void dispatchAllEvents(final Consumer<List<Event>> eventsConsumer) {
+    if (raisedEvents.isEmpty()) {
+      return;
+    }
+    eventsConsumer.accept(List.copyOf(raisedEvents));
+    raisedEvents.clear();
+  }
 }
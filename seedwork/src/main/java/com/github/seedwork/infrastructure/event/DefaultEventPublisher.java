@@ -5,6 +5,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.util.Objects;
 
 public class DefaultEventPublisher implements EventPublisher {
@@ -12,9 +14,11 @@ public class DefaultEventPublisher implements EventPublisher {
   private static final Logger LOGGER = LoggerFactory.getLogger(DefaultEventPublisher.class);
 
   private final ApplicationEventPublisher applicationEventPublisher;
+  private final Clock clock;
 
-  public DefaultEventPublisher(final ApplicationEventPublisher applicationEventPublisher) {
+  public DefaultEventPublisher(final ApplicationEventPublisher applicationEventPublisher, final Clock clock) {
     this.applicationEventPublisher = Objects.requireNonNull(applicationEventPublisher);
+    this.clock = Objects.requireNonNull(clock);
   }
 
   @Override
@@ -33,4 +37,13 @@ public class DefaultEventPublisher implements EventPublisher {
       throw e;
     }
   }
+
+  @Override
+  public void scheduleEvent(final String groupId, final Event event, final Instant availableAt) {
+    if (availableAt.isAfter(clock.instant())) {
+      // Nothing is persisted in-process, so a deferred event would be lost if the application stopped before it is due.
+      throw new UnsupportedOperationException("Scheduling events requires the outbox");
+    }
+    publishEvent(groupId, event);
+  }
 }
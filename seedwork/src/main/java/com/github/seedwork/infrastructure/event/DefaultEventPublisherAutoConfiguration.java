@@ -5,12 +5,15 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 
+import java.time.Clock;
+
 @AutoConfiguration
 public class DefaultEventPublisherAutoConfiguration {
 
   @Bean
   @ConditionalOnMissingBean(EventPublisher.class)
-  public EventPublisher defaultEventPublisher(final ApplicationEventPublisher applicationEventPublisher) {
-    return new DefaultEventPublisher(applicationEventPublisher);
+  public EventPublisher defaultEventPublisher(final ApplicationEventPublisher applicationEventPublisher,
+                                              final Clock clock) {
+    return new DefaultEventPublisher(applicationEventPublisher, clock);
   }
 }
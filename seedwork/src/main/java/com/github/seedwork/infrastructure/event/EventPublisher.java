@@ -2,8 +2,16 @@ package com.github.seedwork.infrastructure.event;
 
 import com.github.seedwork.domain.Event;
 
-@FunctionalInterface
+import java.time.Instant;
+import java.util.List;
+
 public interface EventPublisher {
 
   void publishEvent(String groupId, Event event);
+
+  default void publishEvents(final String groupId, final List<Event> events) {
+    events.forEach(e -> publishEvent(groupId, e));
+  }
+
+  void scheduleEvent(String groupId, Event event, Instant availableAt);
 }
@@ -0,0 +1,102 @@
+package com.github.seedwork.infrastructure.journal.outbox;
+
+import com.github.seedwork.infrastructure.memory.outbox.InMemoryMessageStore;
+import com.github.seedwork.infrastructure.outbox.Message;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class JournalMessageStore extends InMemoryMessageStore implements AutoCloseable {
+
+  private static final String DEAD_LETTER_DIRECTORY_NAME = "dead-letter";
+
+  private final MessageJournal journal;
+  private final MessageJournal deadLetterJournal;
+  private final Map<Long, Long> positions;
+  private final Map<Long, Long> deadLetterPositions;
+
+  public JournalMessageStore(final MessageJournal journal, final MessageJournal deadLetterJournal) {
+    this(journal, journal.recover(), deadLetterJournal, deadLetterJournal.recover());
+  }
+
+  private JournalMessageStore(final MessageJournal journal,
+                              final List<MessageJournal.Entry> entries,
+                              final MessageJournal deadLetterJournal,
+                              final List<MessageJournal.Entry> deadLetterEntries) {
+    super(Math.max(journal.lastSequenceNumber(), deadLetterJournal.lastSequenceNumber()));
+    this.journal = Objects.requireNonNull(journal);
+    this.deadLetterJournal = Objects.requireNonNull(deadLetterJournal);
+
+    this.positions = new ConcurrentHashMap<>();
+    this.deadLetterPositions = new ConcurrentHashMap<>();
+    for (final var entry : deadLetterEntries) {
+      deadLetterPositions.put(entry.message().sequenceNumber(), entry.position());
+      super.deadLetter(entry.message());
+    }
+    for (final var entry : entries) {
+      // A message journaled in both journals was dead-lettered or replayed when the application stopped.
+      if (isDeadLettered(entry.message().sequenceNumber())) {
+        journal.acknowledge(entry.position());
+        continue;
+      }
+      positions.put(entry.message().sequenceNumber(), entry.position());
+      restore(entry.message());
+    }
+  }
+
+  public static JournalMessageStore open(final Path directory, final int segmentSize) {
+    return new JournalMessageStore(
+      MessageJournal.open(directory, segmentSize),
+      MessageJournal.open(directory.resolve(DEAD_LETTER_DIRECTORY_NAME), segmentSize));
+  }
+
+  @Override
+  public void prepare(final Message message) {
+    positions.put(message.sequenceNumber(), journal.append(message));
+  }
+
+  @Override
+  public void discard(final Message message) {
+    final var position = positions.remove(message.sequenceNumber());
+
+    if (position != null) {
+      journal.acknowledge(position);
+    }
+  }
+
+  @Override
+  public void append(final Message message) {
+    if (!positions.containsKey(message.sequenceNumber())) {
+      prepare(message);
+    }
+    final var deadLetterPosition = deadLetterPositions.remove(message.sequenceNumber());
+
+    if (deadLetterPosition != null) {
+      deadLetterJournal.acknowledge(deadLetterPosition);
+    }
+    super.append(message);
+  }
+
+  @Override
+  public void remove(final Message message) {
+    super.remove(message);
+    discard(message);
+  }
+
+  @Override
+  public void deadLetter(final Message message) {
+    if (!isDeadLettered(message.sequenceNumber())) {
+      deadLetterPositions.put(message.sequenceNumber(), deadLetterJournal.append(message));
+    }
+    super.deadLetter(message);
+  }
+
+  @Override
+  public void close() {
+    journal.close();
+    deadLetterJournal.close();
+  }
+}
@@ -0,0 +1,53 @@
+package com.github.seedwork.infrastructure.journal.outbox;
+
+import com.github.seedwork.infrastructure.memory.outbox.InMemoryMessageConsumer;
+import com.github.seedwork.infrastructure.memory.outbox.InMemoryMessageProducer;
+import com.github.seedwork.infrastructure.outbox.OutboxAutoConfiguration;
+import com.github.seedwork.infrastructure.outbox.OutboxMetrics;
+import com.github.seedwork.infrastructure.outbox.OutboxProperties;
+import com.github.seedwork.infrastructure.outbox.PartitionLeaseManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Clock;
+
+@AutoConfiguration
+@AutoConfigureAfter(OutboxAutoConfiguration.class)
+@ConditionalOnBean(OutboxProperties.class)
+@ConditionalOnProperty(prefix = "outbox", name = "store", havingValue = "journal")
+public class JournalOutboxAutoConfiguration {
+
+  @Bean(destroyMethod = "close")
+  public JournalMessageStore journalMessageStore(final OutboxProperties properties) {
+    return JournalMessageStore.open(
+      properties.journalDirectory(),
+      Math.toIntExact(properties.journalSegmentSize().toBytes()));
+  }
+
+  @Bean
+  public InMemoryMessageConsumer journalMessageConsumer(final OutboxProperties properties,
+                                                        final JournalMessageStore messageStore,
+                                                        final Clock clock,
+                                                        final ObjectProvider<OutboxMetrics> outboxMetrics) {
+    return new InMemoryMessageConsumer(messageStore,
+      clock,
+      properties.lockDuration(),
+      properties.maxAttemptCount(),
+      outboxMetrics.getIfAvailable(OutboxMetrics::noop));
+  }
+
+  @Bean
+  public InMemoryMessageProducer journalMessageProducer(final JournalMessageStore messageStore,
+                                                        final Clock clock) {
+    return new InMemoryMessageProducer(messageStore, clock);
+  }
+
+  @Bean
+  public PartitionLeaseManager journalPartitionLeaseManager() {
+    return PartitionLeaseManager.unpartitioned();
+  }
+}
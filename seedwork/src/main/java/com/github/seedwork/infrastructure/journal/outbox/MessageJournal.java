@@ -0,0 +1,312 @@
+package com.github.seedwork.infrastructure.journal.outbox;
+
+import com.github.seedwork.infrastructure.outbox.Message;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+public class MessageJournal implements AutoCloseable {
+
+  private static final String SEGMENT_SUFFIX = ".segment";
+  private static final String CURSOR_FILE_NAME = "cursor";
+  private static final int LEGACY_SEGMENT_HEADER_SIZE = Long.BYTES;
+  private static final int SEGMENT_HEADER_SIZE = Long.BYTES + Integer.BYTES;
+  private static final int FORMAT_VERSION = 1;
+  private static final int RECORD_HEADER_SIZE = Integer.BYTES;
+  private static final int MAX_STRING_SIZE = 0xFFFF;
+
+  private final Path directory;
+  private final int segmentSize;
+  private final MappedFile cursorFile;
+  private final ByteBuffer cursorBuffer;
+  private final NavigableMap<Long, MappedFile> segments;
+  private final NavigableSet<Long> pendingPositions;
+  private long writePosition;
+  private long lastSequenceNumber;
+
+  private MessageJournal(final Path directory, final int segmentSize, final MappedFile cursorFile) {
+    this.directory = Objects.requireNonNull(directory);
+    this.segmentSize = segmentSize;
+    this.cursorFile = Objects.requireNonNull(cursorFile);
+
+    this.cursorBuffer = cursorFile.buffer();
+    this.segments = new TreeMap<>();
+    this.pendingPositions = new TreeSet<>();
+  }
+
+  private static MappedFile map(final Path file, final int size) throws IOException {
+    // Mapping into a shared arena lets deleted segments be unmapped right away instead of when they are garbage collected.
+    final var arena = Arena.ofShared();
+
+    try (final var channel = FileChannel.open(
+      file,
+      StandardOpenOption.CREATE,
+      StandardOpenOption.READ,
+      StandardOpenOption.WRITE)) {
+      return new MappedFile(arena, channel.map(FileChannel.MapMode.READ_WRITE, 0L, size, arena));
+    } catch (final IOException | RuntimeException e) {
+      arena.close();
+
+      throw e;
+    }
+  }
+
+  public static MessageJournal open(final Path directory, final int segmentSize) {
+    try {
+      Files.createDirectories(directory);
+
+      return new MessageJournal(directory, segmentSize, map(directory.resolve(CURSOR_FILE_NAME), Long.BYTES));
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private Path segmentFile(final long basePosition) {
+    return directory.resolve("%020d%s".formatted(basePosition, SEGMENT_SUFFIX));
+  }
+
+  private static long basePositionOf(final Path segmentFile) {
+    final var fileName = segmentFile.getFileName().toString();
+
+    return Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  private static String readString(final ByteBuffer buffer) {
+    final var bytes = new byte[buffer.getShort() & 0xFFFF];
+
+    buffer.get(bytes);
+
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static int formatVersionOf(final ByteBuffer segment) {
+    // Version 0 segments start their first record right after the header, and record sizes are never negative.
+    final var formatVersion = segment.getInt(LEGACY_SEGMENT_HEADER_SIZE);
+
+    return (formatVersion < 0) ? (formatVersion & Integer.MAX_VALUE) : 0;
+  }
+
+  private static int segmentHeaderSizeOf(final int formatVersion) {
+    return (formatVersion == 0) ? LEGACY_SEGMENT_HEADER_SIZE : SEGMENT_HEADER_SIZE;
+  }
+
+  private static Message readMessage(final ByteBuffer buffer, final int formatVersion) {
+    final var sequenceNumber = buffer.getLong();
+    final var enqueuedAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+    final var availableAt = (formatVersion == 0)
+      ? enqueuedAt
+      : Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+    final var groupId = readString(buffer);
+    final var subject = readString(buffer);
+    final var body = new byte[buffer.getInt()];
+
+    buffer.get(body);
+
+    return new Message(sequenceNumber, groupId, enqueuedAt, availableAt, null, 0, subject, body);
+  }
+
+  public synchronized List<Entry> recover() {
+    final var cursor = cursorBuffer.getLong(0);
+    final var entries = new ArrayList<Entry>();
+
+    try (final var segmentFiles = Files.list(directory)) {
+      for (final var segmentFile : segmentFiles.filter(f -> f.toString().endsWith(SEGMENT_SUFFIX)).sorted().toList()) {
+        segments.put(basePositionOf(segmentFile), map(segmentFile, segmentSize));
+      }
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    writePosition = segments.isEmpty() ? cursor : segments.firstKey();
+    for (final var segment : segments.entrySet()) {
+      final var buffer = segment.getValue().buffer();
+      final var formatVersion = formatVersionOf(buffer);
+      var offset = segmentHeaderSizeOf(formatVersion);
+
+      lastSequenceNumber = Math.max(lastSequenceNumber, buffer.getLong(0));
+      writePosition = segment.getKey() + offset;
+      while ((offset + RECORD_HEADER_SIZE) <= segmentSize) {
+        final var recordSize = buffer.getInt(offset);
+
+        if (recordSize == 0) {
+          break;
+        }
+        final var position = segment.getKey() + offset;
+
+        lastSequenceNumber = Math.max(lastSequenceNumber, buffer.getLong(offset + RECORD_HEADER_SIZE));
+        if (position >= cursor) {
+          entries.add(new Entry(position, readMessage(buffer.position(offset + RECORD_HEADER_SIZE), formatVersion)));
+          pendingPositions.add(position);
+        }
+        offset += RECORD_HEADER_SIZE + recordSize;
+        writePosition = segment.getKey() + offset;
+      }
+    }
+
+    return entries;
+  }
+
+  public synchronized long lastSequenceNumber() {
+    return lastSequenceNumber;
+  }
+
+  private static void writeString(final ByteBuffer buffer, final String value) {
+    final var bytes = value.getBytes(StandardCharsets.UTF_8);
+
+    buffer.putShort((short) bytes.length);
+    buffer.put(bytes);
+  }
+
+  private static int stringSizeOf(final String value) {
+    final var size = value.getBytes(StandardCharsets.UTF_8).length;
+
+    // Strings are length-prefixed with an unsigned short, so a longer one would be truncated on recovery.
+    if (size > MAX_STRING_SIZE) {
+      throw new IllegalArgumentException("Message string exceeds journal string size");
+    }
+
+    return Short.BYTES + size;
+  }
+
+  private static int recordSizeOf(final Message message) {
+    return (3 * Long.BYTES) + (2 * Integer.BYTES)
+      + stringSizeOf(message.groupId())
+      + stringSizeOf(message.subject())
+      + Integer.BYTES + message.body().length;
+  }
+
+  private ByteBuffer roll() {
+    final var basePosition = segments.isEmpty()
+      ? writePosition
+      : segments.lastKey() + segmentSize;
+
+    if (!segments.isEmpty()) {
+      segments.lastEntry().getValue().force();
+    }
+
+    try {
+      final var segmentFile = map(segmentFile(basePosition), segmentSize);
+      final var segment = segmentFile.buffer();
+
+      segment.putLong(0, lastSequenceNumber);
+      segment.putInt(LEGACY_SEGMENT_HEADER_SIZE, Integer.MIN_VALUE | FORMAT_VERSION);
+      segments.put(basePosition, segmentFile);
+      writePosition = basePosition + SEGMENT_HEADER_SIZE;
+
+      return segment;
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public synchronized long append(final Message message) {
+    final var recordSize = recordSizeOf(message);
+
+    if ((SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE + recordSize) > segmentSize) {
+      throw new IllegalArgumentException("Message exceeds journal segment size");
+    }
+    var segment = segments.isEmpty() ? null : segments.lastEntry().getValue().buffer();
+    var offset = segments.isEmpty() ? 0 : (int) (writePosition - segments.lastKey());
+
+    if ((segment == null)
+      || (formatVersionOf(segment) != FORMAT_VERSION)
+      || ((offset + RECORD_HEADER_SIZE + recordSize) > segmentSize)) {
+      segment = roll();
+      offset = SEGMENT_HEADER_SIZE;
+    }
+    final var buffer = segment.duplicate().position(offset + RECORD_HEADER_SIZE);
+
+    buffer.putLong(message.sequenceNumber());
+    buffer.putLong(message.enqueuedAt().getEpochSecond());
+    buffer.putInt(message.enqueuedAt().getNano());
+    buffer.putLong(message.availableAt().getEpochSecond());
+    buffer.putInt(message.availableAt().getNano());
+    writeString(buffer, message.groupId());
+    writeString(buffer, message.subject());
+    buffer.putInt(message.body().length);
+    buffer.put(message.body());
+    segment.putInt(offset, recordSize);
+    final var position = writePosition;
+
+    pendingPositions.add(position);
+    lastSequenceNumber = Math.max(lastSequenceNumber, message.sequenceNumber());
+    writePosition += RECORD_HEADER_SIZE + recordSize;
+
+    return position;
+  }
+
+  private void deleteAllAcknowledged(final long cursor) {
+    while ((segments.size() > 1) && ((segments.firstKey() + segmentSize) <= cursor)) {
+      final var segment = segments.pollFirstEntry();
+      final var basePosition = segment.getKey();
+
+      segment.getValue().close();
+      try {
+        Files.deleteIfExists(segmentFile(basePosition));
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  public synchronized void acknowledge(final long position) {
+    if (!pendingPositions.remove(position)) {
+      return;
+    }
+    final var cursor = pendingPositions.isEmpty() ? writePosition : pendingPositions.first();
+
+    if (cursor <= cursorBuffer.getLong(0)) {
+      return;
+    }
+    cursorBuffer.putLong(0, cursor);
+    if ((segments.size() > 1) && ((segments.firstKey() + segmentSize) <= cursor)) {
+      cursorFile.force();
+      deleteAllAcknowledged(cursor);
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    for (final var segment : segments.values()) {
+      segment.force();
+      segment.close();
+    }
+    segments.clear();
+    cursorFile.force();
+    cursorFile.close();
+  }
+
+  public record Entry(long position, Message message) {
+  }
+
+  private record MappedFile(Arena arena, MemorySegment memory) implements AutoCloseable {
+
+    private ByteBuffer buffer() {
+      return memory.asByteBuffer();
+    }
+
+    private void force() {
+      memory.force();
+    }
+
+    @Override
+    public void close() {
+      arena.close();
+    }
+  }
+}
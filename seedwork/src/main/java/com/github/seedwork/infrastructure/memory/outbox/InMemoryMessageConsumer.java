@@ -0,0 +1,467 @@
+package com.github.seedwork.infrastructure.memory.outbox;
+
+import com.github.seedwork.infrastructure.outbox.Message;
+import com.github.seedwork.infrastructure.outbox.MessageConsumer;
+import com.github.seedwork.infrastructure.outbox.MessageCounts;
+import com.github.seedwork.infrastructure.outbox.MessageException;
+import com.github.seedwork.infrastructure.outbox.MessageFilter;
+import com.github.seedwork.infrastructure.outbox.MessageHeader;
+import com.github.seedwork.infrastructure.outbox.MessageLane;
+import com.github.seedwork.infrastructure.outbox.OutboxMetrics;
+import com.github.seedwork.infrastructure.outbox.Partitions;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+public class InMemoryMessageConsumer implements MessageConsumer {
+
+  private final InMemoryMessageStore store;
+  private final Clock clock;
+  private final Duration lockDuration;
+  private final int maxAttemptCount;
+  private final OutboxMetrics metrics;
+
+  public InMemoryMessageConsumer(final InMemoryMessageStore store,
+                                 final Clock clock,
+                                 final Duration lockDuration,
+                                 final int maxAttemptCount) {
+    this(store, clock, lockDuration, maxAttemptCount, OutboxMetrics.noop());
+  }
+
+  public InMemoryMessageConsumer(final InMemoryMessageStore store,
+                                 final Clock clock,
+                                 final Duration lockDuration,
+                                 final int maxAttemptCount,
+                                 final OutboxMetrics metrics) {
+    this.store = Objects.requireNonNull(store);
+    this.clock = Objects.requireNonNull(clock);
+    this.lockDuration = Objects.requireNonNull(lockDuration);
+    this.maxAttemptCount = maxAttemptCount;
+    this.metrics = Objects.requireNonNull(metrics);
+  }
+
+  private static Message withState(final Message message,
+                                   final Instant availableAt,
+                                   final UUID lockId,
+                                   final int attemptCount) {
+    return new Message(
+      message.sequenceNumber(),
+      message.groupId(),
+      message.enqueuedAt(),
+      availableAt,
+      lockId,
+      attemptCount,
+      message.subject(),
+      message.body());
+  }
+
+  private static boolean isLocked(final Message message, final UUID lockId, final Instant now) {
+    return (message != null) && lockId.equals(message.lockId()) && message.availableAt().isAfter(now);
+  }
+
+  private Stream<Message> messages(final Long afterSequenceNumber) {
+    return store.references(afterSequenceNumber).stream()
+      .map(AtomicReference::get)
+      .filter(Objects::nonNull);
+  }
+
+  private Message head(final String groupId) {
+    for (final var sequenceNumber : store.group(groupId)) {
+      final var reference = store.reference(sequenceNumber);
+      final var message = (reference == null) ? null : reference.get();
+
+      if (message != null) {
+        return message;
+      }
+    }
+
+    return null;
+  }
+
+  private boolean isFailed(final Message message) {
+    return message.attemptCount() >= maxAttemptCount;
+  }
+
+  @Override
+  public MessageCounts count() {
+    final var countedAt = clock.instant();
+    var activeCount = 0;
+    var failedCount = 0;
+    var lockedCount = 0;
+
+    for (final var message : messages(null).toList()) {
+      if (isFailed(message)) {
+        failedCount++;
+      } else {
+        activeCount++;
+      }
+      if ((message.lockId() != null) && message.availableAt().isAfter(countedAt)) {
+        lockedCount++;
+      }
+    }
+
+    return new MessageCounts(activeCount, failedCount, lockedCount, store.deadLetters().size());
+  }
+
+  @Override
+  public Message peek(final Long sequenceNumber) {
+    final var reference = store.reference(sequenceNumber);
+    final var message = (reference == null) ? null : reference.get();
+
+    if (message == null) {
+      throw MessageException.notFound();
+    }
+
+    return message;
+  }
+
+  @Override
+  public List<MessageHeader> peekAllAfter(final Long afterSequenceNumber, final MessageFilter filter, final int limit) {
+    return messages(afterSequenceNumber)
+      .filter(m -> (filter.groupId() == null) || filter.groupId().equals(m.groupId()))
+      .filter(m -> (filter.subject() == null) || filter.subject().equals(m.subject()))
+      .filter(m -> !filter.failedOnly() || isFailed(m))
+      .limit(limit)
+      .map(Message::header)
+      .toList();
+  }
+
+  private List<Message> lockGroup(final String groupId,
+                                  final UUID lockId,
+                                  final Partitions partitions,
+                                  final MessageLane lane,
+                                  final int groupLimit,
+                                  final Instant lockedAt,
+                                  final List<String> skippedGroupIds) {
+    final var messages = new ArrayList<Message>();
+    Instant deferredUntil = null;
+
+    if (store.hasDeadLetters(groupId)) {
+      return List.of();
+    }
+    for (final var sequenceNumber : store.group(groupId)) {
+      final var reference = store.reference(sequenceNumber);
+      final var message = (reference == null) ? null : reference.get();
+
+      if (message == null) {
+        continue;
+      }
+      if (messages.isEmpty() && (!partitions.contains(message.partitionKey()) || !lane.contains(message.subject()))) {
+        skippedGroupIds.add(groupId);
+
+        return List.of();
+      }
+      if ((messages.size() >= groupLimit) || isFailed(message)) {
+        break;
+      }
+      if (message.availableAt().isAfter(lockedAt)) {
+        deferredUntil = message.availableAt();
+
+        break;
+      }
+      final var lockedMessage = withState(message, lockedAt.plus(lockDuration), lockId, message.attemptCount() + 1);
+
+      if (!reference.compareAndSet(message, lockedMessage)) {
+        skippedGroupIds.add(groupId);
+
+        break;
+      }
+      messages.add(lockedMessage);
+    }
+    if (!messages.isEmpty()) {
+      deferredUntil = lockedAt.plus(lockDuration);
+    }
+    if (deferredUntil != null) {
+      store.defer(groupId, deferredUntil);
+    }
+
+    return messages;
+  }
+
+  @Override
+  public List<Message> lockAllNextActive(final UUID lockId,
+                                         final Partitions partitions,
+                                         final MessageLane lane,
+                                         final int limit,
+                                         final int groupLimit) {
+    final var lockStartedAt = System.nanoTime();
+    final var lockedAt = clock.instant();
+    final var messages = new ArrayList<Message>();
+    final var skippedGroupIds = new ArrayList<String>();
+    var groupCount = 0;
+
+    store.wakeAllDeferred(lockedAt);
+    while (groupCount < limit) {
+      final var groupId = store.pollReady();
+
+      if (groupId == null) {
+        break;
+      }
+      final var groupMessages = lockGroup(groupId, lockId, partitions, lane, groupLimit, lockedAt, skippedGroupIds);
+
+      if (!groupMessages.isEmpty()) {
+        messages.addAll(groupMessages);
+        groupCount++;
+      }
+    }
+    skippedGroupIds.forEach(store::markReady);
+    messages.sort(Comparator.comparing(Message::sequenceNumber));
+    metrics.recordLock(Duration.ofNanos(System.nanoTime() - lockStartedAt), messages.size());
+
+    return messages;
+  }
+
+  @Override
+  public List<Message> lockAllNextFailed(final UUID lockId, final int limit) {
+    final var lockedAt = clock.instant();
+    final var heads = store.groupIds().stream()
+      .map(this::head)
+      .filter(Objects::nonNull)
+      .filter(m -> isFailed(m) && !m.availableAt().isAfter(lockedAt))
+      .sorted(Comparator.comparing(Message::sequenceNumber))
+      .limit(limit)
+      .toList();
+    final var messages = new ArrayList<Message>();
+
+    for (final var message : heads) {
+      final var reference = store.reference(message.sequenceNumber());
+      final var lockedMessage = withState(message, lockedAt.plus(lockDuration), lockId, message.attemptCount());
+
+      if ((reference != null) && reference.compareAndSet(message, lockedMessage)) {
+        messages.add(lockedMessage);
+      }
+    }
+
+    return messages;
+  }
+
+  @Override
+  public int extendAllLocked(final UUID lockId) {
+    final var extendedAt = clock.instant();
+    var extendCount = 0;
+
+    for (final var reference : store.references(null)) {
+      final var message = reference.get();
+
+      if (isLocked(message, lockId, extendedAt) && reference.compareAndSet(
+        message,
+        withState(message, extendedAt.plus(lockDuration), lockId, message.attemptCount()))) {
+        extendCount++;
+      }
+    }
+
+    return extendCount;
+  }
+
+  private Message updateLocked(final Long sequenceNumber, final UUID lockId, final UnaryOperator<Message> updater) {
+    final var reference = store.reference(sequenceNumber);
+
+    while (reference != null) {
+      final var message = reference.get();
+
+      if (!isLocked(message, lockId, clock.instant())) {
+        break;
+      }
+      final var updatedMessage = updater.apply(message);
+
+      if (reference.compareAndSet(message, updatedMessage)) {
+        return message;
+      }
+    }
+
+    throw MessageException.notFound();
+  }
+
+  private List<Message> updateAllLocked(final List<Long> sequenceNumbers,
+                                        final UUID lockId,
+                                        final UnaryOperator<Message> updater) {
+    final var messages = new ArrayList<Message>();
+
+    for (final var sequenceNumber : sequenceNumbers) {
+      try {
+        messages.add(updateLocked(sequenceNumber, lockId, updater));
+      } catch (final MessageException e) {
+        // Do nothing
+      }
+    }
+
+    return messages;
+  }
+
+  private Message requeue(final Message message) {
+    return withState(message, clock.instant(), null, 0);
+  }
+
+  @Override
+  public void requeueLocked(final Long sequenceNumber, final UUID lockId) {
+    final var message = updateLocked(sequenceNumber, lockId, this::requeue);
+
+    store.markReady(message.groupId());
+  }
+
+  @Override
+  public void requeueAllLocked(final List<Long> sequenceNumbers, final UUID lockId) {
+    if (sequenceNumbers.isEmpty()) {
+      return;
+    }
+    final var messages = updateAllLocked(sequenceNumbers, lockId, this::requeue);
+
+    messages.forEach(m -> store.markReady(m.groupId()));
+    if (messages.size() != sequenceNumbers.size()) {
+      throw MessageException.notFound();
+    }
+  }
+
+  @Override
+  public void retryLocked(final Long sequenceNumber, final UUID lockId, final Duration delay) {
+    final var availableAt = clock.instant().plus(delay);
+    final var message = updateLocked(
+      sequenceNumber,
+      lockId,
+      m -> withState(m, availableAt, null, m.attemptCount()));
+
+    store.defer(message.groupId(), availableAt);
+  }
+
+  @Override
+  public void releaseAllLocked(final List<Long> sequenceNumbers, final UUID lockId) {
+    if (sequenceNumbers.isEmpty()) {
+      return;
+    }
+    final var messages = updateAllLocked(
+      sequenceNumbers,
+      lockId,
+      m -> withState(m, clock.instant(), null, m.attemptCount() - 1));
+
+    messages.forEach(m -> store.markReady(m.groupId()));
+    if (messages.size() != sequenceNumbers.size()) {
+      throw MessageException.notFound();
+    }
+  }
+
+  private int deadLetterAllAfter(final Message message) {
+    var deadLetterCount = 0;
+
+    for (final var nextSequenceNumber : store.group(message.groupId()).tailSet(message.sequenceNumber(), false)) {
+      final var reference = store.reference(nextSequenceNumber);
+      final var nextMessage = (reference == null) ? null : reference.getAndSet(null);
+
+      if (nextMessage != null) {
+        store.deadLetter(nextMessage);
+        store.remove(nextMessage);
+        deadLetterCount++;
+      }
+    }
+
+    return deadLetterCount;
+  }
+
+  @Override
+  public void deadLetterLocked(final Long sequenceNumber, final UUID lockId) {
+    final var message = updateLocked(sequenceNumber, lockId, m -> null);
+
+    deadLetterAllAfter(message);
+    store.deadLetter(message);
+    store.remove(message);
+    store.markReady(message.groupId());
+  }
+
+  @Override
+  public int deadLetterAllExhausted(final Partitions partitions) {
+    final var deadLetteredAt = clock.instant();
+    var deadLetterCount = 0;
+
+    for (final var groupId : List.copyOf(store.groupIds())) {
+      final var message = store.group(groupId).stream()
+        .map(store::reference)
+        .filter(Objects::nonNull)
+        .map(AtomicReference::get)
+        .filter(m -> (m != null) && isFailed(m) && !m.availableAt().isAfter(deadLetteredAt))
+        .findFirst()
+        .orElse(null);
+
+      if ((message == null) || !partitions.contains(message.partitionKey())) {
+        continue;
+      }
+      final var reference = store.reference(message.sequenceNumber());
+
+      if ((reference == null) || !reference.compareAndSet(message, null)) {
+        continue;
+      }
+      deadLetterCount += deadLetterAllAfter(message) + 1;
+      store.deadLetter(message);
+      store.remove(message);
+    }
+
+    return deadLetterCount;
+  }
+
+  @Override
+  public List<MessageHeader> peekAllDeadLettered(final long offset, final int limit) {
+    return store.deadLetters().stream()
+      .skip(offset)
+      .limit(limit)
+      .map(Message::header)
+      .toList();
+  }
+
+  @Override
+  public int replayAllDeadLettered(final String groupId) {
+    final var replayedAt = clock.instant();
+    var replayCount = 0;
+
+    for (final var message : store.deadLetters()) {
+      if (((groupId == null) || groupId.equals(message.groupId())) && store.removeDeadLetter(message)) {
+        store.append(withState(message, replayedAt, null, 0));
+        replayCount++;
+      }
+    }
+
+    return replayCount;
+  }
+
+  private Message dequeue(final Long sequenceNumber, final UUID lockId) {
+    final var message = updateLocked(sequenceNumber, lockId, m -> null);
+
+    store.remove(message);
+    store.markReady(message.groupId());
+
+    return message;
+  }
+
+  @Override
+  public void dequeueLocked(final Long sequenceNumber, final UUID lockId) {
+    dequeue(sequenceNumber, lockId);
+  }
+
+  @Override
+  public void dequeueAllLocked(final List<Long> sequenceNumbers, final UUID lockId) {
+    if (sequenceNumbers.isEmpty()) {
+      return;
+    }
+    final var dequeueStartedAt = System.nanoTime();
+    var dequeueCount = 0;
+
+    for (final var sequenceNumber : sequenceNumbers) {
+      try {
+        dequeue(sequenceNumber, lockId);
+        dequeueCount++;
+      } catch (final MessageException e) {
+        // Do nothing
+      }
+    }
+    metrics.recordDequeue(Duration.ofNanos(System.nanoTime() - dequeueStartedAt), dequeueCount);
+    if (dequeueCount != sequenceNumbers.size()) {
+      throw MessageException.notFound();
+    }
+  }
+}
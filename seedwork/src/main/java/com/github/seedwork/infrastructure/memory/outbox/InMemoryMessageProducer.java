@@ -0,0 +1,111 @@
+package com.github.seedwork.infrastructure.memory.outbox;
+
+import com.github.seedwork.infrastructure.outbox.Message;
+import com.github.seedwork.infrastructure.outbox.MessageContent;
+import com.github.seedwork.infrastructure.outbox.MessageProducer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+public class InMemoryMessageProducer implements MessageProducer {
+
+  private final InMemoryMessageStore store;
+  private final Clock clock;
+
+  public InMemoryMessageProducer(final InMemoryMessageStore store, final Clock clock) {
+    this.store = Objects.requireNonNull(store);
+    this.clock = Objects.requireNonNull(clock);
+  }
+
+  private void appendAll(final List<Message> messages) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new MessagesAppended(messages));
+    } else {
+      messages.forEach(store::append);
+    }
+  }
+
+  private Message enqueue(final String groupId,
+                          final String subject,
+                          final byte[] body,
+                          final Instant enqueuedAt,
+                          final Instant availableAt) {
+    final var message = new Message(
+      store.nextSequenceNumber(),
+      groupId,
+      enqueuedAt,
+      availableAt,
+      null,
+      0,
+      subject,
+      body);
+
+    appendAll(List.of(message));
+
+    return message;
+  }
+
+  @Override
+  public Message enqueue(final String groupId, final String subject, final byte[] body) {
+    final var enqueuedAt = clock.instant();
+
+    return enqueue(groupId, subject, body, enqueuedAt, enqueuedAt);
+  }
+
+  @Override
+  public Message enqueue(final String groupId, final String subject, final byte[] body, final Instant availableAt) {
+    return enqueue(groupId, subject, body, clock.instant(), availableAt);
+  }
+
+  @Override
+  public List<Message> enqueueAll(final String groupId, final List<MessageContent> contents) {
+    final var enqueuedAt = clock.instant();
+    final var messages = contents.stream()
+      .map(c -> new Message(
+        store.nextSequenceNumber(),
+        groupId,
+        enqueuedAt,
+        enqueuedAt,
+        null,
+        0,
+        c.subject(),
+        c.body()))
+      .toList();
+
+    appendAll(messages);
+
+    return messages;
+  }
+
+  private final class MessagesAppended implements TransactionSynchronization {
+
+    private final List<Message> messages;
+
+    private MessagesAppended(final List<Message> messages) {
+      this.messages = messages;
+    }
+
+    @Override
+    public void beforeCommit(final boolean readOnly) {
+      // Messages are stored before the commit but only become visible after it. A message whose transaction fails to
+      // commit is discarded again, unless the application stops first.
+      messages.forEach(store::prepare);
+    }
+
+    @Override
+    public void afterCommit() {
+      messages.forEach(store::append);
+    }
+
+    @Override
+    public void afterCompletion(final int status) {
+      if (status != STATUS_COMMITTED) {
+        messages.forEach(store::discard);
+      }
+    }
+  }
+}
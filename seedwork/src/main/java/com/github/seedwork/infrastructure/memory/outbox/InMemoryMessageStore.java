@@ -0,0 +1,158 @@
+package com.github.seedwork.infrastructure.memory.outbox;
+
+import com.github.seedwork.infrastructure.outbox.Message;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class InMemoryMessageStore {
+
+  private final AtomicLong sequence;
+  private final ConcurrentNavigableMap<Long, AtomicReference<Message>> messages;
+  private final ConcurrentMap<String, NavigableSet<Long>> groups;
+  private final ConcurrentNavigableMap<Long, Message> deadLetters;
+  private final ConcurrentMap<String, Integer> deadLetteredGroupIds;
+  private final Queue<String> readyGroupIds;
+  private final Set<String> queuedGroupIds;
+  private final ConcurrentMap<String, Instant> deferredGroupIds;
+
+  public InMemoryMessageStore() {
+    this(0L);
+  }
+
+  public InMemoryMessageStore(final long lastSequenceNumber) {
+    this.sequence = new AtomicLong(lastSequenceNumber);
+    this.messages = new ConcurrentSkipListMap<>();
+    this.groups = new ConcurrentHashMap<>();
+    this.deadLetters = new ConcurrentSkipListMap<>();
+    this.deadLetteredGroupIds = new ConcurrentHashMap<>();
+    this.readyGroupIds = new ConcurrentLinkedQueue<>();
+    this.queuedGroupIds = ConcurrentHashMap.newKeySet();
+    this.deferredGroupIds = new ConcurrentHashMap<>();
+  }
+
+  public long nextSequenceNumber() {
+    return sequence.incrementAndGet();
+  }
+
+  public long lastSequenceNumber() {
+    return sequence.get();
+  }
+
+  public void restore(final Message message) {
+    messages.put(message.sequenceNumber(), new AtomicReference<>(message));
+    groups.compute(message.groupId(), (g, s) -> {
+      final var sequenceNumbers = (s == null) ? new ConcurrentSkipListSet<Long>() : s;
+
+      sequenceNumbers.add(message.sequenceNumber());
+
+      return sequenceNumbers;
+    });
+    markReady(message.groupId());
+  }
+
+  public void prepare(final Message message) {
+    // Do nothing
+  }
+
+  public void discard(final Message message) {
+    // Do nothing
+  }
+
+  public void append(final Message message) {
+    restore(message);
+  }
+
+  public void remove(final Message message) {
+    messages.remove(message.sequenceNumber());
+    groups.computeIfPresent(message.groupId(), (g, s) -> {
+      s.remove(message.sequenceNumber());
+
+      return s.isEmpty() ? null : s;
+    });
+  }
+
+  public AtomicReference<Message> reference(final Long sequenceNumber) {
+    return messages.get(sequenceNumber);
+  }
+
+  public Collection<AtomicReference<Message>> references(final Long afterSequenceNumber) {
+    return (afterSequenceNumber == null)
+      ? messages.values()
+      : messages.tailMap(afterSequenceNumber, false).values();
+  }
+
+  public Set<String> groupIds() {
+    return groups.keySet();
+  }
+
+  public NavigableSet<Long> group(final String groupId) {
+    return groups.getOrDefault(groupId, new ConcurrentSkipListSet<>());
+  }
+
+  public void deadLetter(final Message message) {
+    if (deadLetters.put(message.sequenceNumber(), message) == null) {
+      deadLetteredGroupIds.merge(message.groupId(), 1, Integer::sum);
+    }
+  }
+
+  public boolean hasDeadLetters(final String groupId) {
+    return deadLetteredGroupIds.containsKey(groupId);
+  }
+
+  public boolean isDeadLettered(final Long sequenceNumber) {
+    return deadLetters.containsKey(sequenceNumber);
+  }
+
+  public boolean removeDeadLetter(final Message message) {
+    if (!deadLetters.remove(message.sequenceNumber(), message)) {
+      return false;
+    }
+    deadLetteredGroupIds.computeIfPresent(message.groupId(), (g, c) -> (c > 1) ? c - 1 : null);
+
+    return true;
+  }
+
+  public Collection<Message> deadLetters() {
+    return deadLetters.values();
+  }
+
+  public void markReady(final String groupId) {
+    if (queuedGroupIds.add(groupId)) {
+      readyGroupIds.offer(groupId);
+    }
+  }
+
+  public String pollReady() {
+    final var groupId = readyGroupIds.poll();
+
+    if (groupId != null) {
+      queuedGroupIds.remove(groupId);
+    }
+
+    return groupId;
+  }
+
+  public void defer(final String groupId, final Instant deferredUntil) {
+    deferredGroupIds.merge(groupId, deferredUntil, (l, r) -> l.isBefore(r) ? l : r);
+  }
+
+  public void wakeAllDeferred(final Instant now) {
+    deferredGroupIds.forEach((g, d) -> {
+      if (!d.isAfter(now) && deferredGroupIds.remove(g, d)) {
+        markReady(g);
+      }
+    });
+  }
+}
@@ -0,0 +1,49 @@
+package com.github.seedwork.infrastructure.memory.outbox;
+
+import com.github.seedwork.infrastructure.outbox.OutboxAutoConfiguration;
+import com.github.seedwork.infrastructure.outbox.OutboxMetrics;
+import com.github.seedwork.infrastructure.outbox.OutboxProperties;
+import com.github.seedwork.infrastructure.outbox.PartitionLeaseManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Clock;
+
+@AutoConfiguration
+@AutoConfigureAfter(OutboxAutoConfiguration.class)
+@ConditionalOnBean(OutboxProperties.class)
+@ConditionalOnProperty(prefix = "outbox", name = "store", havingValue = "memory")
+public class InMemoryOutboxAutoConfiguration {
+
+  @Bean
+  public InMemoryMessageStore inMemoryMessageStore() {
+    return new InMemoryMessageStore();
+  }
+
+  @Bean
+  public InMemoryMessageConsumer inMemoryMessageConsumer(final OutboxProperties properties,
+                                                         final InMemoryMessageStore messageStore,
+                                                         final Clock clock,
+                                                         final ObjectProvider<OutboxMetrics> outboxMetrics) {
+    return new InMemoryMessageConsumer(messageStore,
+      clock,
+      properties.lockDuration(),
+      properties.maxAttemptCount(),
+      outboxMetrics.getIfAvailable(OutboxMetrics::noop));
+  }
+
+  @Bean
+  public InMemoryMessageProducer inMemoryMessageProducer(final InMemoryMessageStore messageStore,
+                                                         final Clock clock) {
+    return new InMemoryMessageProducer(messageStore, clock);
+  }
+
+  @Bean
+  public PartitionLeaseManager inMemoryPartitionLeaseManager() {
+    return PartitionLeaseManager.unpartitioned();
+  }
+}
@@ -0,0 +1,50 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+public class ApplicationEventMessageDispatcher implements MessageDispatcher {
+
+  private final ApplicationEventPublisher applicationEventPublisher;
+  private final MessageCodec messageCodec;
+
+  public ApplicationEventMessageDispatcher(final ApplicationEventPublisher applicationEventPublisher,
+                                           final MessageCodec messageCodec) {
+    this.applicationEventPublisher = Objects.requireNonNull(applicationEventPublisher);
+    this.messageCodec = Objects.requireNonNull(messageCodec);
+  }
+
+  private DispatchResult publishAll(final List<Message> groupMessages, final Map<Long, Serializable> decodedBodies) {
+    for (var i = 0; i < groupMessages.size(); i++) {
+      final var message = groupMessages.get(i);
+
+      try {
+        final var body = decodedBodies.get(message.sequenceNumber());
+
+        applicationEventPublisher.publishEvent((body != null) ? body : messageCodec.decode(message.subject(), message.body()));
+      } catch (final Throwable t) {
+        return DispatchResult.failed(i, t);
+      }
+    }
+
+    return DispatchResult.acknowledged(groupMessages.size());
+  }
+
+  @Override
+  public CompletableFuture<DispatchResult> dispatchAll(final List<Message> groupMessages) {
+    return dispatchAll(groupMessages, Map.of());
+  }
+
+  @Override
+  public CompletableFuture<DispatchResult> dispatchAll(final List<Message> groupMessages,
+                                                       final Map<Long, Serializable> decodedBodies) {
+    return CompletableFuture.supplyAsync(
+      () -> publishAll(groupMessages, decodedBodies),
+      r -> Thread.ofVirtual().name("outbox-dispatch").start(r));
+  }
+}
@@ -0,0 +1,68 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class BinaryMessageCodec implements MessageCodec {
+
+  // Java serialization streams start with 0xACED, so the marker byte tells both encodings apart.
+  private static final byte FORMAT_MARKER = 0x01;
+
+  private final Map<String, MessageBodyFormat<?>> formats;
+  private final MessageCodec fallbackCodec;
+
+  public BinaryMessageCodec(final List<MessageBodyFormat<?>> formats, final MessageCodec fallbackCodec) {
+    this.formats = formats.stream()
+      .collect(Collectors.toUnmodifiableMap(MessageBodyFormat::subject, Function.identity()));
+    this.fallbackCodec = Objects.requireNonNull(fallbackCodec);
+  }
+
+  private static <T extends Serializable> byte[] encode(final MessageBodyFormat<T> format, final Serializable body) {
+    final var byteStream = new ByteArrayOutputStream(64);
+
+    try (final var dataStream = new DataOutputStream(byteStream)) {
+      dataStream.writeByte(FORMAT_MARKER);
+      format.write(format.type().cast(body), dataStream);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return byteStream.toByteArray();
+  }
+
+  @Override
+  public byte[] encode(final String subject, final Serializable body) {
+    final var format = formats.get(subject);
+
+    if ((format == null) || !format.type().isInstance(body)) {
+      return fallbackCodec.encode(subject, body);
+    }
+
+    return encode(format, body);
+  }
+
+  @Override
+  public Serializable decode(final String subject, final byte[] body) {
+    final var format = formats.get(subject);
+
+    if ((format == null) || (body.length == 0) || (body[0] != FORMAT_MARKER)) {
+      return fallbackCodec.decode(subject, body);
+    }
+
+    try (final var dataStream = new DataInputStream(new ByteArrayInputStream(body, 1, body.length - 1))) {
+      return format.read(dataStream);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public record CoalescedMessages(List<Message> messages,
+                                Map<Long, Long> supersedingSequenceNumbers,
+                                Map<Long, Serializable> decodedBodies) {
+
+  public CoalescedMessages {
+    messages = List.copyOf(messages);
+    supersedingSequenceNumbers = Collections.unmodifiableMap(new TreeMap<>(supersedingSequenceNumbers));
+    decodedBodies = Map.copyOf(decodedBodies);
+  }
+
+  public static CoalescedMessages of(final List<Message> messages) {
+    return new CoalescedMessages(messages, Map.of(), Map.of());
+  }
+}
@@ -0,0 +1,16 @@
+package com.github.seedwork.infrastructure.outbox;
+
+public record DispatchResult(int acknowledgedCount, Throwable failure) {
+
+  public static DispatchResult acknowledged(final int acknowledgedCount) {
+    return new DispatchResult(acknowledgedCount, null);
+  }
+
+  public static DispatchResult failed(final int acknowledgedCount, final Throwable failure) {
+    return new DispatchResult(acknowledgedCount, failure);
+  }
+
+  public boolean isFailure() {
+    return (failure() != null);
+  }
+}
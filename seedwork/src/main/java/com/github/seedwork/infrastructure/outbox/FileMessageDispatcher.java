@@ -0,0 +1,139 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+
+public class FileMessageDispatcher implements MessageDispatcher, AutoCloseable {
+
+  private static final Batch CLOSE = new Batch(List.of(), new CompletableFuture<>());
+
+  private final FileChannel channel;
+  private final BlockingQueue<Batch> batches;
+  private final Thread writer;
+  private volatile boolean closed;
+
+  // The poller awaits each poll's group batches before locking again, so at most one poll's groups are in the pipeline.
+  public FileMessageDispatcher(final Path file, final int pipelineDepth) {
+    try {
+      this.channel = FileChannel.open(
+        Objects.requireNonNull(file),
+        StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    this.batches = new ArrayBlockingQueue<>(pipelineDepth);
+    this.writer = Thread.ofVirtual()
+      .name("outbox-file-dispatcher")
+      .start(this::writeAll);
+  }
+
+  private static void write(final DataOutputStream output, final Message message) throws IOException {
+    output.writeLong(message.sequenceNumber());
+    output.writeUTF(message.groupId());
+    output.writeUTF(message.subject());
+    output.writeInt(message.body().length);
+    output.write(message.body());
+  }
+
+  private void write(final List<Batch> pendingBatches) throws IOException {
+    final var byteStream = new ByteArrayOutputStream(4096);
+
+    try (final var dataStream = new DataOutputStream(byteStream)) {
+      for (final var batch : pendingBatches) {
+        for (final var message : batch.messages()) {
+          write(dataStream, message);
+        }
+      }
+    }
+    final var buffer = ByteBuffer.wrap(byteStream.toByteArray());
+
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    channel.force(false);
+  }
+
+  private void writeAll() {
+    final var pendingBatches = new ArrayList<Batch>();
+    var closing = false;
+
+    while (!closing) {
+      try {
+        pendingBatches.add(batches.take());
+        batches.drainTo(pendingBatches);
+        // Batches drained after the close marker were accepted before close() saw them, so they are still written.
+        closing = pendingBatches.removeIf(b -> b == CLOSE);
+        write(pendingBatches);
+        pendingBatches.forEach(b -> b.result().complete(DispatchResult.acknowledged(b.messages().size())));
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        closing = true;
+      } catch (final IOException e) {
+        pendingBatches.forEach(b -> b.result().complete(DispatchResult.failed(0, e)));
+      }
+      pendingBatches.clear();
+    }
+  }
+
+  @Override
+  public CompletableFuture<DispatchResult> dispatchAll(final List<Message> groupMessages) {
+    final var batch = new Batch(groupMessages, new CompletableFuture<>());
+
+    if (closed) {
+      batch.result().complete(DispatchResult.failed(0, new IllegalStateException("Dispatcher closed")));
+
+      return batch.result();
+    }
+    try {
+      batches.put(batch);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      batch.result().complete(DispatchResult.failed(0, e));
+    }
+    // A batch queued while closing is failed here unless close() already drained it.
+    if (closed && batches.remove(batch)) {
+      batch.result().complete(DispatchResult.failed(0, new IllegalStateException("Dispatcher closed")));
+    }
+
+    return batch.result();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    // Interrupting the writer would close the channel mid-write, so it is stopped after the queued batches instead.
+    try {
+      batches.put(CLOSE);
+      writer.join();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      writer.interrupt();
+    }
+    final var closedException = new IllegalStateException("Dispatcher closed");
+    final var pendingBatches = new ArrayList<Batch>();
+
+    batches.drainTo(pendingBatches);
+    pendingBatches.forEach(b -> b.result().complete(DispatchResult.failed(0, closedException)));
+    channel.close();
+  }
+
+  private record Batch(List<Message> messages, CompletableFuture<DispatchResult> result) {
+  }
+}
@@ -0,0 +1,69 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class LockHeartbeat implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LockHeartbeat.class);
+
+  private final MessageConsumer messageConsumer;
+  private final UUID lockId;
+  private final Duration interval;
+  private final CountDownLatch stopped;
+
+  private LockHeartbeat(final MessageConsumer messageConsumer, final UUID lockId, final Duration interval) {
+    this.messageConsumer = Objects.requireNonNull(messageConsumer);
+    this.lockId = Objects.requireNonNull(lockId);
+    this.interval = Objects.requireNonNull(interval);
+
+    this.stopped = new CountDownLatch(1);
+  }
+
+  public static LockHeartbeat start(final MessageConsumer messageConsumer, final UUID lockId, final Duration interval) {
+    final var heartbeat = new LockHeartbeat(messageConsumer, lockId, interval);
+
+    Thread.ofVirtual()
+      .name("outbox-poller-heartbeat")
+      .start(heartbeat::run);
+
+    return heartbeat;
+  }
+
+  private boolean awaitStop() {
+    try {
+      return stopped.await(interval.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+
+      return true;
+    }
+  }
+
+  private void extendLocks() {
+    try {
+      final var extendCount = messageConsumer.extendAllLocked(lockId);
+
+      LOGGER.debug("Extended message locks (lockId={}, count={})", lockId, extendCount);
+    } catch (final Exception e) {
+      LOGGER.error("Failed to extend message locks (lockId={})", lockId, e);
+    }
+  }
+
+  private void run() {
+    while (!awaitStop()) {
+      extendLocks();
+    }
+  }
+
+  @Override
+  public void close() {
+    stopped.countDown();
+  }
+}
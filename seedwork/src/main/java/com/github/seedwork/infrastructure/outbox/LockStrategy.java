@@ -0,0 +1,8 @@
+package com.github.seedwork.infrastructure.outbox;
+
+public enum LockStrategy {
+
+  GROUP_SCAN,
+  SKIP_LOCKED,
+  GROUP_HEAD
+}
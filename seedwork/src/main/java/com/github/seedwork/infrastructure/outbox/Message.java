@@ -1,6 +1,5 @@
 package com.github.seedwork.infrastructure.outbox;
 
-import java.io.Serializable;
 import java.time.Instant;
 import java.util.Objects;
 import java.util.UUID;
@@ -9,18 +8,27 @@ public class Message {
 
   private Long sequenceNumber;
   private String groupId;
+  private int partitionKey;
   private Instant enqueuedAt;
   private Instant availableAt;
   private UUID lockId;
   private int attemptCount;
   private String subject;
-  private Serializable body;
+  private byte[] body;
 
   public Message(final String groupId,
                  final Instant enqueuedAt,
                  final String subject,
-                 final Serializable body) {
-    this(null, groupId, enqueuedAt, enqueuedAt, null, 0, subject, body);
+                 final byte[] body) {
+    this(groupId, enqueuedAt, enqueuedAt, subject, body);
+  }
+
+  public Message(final String groupId,
+                 final Instant enqueuedAt,
+                 final Instant availableAt,
+                 final String subject,
+                 final byte[] body) {
+    this(null, groupId, enqueuedAt, availableAt, null, 0, subject, body);
   }
 
   public Message(final Long sequenceNumber,
@@ -30,9 +38,10 @@ public class Message {
                  final UUID lockId,
                  final int attemptCount,
                  final String subject,
-                 final Serializable body) {
+                 final byte[] body) {
     this.sequenceNumber = sequenceNumber;
     this.groupId = Objects.requireNonNull(groupId);
+    this.partitionKey = partitionKeyOf(groupId);
     this.enqueuedAt = Objects.requireNonNull(enqueuedAt);
     this.availableAt = Objects.requireNonNull(availableAt);
     this.lockId = lockId;
@@ -41,6 +50,10 @@ public class Message {
     this.body = Objects.requireNonNull(body);
   }
 
+  public static int partitionKeyOf(final String groupId) {
+    return groupId.hashCode() & Integer.MAX_VALUE;
+  }
+
   public Long sequenceNumber() {
     return sequenceNumber;
   }
@@ -49,6 +62,10 @@ public class Message {
     return groupId;
   }
 
+  public int partitionKey() {
+    return partitionKey;
+  }
+
   public Instant enqueuedAt() {
     return enqueuedAt;
   }
@@ -69,10 +86,14 @@ public class Message {
     return subject;
   }
 
-  public Serializable body() {
+  public byte[] body() {
     return body;
   }
 
+  public MessageHeader header() {
+    return new MessageHeader(sequenceNumber, groupId, enqueuedAt, availableAt, lockId, attemptCount, subject);
+  }
+
   protected Message() {
   }
 
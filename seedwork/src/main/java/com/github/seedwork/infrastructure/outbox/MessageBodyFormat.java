@@ -0,0 +1,19 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+
+public interface MessageBodyFormat<T extends Serializable> {
+
+  Class<T> type();
+
+  default String subject() {
+    return type().getSimpleName();
+  }
+
+  void write(T body, DataOutput output) throws IOException;
+
+  T read(DataInput input) throws IOException;
+}
@@ -0,0 +1,84 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class MessageCoalescer {
+
+  private final Map<String, MessageCoalescingRule<?>> rules;
+  private final MessageCodec messageCodec;
+
+  public MessageCoalescer(final List<MessageCoalescingRule<?>> rules, final MessageCodec messageCodec) {
+    this.rules = rules.stream()
+      .collect(Collectors.toUnmodifiableMap(MessageCoalescingRule::subject, Function.identity()));
+    this.messageCodec = Objects.requireNonNull(messageCodec);
+  }
+
+  public static MessageCoalescer none() {
+    return new MessageCoalescer(List.of(), new SerializableMessageCodec());
+  }
+
+  private static <T extends Serializable> Object key(final MessageCoalescingRule<T> rule, final Serializable body) {
+    return rule.type().isInstance(body) ? rule.key(rule.type().cast(body)) : null;
+  }
+
+  private Serializable decode(final Message message) {
+    try {
+      return messageCodec.decode(message.subject(), message.body());
+    } catch (final RuntimeException e) {
+      return null;
+    }
+  }
+
+  public boolean isEnabled() {
+    return !rules.isEmpty();
+  }
+
+  public CoalescedMessages coalesce(final List<Message> groupMessages) {
+    // Keys are shared across subjects, so a batch with fewer than two coalesced messages has nothing to supersede.
+    final var coalescedCount = groupMessages.stream()
+      .filter(m -> rules.containsKey(m.subject()))
+      .count();
+
+    if (coalescedCount < 2L) {
+      return CoalescedMessages.of(groupMessages);
+    }
+    final var latestSequenceNumbers = new HashMap<Object, Long>();
+    final var supersedingSequenceNumbers = new HashMap<Long, Long>();
+    final var decodedBodies = new HashMap<Long, Serializable>();
+
+    // Scanning from the latest message supersedes every earlier message of a key by the latest, whatever its subject.
+    for (final var message : groupMessages.reversed()) {
+      final var rule = rules.get(message.subject());
+
+      if (rule == null) {
+        continue;
+      }
+      final var body = decode(message);
+
+      if (body == null) {
+        continue;
+      }
+      final var key = key(rule, body);
+      final var supersedingSequenceNumber = (key == null)
+        ? null
+        : latestSequenceNumbers.putIfAbsent(key, message.sequenceNumber());
+
+      if (supersedingSequenceNumber != null) {
+        supersedingSequenceNumbers.put(message.sequenceNumber(), supersedingSequenceNumber);
+      } else {
+        decodedBodies.put(message.sequenceNumber(), body);
+      }
+    }
+    final var messages = groupMessages.stream()
+      .filter(m -> !supersedingSequenceNumbers.containsKey(m.sequenceNumber()))
+      .toList();
+
+    return new CoalescedMessages(messages, supersedingSequenceNumbers, decodedBodies);
+  }
+}
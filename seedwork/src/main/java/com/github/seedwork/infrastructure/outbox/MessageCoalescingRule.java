@@ -0,0 +1,14 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.io.Serializable;
+
+public interface MessageCoalescingRule<T extends Serializable> {
+
+  Class<T> type();
+
+  default String subject() {
+    return type().getSimpleName();
+  }
+
+  Object key(T body);
+}
@@ -0,0 +1,10 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.io.Serializable;
+
+public interface MessageCodec {
+
+  byte[] encode(String subject, Serializable body);
+
+  Serializable decode(String subject, byte[] body);
+}
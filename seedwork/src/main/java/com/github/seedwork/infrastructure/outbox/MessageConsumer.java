@@ -1,5 +1,6 @@
 package com.github.seedwork.infrastructure.outbox;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -9,16 +10,45 @@ public interface MessageConsumer {
 
   Message peek(Long sequenceNumber);
 
-  List<Message> peekAll(long offset, int limit);
+  List<MessageHeader> peekAllAfter(Long afterSequenceNumber, MessageFilter filter, int limit);
 
-  List<Message> lockAllNextActive(UUID lockId, int limit);
+  default List<Message> lockAllNextActive(final UUID lockId, final int limit) {
+    return lockAllNextActive(lockId, Partitions.all(), limit);
+  }
+
+  default List<Message> lockAllNextActive(final UUID lockId, final Partitions partitions, final int limit) {
+    return lockAllNextActive(lockId, partitions, limit, 1);
+  }
+
+  default List<Message> lockAllNextActive(final UUID lockId,
+                                          final Partitions partitions,
+                                          final int limit,
+                                          final int groupLimit) {
+    return lockAllNextActive(lockId, partitions, MessageLane.all(), limit, groupLimit);
+  }
+
+  List<Message> lockAllNextActive(UUID lockId, Partitions partitions, MessageLane lane, int limit, int groupLimit);
 
   List<Message> lockAllNextFailed(UUID lockId, int limit);
 
+  int extendAllLocked(UUID lockId);
+
   void requeueLocked(Long sequenceNumber, UUID lockId);
 
   void requeueAllLocked(List<Long> sequenceNumbers, UUID lockId);
 
+  void retryLocked(Long sequenceNumber, UUID lockId, Duration delay);
+
+  void releaseAllLocked(List<Long> sequenceNumbers, UUID lockId);
+
+  void deadLetterLocked(Long sequenceNumber, UUID lockId);
+
+  int deadLetterAllExhausted(Partitions partitions);
+
+  List<MessageHeader> peekAllDeadLettered(long offset, int limit);
+
+  int replayAllDeadLettered(String groupId);
+
   void dequeueLocked(Long sequenceNumber, UUID lockId);
 
   void dequeueAllLocked(List<Long> sequenceNumbers, UUID lockId);
@@ -0,0 +1,11 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.util.Objects;
+
+public record MessageContent(String subject, byte[] body) {
+
+  public MessageContent {
+    Objects.requireNonNull(subject);
+    Objects.requireNonNull(body);
+  }
+}
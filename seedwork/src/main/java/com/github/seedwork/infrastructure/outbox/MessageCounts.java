@@ -2,10 +2,11 @@ package com.github.seedwork.infrastructure.outbox;
 
 public record MessageCounts(int activeCount,
                             int failedCount,
-                            int lockedCount) {
+                            int lockedCount,
+                            int deadLetteredCount) {
 
   public boolean hasFailed() {
-    return (failedCount() > 0);
+    return (failedCount() > 0) || (deadLetteredCount() > 0);
   }
 
   public int totalCount() {
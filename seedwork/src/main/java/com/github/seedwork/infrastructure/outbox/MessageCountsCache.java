@@ -0,0 +1,99 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+public class MessageCountsCache {
+
+  private final MessageConsumer messageConsumer;
+  private final Clock clock;
+  private final Duration staleness;
+  private final AtomicReference<Snapshot> snapshot;
+
+  public MessageCountsCache(final MessageConsumer messageConsumer, final Clock clock, final Duration staleness) {
+    this.messageConsumer = Objects.requireNonNull(messageConsumer);
+    this.clock = Objects.requireNonNull(clock);
+    this.staleness = Objects.requireNonNull(staleness);
+
+    this.snapshot = new AtomicReference<>();
+  }
+
+  private static int decrement(final int count, final int delta) {
+    return Math.max(count - delta, 0);
+  }
+
+  private void update(final UnaryOperator<MessageCounts> updater) {
+    snapshot.updateAndGet(s -> (s == null) ? null : new Snapshot(updater.apply(s.counts()), s.countedAt()));
+  }
+
+  public MessageCounts counts() {
+    final var now = clock.instant();
+    final var current = snapshot.get();
+
+    if ((current != null) && current.countedAt().plus(staleness).isAfter(now)) {
+      return current.counts();
+    }
+
+    return reconcile();
+  }
+
+  public MessageCounts reconcile() {
+    final var countedAt = clock.instant();
+    final var counts = messageConsumer.count();
+
+    snapshot.set(new Snapshot(counts, countedAt));
+
+    return counts;
+  }
+
+  public void recordEnqueued(final int messageCount) {
+    update(c -> new MessageCounts(
+      c.activeCount() + messageCount,
+      c.failedCount(),
+      c.lockedCount(),
+      c.deadLetteredCount()));
+  }
+
+  public void recordLocked(final int messageCount) {
+    update(c -> new MessageCounts(
+      c.activeCount(),
+      c.failedCount(),
+      c.lockedCount() + messageCount,
+      c.deadLetteredCount()));
+  }
+
+  public void recordDequeued(final int messageCount) {
+    update(c -> new MessageCounts(
+      decrement(c.activeCount(), messageCount),
+      c.failedCount(),
+      decrement(c.lockedCount(), messageCount),
+      c.deadLetteredCount()));
+  }
+
+  public void recordUnlocked(final int messageCount) {
+    update(c -> new MessageCounts(
+      c.activeCount(),
+      c.failedCount(),
+      decrement(c.lockedCount(), messageCount),
+      c.deadLetteredCount()));
+  }
+
+  public void recordFailed(final int messageCount) {
+    update(c -> new MessageCounts(
+      decrement(c.activeCount(), messageCount),
+      c.failedCount() + messageCount,
+      decrement(c.lockedCount(), messageCount),
+      c.deadLetteredCount()));
+  }
+
+  public void invalidate() {
+    snapshot.set(null);
+  }
+
+  private record Snapshot(MessageCounts counts, Instant countedAt) {
+  }
+}
@@ -0,0 +1,16 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public interface MessageDispatcher {
+
+  CompletableFuture<DispatchResult> dispatchAll(List<Message> groupMessages);
+
+  default CompletableFuture<DispatchResult> dispatchAll(final List<Message> groupMessages,
+                                                        final Map<Long, Serializable> decodedBodies) {
+    return dispatchAll(groupMessages);
+  }
+}
@@ -0,0 +1,10 @@
+package com.github.seedwork.infrastructure.outbox;
+
+public record MessageFilter(String groupId,
+                            String subject,
+                            boolean failedOnly) {
+
+  public static MessageFilter none() {
+    return new MessageFilter(null, null, false);
+  }
+}
@@ -0,0 +1,13 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record MessageHeader(Long sequenceNumber,
+                            String groupId,
+                            Instant enqueuedAt,
+                            Instant availableAt,
+                            UUID lockId,
+                            int attemptCount,
+                            String subject) {
+}
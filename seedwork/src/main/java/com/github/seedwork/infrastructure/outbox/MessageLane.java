@@ -0,0 +1,26 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.util.Set;
+
+public record MessageLane(Set<String> subjects, boolean excluded) {
+
+  public MessageLane {
+    subjects = Set.copyOf(subjects);
+  }
+
+  public static MessageLane all() {
+    return new MessageLane(Set.of(), true);
+  }
+
+  public static MessageLane including(final Set<String> subjects) {
+    return new MessageLane(subjects, false);
+  }
+
+  public static MessageLane excluding(final Set<String> subjects) {
+    return new MessageLane(subjects, true);
+  }
+
+  public boolean contains(final String subject) {
+    return subjects().contains(subject) != excluded();
+  }
+}
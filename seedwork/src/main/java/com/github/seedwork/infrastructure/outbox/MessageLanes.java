@@ -0,0 +1,60 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+public class MessageLanes {
+
+  private static final int DEFAULT_PRIORITY = 0;
+
+  private final List<MessageLane> lanes;
+  private final int minLaneShare;
+
+  public MessageLanes(final Map<String, Integer> subjectPriorities, final int minLaneShare) {
+    this.lanes = lanesOf(subjectPriorities);
+    this.minLaneShare = minLaneShare;
+  }
+
+  public MessageLanes(final OutboxProperties properties) {
+    this(properties.subjectPriorities(), properties.minLaneShare());
+  }
+
+  private static List<MessageLane> lanesOf(final Map<String, Integer> subjectPriorities) {
+    final var subjectsByPriority = new TreeMap<Integer, Set<String>>(Comparator.reverseOrder());
+
+    subjectPriorities.forEach((s, p) -> subjectsByPriority.computeIfAbsent(p, _ -> new HashSet<>()).add(s));
+    final var prioritizedSubjects = subjectPriorities.keySet().stream()
+      .filter(s -> subjectPriorities.get(s) != DEFAULT_PRIORITY)
+      .collect(Collectors.toSet());
+
+    subjectsByPriority.putIfAbsent(DEFAULT_PRIORITY, Set.of());
+
+    return subjectsByPriority.entrySet().stream()
+      .map(e -> (e.getKey() == DEFAULT_PRIORITY)
+        ? MessageLane.excluding(prioritizedSubjects)
+        : MessageLane.including(e.getValue()))
+      .toList();
+  }
+
+  public List<MessageLane> lanes() {
+    return lanes;
+  }
+
+  public boolean isPrioritized() {
+    return lanes.size() > 1;
+  }
+
+  public int reservedLimit(final int lockLimit) {
+    if ((minLaneShare == 0) || !isPrioritized()) {
+      return 0;
+    }
+    final var reservedLimit = Math.max((lockLimit * minLaneShare) / 100, 1);
+
+    return Math.min(reservedLimit, (lockLimit - 1) / (lanes.size() - 1));
+  }
+}
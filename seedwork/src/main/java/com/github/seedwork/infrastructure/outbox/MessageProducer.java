@@ -1,8 +1,13 @@
 package com.github.seedwork.infrastructure.outbox;
 
-import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
 
 public interface MessageProducer {
 
-  Message enqueue(String groupId, String subject, Serializable body);
+  Message enqueue(String groupId, String subject, byte[] body);
+
+  Message enqueue(String groupId, String subject, byte[] body, Instant availableAt);
+
+  List<Message> enqueueAll(String groupId, List<MessageContent> contents);
 }
@@ -0,0 +1,98 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MicrometerOutboxMetrics implements OutboxMetrics {
+
+  private final MeterRegistry meterRegistry;
+  private final Clock clock;
+  private final Timer lockTimer;
+  private final DistributionSummary lockBatchSize;
+  private final DistributionSummary dispatchBatchSize;
+  private final Timer dequeueTimer;
+  private final AtomicLong pollIntervalMillis;
+  private final AtomicInteger lockLimit;
+
+  public MicrometerOutboxMetrics(final MeterRegistry meterRegistry, final Clock clock) {
+    this.meterRegistry = Objects.requireNonNull(meterRegistry);
+    this.clock = Objects.requireNonNull(clock);
+
+    this.lockTimer = Timer.builder("outbox.lock")
+      .description("Duration of locking the next active messages")
+      .register(meterRegistry);
+    this.lockBatchSize = DistributionSummary.builder("outbox.lock.batch.size")
+      .description("Number of messages locked per poll")
+      .register(meterRegistry);
+    this.dispatchBatchSize = DistributionSummary.builder("outbox.dispatch.batch.size")
+      .description("Number of messages dispatched per group")
+      .register(meterRegistry);
+    this.dequeueTimer = Timer.builder("outbox.dequeue")
+      .description("Duration of dequeuing dispatched messages")
+      .register(meterRegistry);
+    this.pollIntervalMillis = new AtomicLong();
+    this.lockLimit = new AtomicInteger();
+
+    Gauge.builder("outbox.poll.interval", pollIntervalMillis, AtomicLong::get)
+      .description("Current adaptive poll interval")
+      .baseUnit("milliseconds")
+      .register(meterRegistry);
+    Gauge.builder("outbox.lock.limit", lockLimit, AtomicInteger::get)
+      .description("Current adaptive lock limit")
+      .register(meterRegistry);
+  }
+
+  @Override
+  public void recordLock(final Duration duration, final int messageCount) {
+    lockTimer.record(duration);
+    lockBatchSize.record(messageCount);
+  }
+
+  @Override
+  public void recordDispatchAll(final Duration duration, final int messageCount, final boolean dispatched) {
+    Timer.builder("outbox.dispatch")
+      .description("Duration of dispatching the messages of a group")
+      .tag("outcome", dispatched ? "success" : "failure")
+      .register(meterRegistry)
+      .record(duration);
+    dispatchBatchSize.record(messageCount);
+  }
+
+  @Override
+  public void recordDispatch(final Message message, final boolean dispatched) {
+    if (!dispatched) {
+      Counter.builder("outbox.dispatch.failures")
+        .description("Number of failed message dispatches")
+        .tag("subject", message.subject())
+        .register(meterRegistry)
+        .increment();
+
+      return;
+    }
+    Timer.builder("outbox.message.latency")
+      .description("Duration between enqueuing and dispatching a message")
+      .tag("subject", message.subject())
+      .register(meterRegistry)
+      .record(Duration.between(message.enqueuedAt(), clock.instant()));
+  }
+
+  @Override
+  public void recordDequeue(final Duration duration, final int messageCount) {
+    dequeueTimer.record(duration);
+  }
+
+  @Override
+  public void recordPoll(final Duration pollInterval, final int lockLimit) {
+    this.pollIntervalMillis.set(pollInterval.toMillis());
+    this.lockLimit.set(lockLimit);
+  }
+}
@@ -1,11 +1,16 @@
 package com.github.seedwork.infrastructure.outbox;
 
 import com.github.seedwork.infrastructure.event.DefaultEventPublisherAutoConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.health.autoconfigure.contributor.ConditionalOnEnabledHealthIndicator;
 import org.springframework.boot.health.contributor.HealthIndicator;
@@ -15,6 +20,7 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.SchedulingConfigurer;
 import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 
+import java.time.Clock;
 import java.util.Objects;
 
 @AutoConfiguration
@@ -25,27 +31,99 @@ import java.util.Objects;
 public class OutboxAutoConfiguration implements SchedulingConfigurer {
 
   private final OutboxProperties properties;
-  private final MessageConsumer messageConsumer;
-  private final ApplicationEventPublisher applicationEventPublisher;
+  private final ObjectProvider<OutboxPoller> outboxPoller;
 
   public OutboxAutoConfiguration(final OutboxProperties outboxProperties,
-                                 final MessageConsumer messageConsumer,
-                                 final ApplicationEventPublisher applicationEventPublisher) {
+                                 final ObjectProvider<OutboxPoller> outboxPoller) {
     this.properties = Objects.requireNonNull(outboxProperties);
-    this.messageConsumer = Objects.requireNonNull(messageConsumer);
-    this.applicationEventPublisher = Objects.requireNonNull(applicationEventPublisher);
+    this.outboxPoller = Objects.requireNonNull(outboxPoller);
   }
 
   @Bean
-  public OutboxEventPublisher outboxEventPublisher(final MessageProducer messageProducer) {
-    return new OutboxEventPublisher(messageProducer);
+  @ConditionalOnMissingBean(MessageCodec.class)
+  public BinaryMessageCodec binaryMessageCodec(final ObjectProvider<MessageBodyFormat<?>> messageBodyFormats) {
+    return new BinaryMessageCodec(messageBodyFormats.orderedStream().toList(), new SerializableMessageCodec());
+  }
+
+  @Bean
+  @ConditionalOnMissingBean(MessageDispatcher.class)
+  @ConditionalOnProperty(prefix = "outbox", name = "dispatcher", havingValue = "event", matchIfMissing = true)
+  public ApplicationEventMessageDispatcher applicationEventMessageDispatcher(final ApplicationEventPublisher applicationEventPublisher,
+                                                                             final MessageCodec messageCodec) {
+    return new ApplicationEventMessageDispatcher(applicationEventPublisher, messageCodec);
+  }
+
+  @Bean(destroyMethod = "close")
+  @ConditionalOnMissingBean(MessageDispatcher.class)
+  @ConditionalOnProperty(prefix = "outbox", name = "dispatcher", havingValue = "file")
+  public FileMessageDispatcher fileMessageDispatcher() {
+    // A poll dispatches at most max-concurrency groups at once, so a deeper pipeline would never fill up.
+    final var pipelineDepth = (properties.dispatcherPipelineDepth() > 0)
+      ? properties.dispatcherPipelineDepth()
+      : properties.maxConcurrency();
+
+    return new FileMessageDispatcher(properties.dispatcherFile(), pipelineDepth);
+  }
+
+  @Bean(destroyMethod = "releasePartitions")
+  public OutboxPoller outboxPoller(final MessageConsumer messageConsumer,
+                                   final MessageCodec messageCodec,
+                                   final MessageDispatcher messageDispatcher,
+                                   final ObjectProvider<PartitionLeaseManager> partitionLeaseManager,
+                                   final ObjectProvider<OutboxMetrics> outboxMetrics,
+                                   final MessageCountsCache messageCountsCache,
+                                   final ObjectProvider<MessageCoalescingRule<?>> messageCoalescingRules) {
+    final var leaseManager = properties.isPartitioningEnabled()
+      ? partitionLeaseManager.getObject()
+      : PartitionLeaseManager.unpartitioned();
+
+    return new OutboxPoller(properties,
+      messageConsumer,
+      messageDispatcher,
+      leaseManager,
+      outboxMetrics.getIfAvailable(OutboxMetrics::noop),
+      messageCountsCache,
+      new MessageCoalescer(messageCoalescingRules.orderedStream().toList(), messageCodec));
+  }
+
+  @Bean
+  public MessageCountsCache messageCountsCache(final MessageConsumer messageConsumer, final Clock clock) {
+    return new MessageCountsCache(messageConsumer, clock, properties.countStaleness());
+  }
+
+  @Bean
+  public OutboxEventPublisher outboxEventPublisher(final MessageProducer messageProducer,
+                                                   final MessageCodec messageCodec,
+                                                   final OutboxPoller outboxPoller,
+                                                   final MessageCountsCache messageCountsCache,
+                                                   final Clock clock) {
+    return new OutboxEventPublisher(messageProducer, messageCodec, outboxPoller, messageCountsCache, clock);
   }
 
   @Bean
   @ConditionalOnClass(HealthIndicator.class)
   @ConditionalOnEnabledHealthIndicator("outbox")
-  public OutboxHealthIndicator outboxHealthIndicator(final MessageConsumer messageConsumer) {
-    return new OutboxHealthIndicator(messageConsumer);
+  public OutboxHealthIndicator outboxHealthIndicator(final MessageCountsCache messageCountsCache) {
+    return new OutboxHealthIndicator(messageCountsCache);
+  }
+
+  @Bean
+  @ConditionalOnClass(MeterRegistry.class)
+  @ConditionalOnMissingBean(OutboxMetrics.class)
+  public OutboxMetrics micrometerOutboxMetrics(final ObjectProvider<MeterRegistry> meterRegistry, final Clock clock) {
+    final var registry = meterRegistry.getIfAvailable();
+
+    if (registry == null) {
+      return OutboxMetrics.noop();
+    }
+
+    return new MicrometerOutboxMetrics(registry, clock);
+  }
+
+  @Bean
+  @ConditionalOnClass(MeterBinder.class)
+  public OutboxMeterBinder outboxMeterBinder(final MessageConsumer messageConsumer, final Clock clock) {
+    return new OutboxMeterBinder(messageConsumer, clock, properties.countStaleness());
   }
 
   @Override
@@ -53,7 +131,7 @@ public class OutboxAutoConfiguration implements SchedulingConfigurer {
     if (!properties.isPollerEnabled()) {
       return;
     }
-    final var poller = new OutboxPoller(properties, messageConsumer, applicationEventPublisher);
+    final var poller = outboxPoller.getObject();
 
     scheduledTaskRegistrar.addTriggerTask(poller, poller.trigger());
   }
@@ -0,0 +1,7 @@
+package com.github.seedwork.infrastructure.outbox;
+
+public enum OutboxDispatcher {
+
+  EVENT,
+  FILE
+}
@@ -4,8 +4,13 @@ import com.github.seedwork.domain.Event;
 import com.github.seedwork.infrastructure.event.EventPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.Serializable;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
 import java.util.Objects;
 
 public class OutboxEventPublisher implements EventPublisher {
@@ -13,14 +18,29 @@ public class OutboxEventPublisher implements EventPublisher {
   private static final Logger LOGGER = LoggerFactory.getLogger(OutboxEventPublisher.class);
 
   private final MessageProducer messageProducer;
+  private final MessageCodec messageCodec;
+  private final OutboxPoller poller;
+  private final MessageCountsCache messageCounts;
+  private final Clock clock;
+  private final TransactionSynchronization pollerWakeUp;
 
-  public OutboxEventPublisher(final MessageProducer messageProducer) {
+  public OutboxEventPublisher(final MessageProducer messageProducer,
+                              final MessageCodec messageCodec,
+                              final OutboxPoller poller,
+                              final MessageCountsCache messageCounts,
+                              final Clock clock) {
     this.messageProducer = Objects.requireNonNull(messageProducer);
+    this.messageCodec = Objects.requireNonNull(messageCodec);
+    this.poller = Objects.requireNonNull(poller);
+    this.messageCounts = Objects.requireNonNull(messageCounts);
+    this.clock = Objects.requireNonNull(clock);
+
+    this.pollerWakeUp = new PollerWakeUp();
   }
 
   private void enqueueMessage(final String groupId, final String subject, final Serializable body) {
     try {
-      final var message = messageProducer.enqueue(groupId, subject, body);
+      final var message = messageProducer.enqueue(groupId, subject, messageCodec.encode(subject, body));
 
       LOGGER.debug("Enqueued message (sequenceNumber={}, groupId={}, subject={})",
         message.sequenceNumber(),
@@ -33,8 +53,112 @@ public class OutboxEventPublisher implements EventPublisher {
     }
   }
 
+  private void scheduleMessage(final String groupId,
+                               final String subject,
+                               final Serializable body,
+                               final Instant availableAt) {
+    try {
+      final var message = messageProducer.enqueue(groupId, subject, messageCodec.encode(subject, body), availableAt);
+
+      LOGGER.debug("Scheduled message (sequenceNumber={}, groupId={}, subject={}, availableAt={})",
+        message.sequenceNumber(),
+        message.groupId(),
+        message.subject(),
+        message.availableAt());
+    } catch (final Exception e) {
+      LOGGER.error("Failed to schedule message (groupId={}, subject={})", groupId, subject, e);
+
+      throw e;
+    }
+  }
+
+  private MessageContent toMessageContent(final Event event) {
+    final var subject = event.getClass().getSimpleName();
+
+    return new MessageContent(subject, messageCodec.encode(subject, event));
+  }
+
+  private void enqueueMessages(final String groupId, final List<Event> events) {
+    try {
+      final var contents = events.stream()
+        .map(this::toMessageContent)
+        .toList();
+      final var messages = messageProducer.enqueueAll(groupId, contents);
+
+      messages.forEach(m -> LOGGER.debug("Enqueued message (sequenceNumber={}, groupId={}, subject={})",
+        m.sequenceNumber(),
+        m.groupId(),
+        m.subject()));
+    } catch (final Exception e) {
+      LOGGER.error("Failed to enqueue messages (groupId={}, count={})", groupId, events.size(), e);
+
+      throw e;
+    }
+  }
+
+  private void recordEnqueued(final int messageCount) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new MessagesEnqueued(messageCount));
+    } else {
+      messageCounts.recordEnqueued(messageCount);
+    }
+  }
+
+  private void wakeUpPoller(final int messageCount) {
+    recordEnqueued(messageCount);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(pollerWakeUp);
+    } else {
+      poller.wakeUp();
+    }
+  }
+
   @Override
   public void publishEvent(final String groupId, final Event event) {
     enqueueMessage(groupId, event.getClass().getSimpleName(), event);
+    wakeUpPoller(1);
+  }
+
+  @Override
+  public void publishEvents(final String groupId, final List<Event> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+    enqueueMessages(groupId, events);
+    wakeUpPoller(events.size());
+  }
+
+  @Override
+  public void scheduleEvent(final String groupId, final Event event, final Instant availableAt) {
+    // The message keeps its group, so only later messages of that group wait for it to come due.
+    scheduleMessage(groupId, event.getClass().getSimpleName(), event, availableAt);
+    if (availableAt.isAfter(clock.instant())) {
+      // A regular poll picks the message up once it is due, a wake-up now would find nothing to lock.
+      recordEnqueued(1);
+    } else {
+      wakeUpPoller(1);
+    }
+  }
+
+  private final class MessagesEnqueued implements TransactionSynchronization {
+
+    private final int messageCount;
+
+    private MessagesEnqueued(final int messageCount) {
+      this.messageCount = messageCount;
+    }
+
+    @Override
+    public void afterCommit() {
+      messageCounts.recordEnqueued(messageCount);
+    }
+  }
+
+  private final class PollerWakeUp implements TransactionSynchronization {
+
+    @Override
+    public void afterCommit() {
+      poller.wakeUp();
+    }
   }
 }
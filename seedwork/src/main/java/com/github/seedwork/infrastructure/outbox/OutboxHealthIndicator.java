@@ -8,20 +8,21 @@ import java.util.Objects;
 
 public class OutboxHealthIndicator implements HealthIndicator {
 
-  private final MessageConsumer messageConsumer;
+  private final MessageCountsCache messageCountsCache;
 
-  public OutboxHealthIndicator(final MessageConsumer messageConsumer) {
-    this.messageConsumer = Objects.requireNonNull(messageConsumer);
+  public OutboxHealthIndicator(final MessageCountsCache messageCountsCache) {
+    this.messageCountsCache = Objects.requireNonNull(messageCountsCache);
   }
 
   @Override
   public Health health() {
-    final var messageCounts = messageConsumer.count();
+    final var messageCounts = messageCountsCache.counts();
 
     return Health.status(messageCounts.hasFailed() ? Status.UNKNOWN : Status.UP)
       .withDetail("activeMessages", messageCounts.activeCount())
       .withDetail("failedMessages", messageCounts.failedCount())
       .withDetail("lockedMessages", messageCounts.lockedCount())
+      .withDetail("deadLetteredMessages", messageCounts.deadLetteredCount())
       .withDetail("totalMessages", messageCounts.totalCount())
       .build();
   }
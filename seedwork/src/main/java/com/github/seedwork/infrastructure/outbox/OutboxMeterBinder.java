@@ -0,0 +1,67 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class OutboxMeterBinder implements MeterBinder {
+
+  private final MessageConsumer messageConsumer;
+  private final Clock clock;
+  private final Duration staleness;
+  private final AtomicReference<Snapshot> snapshot;
+
+  public OutboxMeterBinder(final MessageConsumer messageConsumer, final Clock clock, final Duration staleness) {
+    this.messageConsumer = Objects.requireNonNull(messageConsumer);
+    this.clock = Objects.requireNonNull(clock);
+    this.staleness = Objects.requireNonNull(staleness);
+
+    this.snapshot = new AtomicReference<>();
+  }
+
+  private @Nullable Instant oldestEnqueuedAt(final Instant now) {
+    final var current = snapshot.get();
+
+    if ((current != null) && current.peekedAt().plus(staleness).isAfter(now)) {
+      return current.enqueuedAt();
+    }
+    final var messages = messageConsumer.peekAllAfter(null, MessageFilter.none(), 1);
+    final var enqueuedAt = messages.isEmpty() ? null : messages.getFirst().enqueuedAt();
+
+    snapshot.set(new Snapshot(enqueuedAt, now));
+
+    return enqueuedAt;
+  }
+
+  private double oldestMessageAge() {
+    final var now = clock.instant();
+    // Caching the enqueue time rather than the age keeps the gauge growing between peeks.
+    final var enqueuedAt = oldestEnqueuedAt(now);
+
+    if (enqueuedAt == null) {
+      return 0.0D;
+    }
+    final var age = Duration.between(enqueuedAt, now);
+
+    return age.toMillis() / 1000.0D;
+  }
+
+  @Override
+  public void bindTo(@NonNull final MeterRegistry meterRegistry) {
+    Gauge.builder("outbox.message.oldest.age", this, OutboxMeterBinder::oldestMessageAge)
+      .description("Age of the oldest message in the outbox")
+      .baseUnit("seconds")
+      .register(meterRegistry);
+  }
+
+  private record Snapshot(@Nullable Instant enqueuedAt, Instant peekedAt) {
+  }
+}
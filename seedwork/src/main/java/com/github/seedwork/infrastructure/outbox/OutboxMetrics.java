@@ -0,0 +1,46 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.time.Duration;
+
+public interface OutboxMetrics {
+
+  static OutboxMetrics noop() {
+    return new OutboxMetrics() {
+
+      @Override
+      public void recordLock(final Duration duration, final int messageCount) {
+        // Do nothing
+      }
+
+      @Override
+      public void recordDispatchAll(final Duration duration, final int messageCount, final boolean dispatched) {
+        // Do nothing
+      }
+
+      @Override
+      public void recordDispatch(final Message message, final boolean dispatched) {
+        // Do nothing
+      }
+
+      @Override
+      public void recordDequeue(final Duration duration, final int messageCount) {
+        // Do nothing
+      }
+
+      @Override
+      public void recordPoll(final Duration pollInterval, final int lockLimit) {
+        // Do nothing
+      }
+    };
+  }
+
+  void recordLock(Duration duration, int messageCount);
+
+  void recordDispatchAll(Duration duration, int messageCount, boolean dispatched);
+
+  void recordDispatch(Message message, boolean dispatched);
+
+  void recordDequeue(Duration duration, int messageCount);
+
+  void recordPoll(Duration pollInterval, int lockLimit);
+}
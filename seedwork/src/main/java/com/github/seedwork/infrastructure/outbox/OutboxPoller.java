@@ -1,90 +1,542 @@
 package com.github.seedwork.infrastructure.outbox;
 
-import com.github.seedwork.core.util.Result;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.scheduling.Trigger;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Gatherers;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-public class OutboxPoller implements Runnable {
+public class OutboxPoller implements Runnable, SmartLifecycle {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(OutboxPoller.class);
 
   private final OutboxProperties properties;
   private final MessageConsumer messageConsumer;
-  private final ApplicationEventPublisher applicationEventPublisher;
+  private final MessageDispatcher messageDispatcher;
+  private final PartitionLeaseManager partitionLeaseManager;
+  private final OutboxMetrics metrics;
+  private final MessageCountsCache messageCounts;
+  private final MessageCoalescer messageCoalescer;
+  private final MessageLanes messageLanes;
+  private final RetryBackoff retryBackoff;
+  private final OutboxPollerController controller;
+  private final UUID nodeId;
   private final OutboxPollerTrigger trigger;
+  private final AtomicBoolean polling;
+  private final AtomicBoolean pollRequested;
+  private final AtomicBoolean stopping;
+  private final AtomicBoolean running;
+  private final Set<UUID> inFlightLocks;
+  private volatile CompletableFuture<Void> shutdownTimedOut;
+  private Partitions partitions;
+  private long partitionsRenewedAt;
+  private long exhaustedSweptAt;
 
   public OutboxPoller(final OutboxProperties properties,
                       final MessageConsumer messageConsumer,
-                      final ApplicationEventPublisher applicationEventPublisher) {
+                      final MessageCodec messageCodec,
+                      final ApplicationEventPublisher applicationEventPublisher,
+                      final Clock clock) {
+    this(properties,
+      messageConsumer,
+      new ApplicationEventMessageDispatcher(applicationEventPublisher, messageCodec),
+      PartitionLeaseManager.unpartitioned(),
+      OutboxMetrics.noop(),
+      new MessageCountsCache(messageConsumer, clock, Duration.ZERO),
+      MessageCoalescer.none());
+  }
+
+  public OutboxPoller(final OutboxProperties properties,
+                      final MessageConsumer messageConsumer,
+                      final MessageDispatcher messageDispatcher,
+                      final PartitionLeaseManager partitionLeaseManager,
+                      final OutboxMetrics metrics,
+                      final MessageCountsCache messageCounts,
+                      final MessageCoalescer messageCoalescer) {
     this.properties = Objects.requireNonNull(properties);
     this.messageConsumer = Objects.requireNonNull(messageConsumer);
-    this.applicationEventPublisher = Objects.requireNonNull(applicationEventPublisher);
+    this.messageDispatcher = Objects.requireNonNull(messageDispatcher);
+    this.partitionLeaseManager = Objects.requireNonNull(partitionLeaseManager);
+    this.metrics = Objects.requireNonNull(metrics);
+    this.messageCounts = Objects.requireNonNull(messageCounts);
+    this.messageCoalescer = Objects.requireNonNull(messageCoalescer);
+
+    this.retryBackoff = new RetryBackoff(properties.minRetryDelay(), properties.maxRetryDelay());
+    this.nodeId = UUID.randomUUID();
+    this.messageLanes = new MessageLanes(properties);
+    this.controller = new OutboxPollerController(properties);
+    this.trigger = new OutboxPollerTrigger(controller::pollInterval);
+    this.polling = new AtomicBoolean(false);
+    this.pollRequested = new AtomicBoolean(false);
+    this.stopping = new AtomicBoolean(false);
+    this.running = new AtomicBoolean(false);
+    this.inFlightLocks = ConcurrentHashMap.newKeySet();
+    this.shutdownTimedOut = new CompletableFuture<>();
+    this.exhaustedSweptAt = System.nanoTime() - properties.lockDuration().toNanos();
 
-    this.trigger = new OutboxPollerTrigger(properties.pollInterval());
+    if (messageCoalescer.isEnabled() && (properties.groupLockLimit() < 2)) {
+      LOGGER.warn("Message coalescing has no effect, because group-lock-limit locks a single message per group");
+    }
   }
 
   public Trigger trigger() {
     return trigger;
   }
 
+  public UUID nodeId() {
+    return nodeId;
+  }
+
+  private Partitions leasePartitions() {
+    final var now = System.nanoTime();
+
+    if ((partitions == null) || (now - partitionsRenewedAt >= properties.partitionLeaseDuration().toNanos() / 3L)) {
+      partitions = partitionLeaseManager.renewLeases(nodeId);
+      partitionsRenewedAt = now;
+    }
+
+    return partitions;
+  }
+
+  public void releasePartitions() {
+    partitionLeaseManager.releaseLeases(nodeId);
+    partitions = null;
+  }
+
+  private List<Message> lockMessages(final UUID lockId, final Partitions leasedPartitions) {
+    final var lockLimit = controller.lockLimit();
+
+    if (!messageLanes.isPrioritized()) {
+      return messageConsumer.lockAllNextActive(lockId, leasedPartitions, lockLimit, properties.groupLockLimit());
+    }
+    final var lanes = messageLanes.lanes();
+    final var reservedLimit = messageLanes.reservedLimit(lockLimit);
+    final var messages = new ArrayList<Message>();
+    var lockedGroupCount = 0;
+
+    for (var i = 0; i < lanes.size(); i++) {
+      final var laneLimit = lockLimit - lockedGroupCount - ((lanes.size() - 1 - i) * reservedLimit);
+
+      if (laneLimit <= 0) {
+        continue;
+      }
+      final var laneMessages = messageConsumer.lockAllNextActive(
+        lockId,
+        leasedPartitions,
+        lanes.get(i),
+        laneLimit,
+        properties.groupLockLimit());
+
+      messages.addAll(laneMessages);
+      lockedGroupCount += (int) laneMessages.stream()
+        .map(Message::groupId)
+        .distinct()
+        .count();
+    }
+
+    return messages;
+  }
+
+  private void deadLetterExhausted(final Partitions leasedPartitions) {
+    final var now = System.nanoTime();
+
+    if (now - exhaustedSweptAt < properties.lockDuration().toNanos()) {
+      return;
+    }
+    exhaustedSweptAt = now;
+    try {
+      final var deadLetterCount = messageConsumer.deadLetterAllExhausted(leasedPartitions);
+
+      if (deadLetterCount > 0) {
+        LOGGER.warn("Dead-lettered exhausted messages (count={})", deadLetterCount);
+        messageCounts.invalidate();
+      }
+    } catch (final Exception e) {
+      LOGGER.error("Failed to dead-letter exhausted messages", e);
+    }
+  }
+
   void run(final UUID lockId) {
-    final var dispatchedSequenceNumbers = messageConsumer.lockAllNextActive(lockId, properties.lockLimit())
-      .stream()
-      .gather(Gatherers.mapConcurrent(properties.maxConcurrency(), this::dispatchMessage))
-      .filter(Result::isSuccess)
-      .map(Result::get)
+    // Registered before the stopping check, so stop() either awaits this poll or this poll sees it is stopping.
+    inFlightLocks.add(lockId);
+    try {
+      if (stopping.get()) {
+        return;
+      }
+      final var leasedPartitions = leasePartitions();
+
+      if (leasedPartitions.isEmpty()) {
+        return;
+      }
+      deadLetterExhausted(leasedPartitions);
+      dispatchLocked(lockId, leasedPartitions);
+    } finally {
+      inFlightLocks.remove(lockId);
+    }
+  }
+
+  private void dispatchLocked(final UUID lockId, final Partitions leasedPartitions) {
+    final var pollStartedAt = System.nanoTime();
+    final var messages = lockMessages(lockId, leasedPartitions);
+
+    messageCounts.recordLocked(messages.size());
+    final var groupDispatches = dispatchMessages(messages, lockId);
+    final var dispatchedSequenceNumbers = groupDispatches.stream()
+      .flatMap(d -> d.dispatchedSequenceNumbers().stream())
+      .toList();
+    final var failedMessages = groupDispatches.stream()
+      .map(GroupDispatch::failedMessage)
+      .filter(Objects::nonNull)
+      .toList();
+    final var skippedSequenceNumbers = groupDispatches.stream()
+      .flatMap(d -> d.skippedSequenceNumbers().stream())
+      .toList();
+    final var requeuedSequenceNumbers = groupDispatches.stream()
+      .flatMap(d -> d.requeuedSequenceNumbers().stream())
       .toList();
 
     dequeueMessages(dispatchedSequenceNumbers, lockId);
+    releaseMessages(skippedSequenceNumbers, lockId);
+    requeueMessages(requeuedSequenceNumbers, lockId);
+    retryMessages(failedMessages, lockId);
+    // The lock limit counts groups, so the controller is fed the locked group count rather than the message count.
+    final var lockedGroupCount = (int) messages.stream()
+      .map(Message::groupId)
+      .distinct()
+      .count();
+
+    controller.adapt(lockedGroupCount, Duration.ofNanos(System.nanoTime() - pollStartedAt));
+    metrics.recordPoll(controller.pollInterval(), controller.lockLimit());
+  }
+
+  private GroupDispatch toGroupDispatch(final CoalescedMessages coalescedMessages,
+                                       final DispatchResult result,
+                                       final Duration dispatchDuration) {
+    final var messages = coalescedMessages.messages();
+    final var acknowledgedCount = Math.min(result.acknowledgedCount(), messages.size());
+    final var lastAcknowledgedSequenceNumber = (acknowledgedCount == 0)
+      ? Long.MIN_VALUE
+      : messages.get(acknowledgedCount - 1).sequenceNumber();
+    final var dispatchedSequenceNumbers = new ArrayList<Long>();
+    final var skippedSequenceNumbers = new ArrayList<Long>();
+
+    // A superseded message is dequeued with the first acknowledged message after it, as releasing it would dispatch it
+    // after that message. Its superseding message is dequeued, retried or released as usual, so no state is lost.
+    coalescedMessages.supersedingSequenceNumbers().keySet().forEach(s -> {
+      if (s < lastAcknowledgedSequenceNumber) {
+        dispatchedSequenceNumbers.add(s);
+      } else {
+        skippedSequenceNumbers.add(s);
+      }
+    });
+    metrics.recordDispatchAll(dispatchDuration, messages.size(), acknowledgedCount == messages.size());
+    for (final var message : messages.subList(0, acknowledgedCount)) {
+      metrics.recordDispatch(message, true);
+      dispatchedSequenceNumbers.add(message.sequenceNumber());
+    }
+    if (acknowledgedCount == messages.size()) {
+      return new GroupDispatch(dispatchedSequenceNumbers, null, skippedSequenceNumbers, List.of());
+    }
+    final var failedMessage = messages.get(acknowledgedCount);
+
+    messages.subList(acknowledgedCount + 1, messages.size())
+      .forEach(m -> skippedSequenceNumbers.add(m.sequenceNumber()));
+    metrics.recordDispatch(failedMessage, false);
+    LOGGER.error("Failed to dispatch message (sequenceNumber={}, groupId={}, lockId={}, attemptCount={}, subject={})",
+      failedMessage.sequenceNumber(),
+      failedMessage.groupId(),
+      failedMessage.lockId(),
+      failedMessage.attemptCount(),
+      failedMessage.subject(),
+      result.failure());
+
+    return new GroupDispatch(dispatchedSequenceNumbers, failedMessage, skippedSequenceNumbers, List.of());
+  }
+
+  private CompletableFuture<DispatchResult> dispatchAll(final CoalescedMessages coalescedMessages) {
+    final CompletableFuture<DispatchResult> dispatch;
+
+    try {
+      dispatch = messageDispatcher.dispatchAll(coalescedMessages.messages(), coalescedMessages.decodedBodies());
+    } catch (final RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+
+    // Not timed out, the heartbeat keeps the locks while the handler runs and its permit is held until it completes.
+    return dispatch;
+  }
+
+  private CompletableFuture<GroupDispatch> dispatchGroupMessages(final List<Message> groupMessages) {
+    final var coalescedMessages = messageCoalescer.coalesce(groupMessages);
+    final var messages = coalescedMessages.messages();
+
+    coalescedMessages.supersedingSequenceNumbers().forEach((s, t) ->
+      LOGGER.debug("Coalescing message (sequenceNumber={}, supersedingSequenceNumber={}, groupId={})",
+        s,
+        t,
+        messages.getFirst().groupId()));
+    LOGGER.debug("Dispatching messages (groupId={}, lockId={}, sequenceNumbers={})",
+      messages.getFirst().groupId(),
+      messages.getFirst().lockId(),
+      messages.stream().map(Message::sequenceNumber).toList());
+    final var dispatchStartedAt = System.nanoTime();
+
+    return dispatchAll(coalescedMessages)
+      .exceptionally(t -> DispatchResult.failed(0, t))
+      .thenApply(r -> toGroupDispatch(
+        coalescedMessages,
+        r,
+        Duration.ofNanos(System.nanoTime() - dispatchStartedAt)));
+  }
+
+  private boolean acquireDispatch(final Semaphore inFlightDispatches) {
+    final var deadline = System.nanoTime() + properties.lockDuration().toNanos();
+
+    try {
+      // Acquired in slices, so a stopping poller does not wait on handlers that may never complete.
+      while (!stopping.get() && (System.nanoTime() - deadline < 0L)) {
+        if (inFlightDispatches.tryAcquire(10L, TimeUnit.MILLISECONDS)) {
+          return true;
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    return false;
+  }
+
+  private List<GroupDispatch> dispatchMessages(final List<Message> messages, final UUID lockId) {
+    if (messages.isEmpty()) {
+      return List.of();
+    }
+    try (final var _ = LockHeartbeat.start(messageConsumer, lockId, properties.lockDuration().dividedBy(3L))) {
+      final var groupMessages = messages.stream()
+        .collect(Collectors.groupingBy(Message::groupId, LinkedHashMap::new, Collectors.toList()))
+        .values();
+      final var inFlightDispatches = new Semaphore(properties.maxConcurrency());
+      final var abandoned = shutdownTimedOut;
+      final var groupDispatches = new ArrayList<CompletableFuture<GroupDispatch>>();
+
+      for (final var group : groupMessages) {
+        final var sequenceNumbers = group.stream()
+          .map(Message::sequenceNumber)
+          .toList();
+        final var skipped = CompletableFuture.completedFuture(
+          new GroupDispatch(List.of(), null, sequenceNumbers, List.of()));
+
+        if (!acquireDispatch(inFlightDispatches)) {
+          if (!stopping.get()) {
+            LOGGER.warn("Timed out waiting for a dispatch slot (groupId={}, lockId={})",
+              group.getFirst().groupId(),
+              lockId);
+          }
+          groupDispatches.add(skipped);
+          continue;
+        }
+        if (stopping.get()) {
+          inFlightDispatches.release();
+          groupDispatches.add(skipped);
+          continue;
+        }
+        final var groupDispatch = dispatchGroupMessages(group)
+          .whenComplete((d, t) -> inFlightDispatches.release());
+
+        // A dispatch outliving the shutdown timeout is abandoned, so its messages are requeued before the poller stops.
+        groupDispatches.add(groupDispatch.applyToEither(
+          abandoned.thenApply(_ -> new GroupDispatch(List.of(), null, List.of(), sequenceNumbers)),
+          Function.identity()));
+      }
+
+      return groupDispatches.stream()
+        .map(CompletableFuture::join)
+        .toList();
+    }
   }
 
-  private Result<Long, Throwable> dispatchMessage(final Message message) {
-    LOGGER.debug("Dispatching message (sequenceNumber={}, groupId={}, lockId={}, attemptCount={}, subject={})",
+  private void dequeueMessages(final List<Long> sequenceNumbers, final UUID lockId) {
+    if (sequenceNumbers.isEmpty()) {
+      return;
+    }
+    LOGGER.debug("Dequeuing messages (sequenceNumbers={})", sequenceNumbers);
+
+    try {
+      messageConsumer.dequeueAllLocked(sequenceNumbers, lockId);
+      messageCounts.recordDequeued(sequenceNumbers.size());
+      trigger.skipNextPollInterval();
+    } catch (final Exception e) {
+      LOGGER.error("Failed to dequeue messages (sequenceNumbers={})", sequenceNumbers, e);
+    }
+  }
+
+  private void deadLetterMessage(final Message message, final UUID lockId) {
+    LOGGER.warn("Dead-lettering message (sequenceNumber={}, groupId={}, attemptCount={}, subject={})",
       message.sequenceNumber(),
       message.groupId(),
-      message.lockId(),
       message.attemptCount(),
       message.subject());
+    messageCounts.recordFailed(1);
     try {
-      applicationEventPublisher.publishEvent(message.body());
-    } catch (final Throwable t) {
-      LOGGER.error("Failed to dispatch message (sequenceNumber={}, groupId={}, lockId={}, attemptCount={}, subject={})",
+      messageConsumer.deadLetterLocked(message.sequenceNumber(), lockId);
+      // Dead-lettering moves the remaining group messages as well, so the counts are re-read on next use.
+      messageCounts.invalidate();
+    } catch (final Exception e) {
+      LOGGER.error("Failed to dead-letter message (sequenceNumber={})", message.sequenceNumber(), e);
+    }
+  }
+
+  private void retryMessages(final List<Message> messages, final UUID lockId) {
+    for (final var message : messages) {
+      if (message.attemptCount() >= properties.maxAttemptCount()) {
+        deadLetterMessage(message, lockId);
+        continue;
+      }
+      final var delay = retryBackoff.delay(message.attemptCount());
+
+      LOGGER.debug("Retrying message (sequenceNumber={}, attemptCount={}, delay={})",
         message.sequenceNumber(),
-        message.groupId(),
-        message.lockId(),
         message.attemptCount(),
-        message.subject(),
-        t);
+        delay);
+      try {
+        messageConsumer.retryLocked(message.sequenceNumber(), lockId, delay);
+        messageCounts.recordUnlocked(1);
+      } catch (final Exception e) {
+        LOGGER.error("Failed to retry message (sequenceNumber={})", message.sequenceNumber(), e);
+      }
+    }
+  }
 
-      return Result.failure(t);
+  private void requeueMessages(final List<Long> sequenceNumbers, final UUID lockId) {
+    if (sequenceNumbers.isEmpty()) {
+      return;
     }
+    LOGGER.warn("Requeuing messages of abandoned dispatches (sequenceNumbers={}, lockId={})", sequenceNumbers, lockId);
 
-    return Result.success(message.sequenceNumber());
+    try {
+      messageConsumer.requeueAllLocked(sequenceNumbers, lockId);
+      messageCounts.recordUnlocked(sequenceNumbers.size());
+    } catch (final Exception e) {
+      LOGGER.error("Failed to requeue messages (sequenceNumbers={})", sequenceNumbers, e);
+    }
   }
 
-  private void dequeueMessages(final List<Long> sequenceNumbers, final UUID lockId) {
+  private void releaseMessages(final List<Long> sequenceNumbers, final UUID lockId) {
     if (sequenceNumbers.isEmpty()) {
       return;
     }
-    LOGGER.debug("Dequeuing messages (sequenceNumbers={})", sequenceNumbers);
+    LOGGER.debug("Releasing messages (sequenceNumbers={})", sequenceNumbers);
 
     try {
-      messageConsumer.dequeueAllLocked(sequenceNumbers, lockId);
-      trigger.skipNextPollInterval();
+      messageConsumer.releaseAllLocked(sequenceNumbers, lockId);
+      messageCounts.recordUnlocked(sequenceNumbers.size());
     } catch (final Exception e) {
-      LOGGER.error("Failed to dequeue messages (sequenceNumbers={})", sequenceNumbers, e);
+      LOGGER.error("Failed to release messages (sequenceNumbers={})", sequenceNumbers, e);
+    }
+  }
+
+  private void poll() {
+    while (polling.compareAndSet(false, true)) {
+      try {
+        pollRequested.set(false);
+        run(UUID.randomUUID());
+      } finally {
+        polling.set(false);
+      }
+      if (!pollRequested.get()) {
+        return;
+      }
+    }
+  }
+
+  private void pollAfterWakeUp() {
+    try {
+      poll();
+    } catch (final Exception e) {
+      LOGGER.error("Failed to poll messages after wake-up", e);
     }
   }
 
+  public void wakeUp() {
+    if (!properties.isPollerEnabled() || stopping.get()) {
+      return;
+    }
+    controller.reset();
+    pollRequested.set(true);
+    if (polling.get()) {
+      return;
+    }
+    Thread.ofVirtual()
+      .name("outbox-poller-wake-up")
+      .start(this::pollAfterWakeUp);
+  }
+
   @Override
   public void run() {
-    run(UUID.randomUUID());
+    poll();
+  }
+
+  private boolean awaitInFlightLocks(final Duration timeout) {
+    final var deadline = System.nanoTime() + timeout.toNanos();
+
+    while (!inFlightLocks.isEmpty() && (System.nanoTime() - deadline < 0L)) {
+      try {
+        Thread.sleep(10L);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+
+    return inFlightLocks.isEmpty();
+  }
+
+  @Override
+  public void start() {
+    shutdownTimedOut = new CompletableFuture<>();
+    stopping.set(false);
+    running.set(true);
+  }
+
+  @Override
+  public void stop() {
+    if (!stopping.compareAndSet(false, true)) {
+      return;
+    }
+    if (!awaitInFlightLocks(properties.shutdownTimeout())) {
+      // The polls requeue the messages of abandoned dispatches, and are awaited so none outlives the DataSource.
+      shutdownTimedOut.complete(null);
+      if (!awaitInFlightLocks(properties.lockDuration())) {
+        LOGGER.warn("Stopped with in-flight polls, their locks are left to expire (lockIds={})",
+          List.copyOf(inFlightLocks));
+      }
+    }
+    running.set(false);
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running.get();
+  }
+
+  private record GroupDispatch(List<Long> dispatchedSequenceNumbers,
+                               Message failedMessage,
+                               List<Long> skippedSequenceNumbers,
+                               List<Long> requeuedSequenceNumbers) {
   }
 }
@@ -0,0 +1,68 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.time.Duration;
+import java.util.Objects;
+
+public class OutboxPollerController {
+
+  private final Duration minPollInterval;
+  private final Duration maxPollInterval;
+  private final int maxLockLimit;
+  private final Duration targetPollLatency;
+  private volatile Duration pollInterval;
+  private volatile int lockLimit;
+
+  public OutboxPollerController(final Duration minPollInterval,
+                                final Duration maxPollInterval,
+                                final int minLockLimit,
+                                final int maxLockLimit,
+                                final Duration targetPollLatency) {
+    this.minPollInterval = Objects.requireNonNull(minPollInterval);
+    this.maxPollInterval = (maxPollInterval.compareTo(minPollInterval) > 0) ? maxPollInterval : minPollInterval;
+    this.maxLockLimit = Math.max(minLockLimit, maxLockLimit);
+    this.targetPollLatency = Objects.requireNonNull(targetPollLatency);
+
+    this.pollInterval = minPollInterval;
+    this.lockLimit = minLockLimit;
+  }
+
+  public OutboxPollerController(final OutboxProperties properties) {
+    this(properties.pollInterval(),
+      properties.maxPollInterval(),
+      properties.lockLimit(),
+      properties.maxLockLimit(),
+      properties.targetPollLatency());
+  }
+
+  public Duration pollInterval() {
+    return pollInterval;
+  }
+
+  public int lockLimit() {
+    return lockLimit;
+  }
+
+  private void backOff() {
+    final var nextPollInterval = pollInterval.multipliedBy(2L);
+
+    pollInterval = (nextPollInterval.compareTo(maxPollInterval) > 0) ? maxPollInterval : nextPollInterval;
+  }
+
+  public void reset() {
+    pollInterval = minPollInterval;
+  }
+
+  public void adapt(final int lockedCount, final Duration pollLatency) {
+    if (lockedCount == 0) {
+      backOff();
+
+      return;
+    }
+    reset();
+    if (pollLatency.compareTo(targetPollLatency) > 0) {
+      lockLimit = Math.max(lockLimit / 2, 1);
+    } else if (lockedCount >= lockLimit) {
+      lockLimit = Math.min(lockLimit * 2, maxLockLimit);
+    }
+  }
+}
@@ -9,18 +9,23 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 public class OutboxPollerTrigger implements Trigger {
 
-  private final Duration pollInterval;
+  private final Supplier<Duration> pollInterval;
   private final AtomicBoolean skipNextPollInterval;
 
-  public OutboxPollerTrigger(final Duration pollInterval) {
+  public OutboxPollerTrigger(final Supplier<Duration> pollInterval) {
     this.pollInterval = Objects.requireNonNull(pollInterval);
 
     this.skipNextPollInterval = new AtomicBoolean(false);
   }
 
+  public OutboxPollerTrigger(final Duration pollInterval) {
+    this(() -> pollInterval);
+  }
+
   public void skipNextPollInterval() {
     skipNextPollInterval.set(true);
   }
@@ -38,6 +43,6 @@ public class OutboxPollerTrigger implements Trigger {
       return lastScheduledExecution;
     }
 
-    return lastScheduledExecution.plus(pollInterval);
+    return lastScheduledExecution.plus(pollInterval.get());
   }
 }
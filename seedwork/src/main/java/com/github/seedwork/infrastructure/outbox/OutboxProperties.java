@@ -1,22 +1,74 @@
 package com.github.seedwork.infrastructure.outbox;
 
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Map;
 
 @ConfigurationProperties(prefix = "outbox")
 @Validated
 public record OutboxProperties(@DefaultValue("false") boolean enabled,
+                               @DefaultValue("JPA") OutboxStore store,
+                               @DefaultValue("outbox-journal") Path journalDirectory,
+                               @DefaultValue("64MB") DataSize journalSegmentSize,
+                               @DefaultValue("EVENT") OutboxDispatcher dispatcher,
+                               @DefaultValue("outbox-messages") Path dispatcherFile,
+                               @DefaultValue("0") @Min(0) int dispatcherPipelineDepth,
                                @DefaultValue("PT1S") Duration pollInterval,
+                               @DefaultValue("PT10S") Duration maxPollInterval,
                                @DefaultValue("PT30S") Duration lockDuration,
                                @DefaultValue("100") @Min(1) int lockLimit,
+                               @DefaultValue("1000") @Min(1) int maxLockLimit,
+                               @DefaultValue("PT1S") Duration targetPollLatency,
+                               @DefaultValue("1") @Min(1) int groupLockLimit,
+                               @DefaultValue("GROUP_SCAN") LockStrategy lockStrategy,
+                               @DefaultValue Map<String, Integer> subjectPriorities,
+                               @DefaultValue("10") @Min(0) @Max(100) int minLaneShare,
                                @DefaultValue("10") @Min(0) int maxAttemptCount,
-                               @DefaultValue("10") @Min(1) int maxConcurrency) {
+                               @DefaultValue("PT0.1S") Duration minRetryDelay,
+                               @DefaultValue("PT5M") Duration maxRetryDelay,
+                               @DefaultValue("10") @Min(1) int maxConcurrency,
+                               @DefaultValue("16") @Min(1) int partitionCount,
+                               @DefaultValue("PT0S") Duration partitionLeaseDuration,
+                               @DefaultValue("0") @Min(0) int maxPollers,
+                               @DefaultValue("PT10S") Duration countStaleness,
+                               @DefaultValue("PT10S") Duration shutdownTimeout) {
 
   public boolean isPollerEnabled() {
     return pollInterval().isPositive();
   }
+
+  public boolean isPartitioningEnabled() {
+    return partitionLeaseDuration().isPositive();
+  }
+
+  @AssertTrue(message = "partition-lease-duration must be greater than twice the max-poll-interval")
+  public boolean isPartitionLeaseDurationValid() {
+    // Leases are only renewed while polling, so a backed-off poller must renew at least once before its leases expire.
+    if (!isPollerEnabled() || !isPartitioningEnabled()) {
+      return true;
+    }
+    final var maxPollInterval = (maxPollInterval().compareTo(pollInterval()) > 0) ? maxPollInterval() : pollInterval();
+
+    return partitionLeaseDuration().compareTo(maxPollInterval.multipliedBy(2L)) > 0;
+  }
+
+  @AssertTrue(message = "max-pollers requires partitioning, set a positive partition-lease-duration")
+  public boolean isMaxPollersValid() {
+    // Pollers are capped by withholding partition leases, so without partitioning every poller would keep polling.
+    return (maxPollers() == 0) || isPartitioningEnabled();
+  }
+
+  @AssertTrue(message = "subject-priorities are not supported by the GROUP_HEAD lock-strategy")
+  public boolean isLockStrategyValid() {
+    // GROUP_HEAD claims groups from outbox_group, which does not track subjects, so lanes would be silently ignored.
+    return (lockStrategy() != LockStrategy.GROUP_HEAD) || !new MessageLanes(this).isPrioritized();
+  }
 }
@@ -0,0 +1,8 @@
+package com.github.seedwork.infrastructure.outbox;
+
+public enum OutboxStore {
+
+  JPA,
+  MEMORY,
+  JOURNAL
+}
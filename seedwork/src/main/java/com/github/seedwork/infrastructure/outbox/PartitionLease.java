@@ -0,0 +1,50 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+public class PartitionLease {
+
+  private Integer partitionNumber;
+  private UUID ownerId;
+  private Instant leasedUntil;
+
+  public PartitionLease(final Integer partitionNumber, final UUID ownerId, final Instant leasedUntil) {
+    this.partitionNumber = Objects.requireNonNull(partitionNumber);
+    this.ownerId = ownerId;
+    this.leasedUntil = Objects.requireNonNull(leasedUntil);
+  }
+
+  public Integer partitionNumber() {
+    return partitionNumber;
+  }
+
+  public UUID ownerId() {
+    return ownerId;
+  }
+
+  public Instant leasedUntil() {
+    return leasedUntil;
+  }
+
+  protected PartitionLease() {
+  }
+
+  @Override
+  public boolean equals(final Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (!(object instanceof final PartitionLease other)) {
+      return false;
+    }
+
+    return Objects.equals(other.partitionNumber(), partitionNumber());
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(partitionNumber());
+  }
+}
@@ -0,0 +1,25 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.util.UUID;
+
+public interface PartitionLeaseManager {
+
+  static PartitionLeaseManager unpartitioned() {
+    return new PartitionLeaseManager() {
+
+      @Override
+      public Partitions renewLeases(final UUID nodeId) {
+        return Partitions.all();
+      }
+
+      @Override
+      public void releaseLeases(final UUID nodeId) {
+        // Do nothing
+      }
+    };
+  }
+
+  Partitions renewLeases(UUID nodeId);
+
+  void releaseLeases(UUID nodeId);
+}
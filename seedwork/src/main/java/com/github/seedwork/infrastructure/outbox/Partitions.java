@@ -0,0 +1,29 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.util.List;
+import java.util.Objects;
+
+public record Partitions(int count, List<Integer> numbers) {
+
+  private static final Partitions ALL = new Partitions(1, List.of(0));
+
+  public Partitions {
+    numbers = List.copyOf(Objects.requireNonNull(numbers));
+  }
+
+  public static Partitions all() {
+    return ALL;
+  }
+
+  public static Partitions none(final int count) {
+    return new Partitions(count, List.of());
+  }
+
+  public boolean isEmpty() {
+    return numbers().isEmpty();
+  }
+
+  public boolean contains(final int partitionKey) {
+    return numbers().contains(partitionKey % count());
+  }
+}
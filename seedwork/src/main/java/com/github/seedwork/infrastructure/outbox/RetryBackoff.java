@@ -0,0 +1,36 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import com.github.seedwork.core.util.Randoms;
+
+import java.time.Duration;
+import java.util.Objects;
+
+public class RetryBackoff {
+
+  private final Duration minDelay;
+  private final Duration maxDelay;
+
+  public RetryBackoff(final Duration minDelay, final Duration maxDelay) {
+    this.minDelay = Objects.requireNonNull(minDelay);
+    this.maxDelay = Objects.requireNonNull(maxDelay);
+  }
+
+  private long exponentialDelayNanos(final int attemptCount) {
+    final var exponent = Math.clamp(attemptCount - 1, 0, 62);
+    final var minDelayNanos = minDelay.toNanos();
+    final var maxDelayNanos = maxDelay.toNanos();
+
+    if (minDelayNanos > (maxDelayNanos >> exponent)) {
+      return maxDelayNanos;
+    }
+
+    return minDelayNanos << exponent;
+  }
+
+  public Duration delay(final int attemptCount) {
+    final var delayNanos = exponentialDelayNanos(attemptCount);
+    final var jitterNanos = Randoms.nextLong((delayNanos / 2L) + 1L);
+
+    return Duration.ofNanos(delayNanos - jitterNanos);
+  }
+}
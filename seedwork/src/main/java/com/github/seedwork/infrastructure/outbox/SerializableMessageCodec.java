@@ -0,0 +1,36 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+
+public class SerializableMessageCodec implements MessageCodec {
+
+  @Override
+  public byte[] encode(final String subject, final Serializable body) {
+    final var byteStream = new ByteArrayOutputStream();
+
+    try (final var objectStream = new ObjectOutputStream(byteStream)) {
+      objectStream.writeObject(body);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return byteStream.toByteArray();
+  }
+
+  @Override
+  public Serializable decode(final String subject, final byte[] body) {
+    try (final var objectStream = new ObjectInputStream(new ByteArrayInputStream(body))) {
+      return (Serializable) objectStream.readObject();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (final ClassNotFoundException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
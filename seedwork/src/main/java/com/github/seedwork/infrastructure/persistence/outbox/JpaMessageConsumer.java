@@ -1,13 +1,21 @@
 package com.github.seedwork.infrastructure.persistence.outbox;
 
+import com.github.seedwork.infrastructure.outbox.LockStrategy;
 import com.github.seedwork.infrastructure.outbox.Message;
 import com.github.seedwork.infrastructure.outbox.MessageConsumer;
 import com.github.seedwork.infrastructure.outbox.MessageCounts;
 import com.github.seedwork.infrastructure.outbox.MessageException;
+import com.github.seedwork.infrastructure.outbox.MessageFilter;
+import com.github.seedwork.infrastructure.outbox.MessageHeader;
+import com.github.seedwork.infrastructure.outbox.MessageLane;
+import com.github.seedwork.infrastructure.outbox.OutboxMetrics;
+import com.github.seedwork.infrastructure.outbox.Partitions;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
@@ -19,15 +27,40 @@ public class JpaMessageConsumer implements MessageConsumer {
   private final Clock clock;
   private final Duration lockDuration;
   private final int maxAttemptCount;
+  private final OutboxMetrics metrics;
+  private final LockStrategy lockStrategy;
+  private final boolean lockReturning;
 
   public JpaMessageConsumer(final JpaMessageRepository repository,
                             final Clock clock,
                             final Duration lockDuration,
                             final int maxAttemptCount) {
+    this(repository, clock, lockDuration, maxAttemptCount, OutboxMetrics.noop(), LockStrategy.GROUP_SCAN);
+  }
+
+  public JpaMessageConsumer(final JpaMessageRepository repository,
+                            final Clock clock,
+                            final Duration lockDuration,
+                            final int maxAttemptCount,
+                            final OutboxMetrics metrics,
+                            final LockStrategy lockStrategy) {
+    this(repository, clock, lockDuration, maxAttemptCount, metrics, lockStrategy, false);
+  }
+
+  public JpaMessageConsumer(final JpaMessageRepository repository,
+                            final Clock clock,
+                            final Duration lockDuration,
+                            final int maxAttemptCount,
+                            final OutboxMetrics metrics,
+                            final LockStrategy lockStrategy,
+                            final boolean lockReturning) {
     this.repository = Objects.requireNonNull(repository);
     this.clock = Objects.requireNonNull(clock);
     this.lockDuration = Objects.requireNonNull(lockDuration);
     this.maxAttemptCount = maxAttemptCount;
+    this.metrics = Objects.requireNonNull(metrics);
+    this.lockStrategy = Objects.requireNonNull(lockStrategy);
+    this.lockReturning = lockReturning;
   }
 
   @Override
@@ -42,17 +75,87 @@ public class JpaMessageConsumer implements MessageConsumer {
   }
 
   @Override
-  public List<Message> peekAll(final long offset, final int limit) {
-    return repository.peekAll(offset, limit);
+  public List<MessageHeader> peekAllAfter(final Long afterSequenceNumber, final MessageFilter filter, final int limit) {
+    return repository.peekAllAfter(afterSequenceNumber, filter, maxAttemptCount, limit);
   }
 
-  @Override
-  public List<Message> lockAllNextActive(final UUID lockId, final int limit) {
+  private static List<String> laneSubjects(final MessageLane lane) {
+    // An empty IN list is not valid SQL, so an empty lane is matched against a subject no message carries.
+    return lane.subjects().isEmpty() ? List.of("") : List.copyOf(lane.subjects());
+  }
+
+  private List<Message> lockAndPeekAllNextActive(final UUID lockId,
+                                                 final Partitions partitions,
+                                                 final MessageLane lane,
+                                                 final int limit,
+                                                 final int groupLimit) {
     final var lockedAt = clock.instant();
     final var lockCount = repository.lockAllNextActive(
       lockedAt.plus(lockDuration),
       lockId,
       limit,
+      groupLimit,
+      maxAttemptCount,
+      partitions.count(),
+      partitions.numbers(),
+      laneSubjects(lane),
+      lane.excluded(),
+      lockedAt);
+
+    if (lockCount == 0) {
+      return List.of();
+    }
+
+    return repository.peekAllLocked(lockId, clock.instant());
+  }
+
+  private List<Message> lockAllNextActiveReturning(final UUID lockId,
+                                                   final Partitions partitions,
+                                                   final MessageLane lane,
+                                                   final int limit,
+                                                   final int groupLimit) {
+    final var lockedAt = clock.instant();
+    final var messages = repository.lockAllNextActiveReturning(
+      lockedAt.plus(lockDuration),
+      lockId,
+      limit,
+      groupLimit,
+      maxAttemptCount,
+      partitions.count(),
+      partitions.numbers(),
+      laneSubjects(lane),
+      lane.excluded(),
+      lockedAt);
+
+    // RETURNING does not guarantee an order, so the rows are sorted like peekAllLocked sorts them.
+    return messages.stream()
+      .sorted(Comparator.comparing(Message::sequenceNumber))
+      .toList();
+  }
+
+  private List<Message> lockAndPeekAllNextActiveSkipLocked(final UUID lockId,
+                                                          final Partitions partitions,
+                                                          final MessageLane lane,
+                                                          final int limit,
+                                                          final int groupLimit) {
+    final var lockedAt = clock.instant();
+    final var groupIds = repository.claimAllNextActiveGroups(
+      limit,
+      maxAttemptCount,
+      partitions.count(),
+      partitions.numbers(),
+      laneSubjects(lane),
+      lane.excluded(),
+      lockedAt);
+
+    if (groupIds.isEmpty()) {
+      return List.of();
+    }
+    final var lockCount = repository.lockAllNextActiveInGroups(
+      lockedAt.plus(lockDuration),
+      lockId,
+      groupIds,
+      groupLimit,
       maxAttemptCount,
       lockedAt);
 
@@ -63,6 +166,73 @@ public class JpaMessageConsumer implements MessageConsumer {
     return repository.peekAllLocked(lockId, clock.instant());
   }
 
+  private void settleClaimedGroups(final List<String> groupIds, final List<Message> messages, final Instant lockedAt) {
+    final var lockedGroupIds = messages.stream()
+      .map(Message::groupId)
+      .distinct()
+      .toList();
+    final var unlockedGroupIds = groupIds.stream()
+      .filter(g -> !lockedGroupIds.contains(g))
+      .toList();
+
+    if (!lockedGroupIds.isEmpty()) {
+      repository.deferAllGroups(lockedGroupIds, lockedAt.plus(lockDuration));
+    }
+    if (!unlockedGroupIds.isEmpty()) {
+      repository.refreshAllGroups(unlockedGroupIds, maxAttemptCount, lockedAt.plus(lockDuration), lockedAt);
+      repository.deleteAllEmptyGroups(unlockedGroupIds, lockedAt.minus(lockDuration));
+    }
+  }
+
+  private List<Message> lockAndPeekAllNextActiveGroupHead(final UUID lockId,
+                                                          final Partitions partitions,
+                                                          final MessageLane lane,
+                                                          final int limit,
+                                                          final int groupLimit) {
+    final var lockedAt = clock.instant();
+    final var groupIds = repository.claimAllReadyGroups(
+      limit,
+      partitions.count(),
+      partitions.numbers(),
+      lockedAt);
+
+    if (groupIds.isEmpty()) {
+      return List.of();
+    }
+    final var lockCount = repository.lockAllNextActiveInGroups(
+      lockedAt.plus(lockDuration),
+      lockId,
+      groupIds,
+      groupLimit,
+      maxAttemptCount,
+      lockedAt);
+    final var messages = (lockCount == 0) ? List.<Message>of() : repository.peekAllLocked(lockId, clock.instant());
+
+    settleClaimedGroups(groupIds, messages, lockedAt);
+
+    return messages;
+  }
+
+  @Override
+  public List<Message> lockAllNextActive(final UUID lockId,
+                                         final Partitions partitions,
+                                         final MessageLane lane,
+                                         final int limit,
+                                         final int groupLimit) {
+    final var lockStartedAt = System.nanoTime();
+    final var messages = switch (lockStrategy) {
+      case GROUP_SCAN -> lockReturning
+        ? lockAllNextActiveReturning(lockId, partitions, lane, limit, groupLimit)
+        : lockAndPeekAllNextActive(lockId, partitions, lane, limit, groupLimit);
+      case SKIP_LOCKED -> lockAndPeekAllNextActiveSkipLocked(lockId, partitions, lane, limit, groupLimit);
+      case GROUP_HEAD -> lockAndPeekAllNextActiveGroupHead(lockId, partitions, lane, limit, groupLimit);
+    };
+
+    metrics.recordLock(Duration.ofNanos(System.nanoTime() - lockStartedAt), messages.size());
+
+    return messages;
+  }
+
   @Override
   public List<Message> lockAllNextFailed(final UUID lockId, final int limit) {
     final var lockedAt = clock.instant();
@@ -80,8 +250,53 @@ public class JpaMessageConsumer implements MessageConsumer {
     return repository.peekAllLocked(lockId, clock.instant());
   }
 
+  @Override
+  public int extendAllLocked(final UUID lockId) {
+    final var extendedAt = clock.instant();
+
+    return repository.extendAllLocked(lockId, extendedAt.plus(lockDuration), extendedAt);
+  }
+
+  private boolean isGroupTracking() {
+    return lockStrategy == LockStrategy.GROUP_HEAD;
+  }
+
+  private void touchAllGroups(final List<Long> sequenceNumbers, final Instant touchedAt) {
+    if (isGroupTracking()) {
+      repository.touchAllGroups(sequenceNumbers, touchedAt, clock.instant());
+    }
+  }
+
+  public int backfillPartitionKeys(final int limit) {
+    final var groupIds = repository.peekAllPartitionBackfill(limit);
+
+    if (groupIds.isEmpty()) {
+      return 0;
+    }
+    // Keys are computed here rather than in SQL, so they always match the key the producer assigns.
+    for (final var groupId : groupIds) {
+      final var partitionKey = Message.partitionKeyOf(groupId);
+
+      repository.backfillPartitionKey(groupId, partitionKey);
+      repository.backfillDeadLetteredPartitionKey(groupId, partitionKey);
+      repository.backfillGroupPartitionKey(groupId, partitionKey);
+    }
+    repository.deleteAllPartitionBackfill(groupIds);
+
+    return groupIds.size();
+  }
+
+  public int mergeAllGroups() {
+    if (!isGroupTracking()) {
+      return 0;
+    }
+
+    return repository.mergeAllGroups(null, clock.instant());
+  }
+
   @Override
   public void requeueLocked(final Long sequenceNumber, final UUID lockId) {
+    touchAllGroups(List.of(sequenceNumber), clock.instant());
     final var requeueCount = repository.requeueLocked(sequenceNumber, lockId, clock.instant());
 
     if (requeueCount != 1) {
@@ -94,6 +309,7 @@ public class JpaMessageConsumer implements MessageConsumer {
     if (sequenceNumbers.isEmpty()) {
       return;
     }
+    touchAllGroups(sequenceNumbers, clock.instant());
     final var requeueCount = repository.requeueAllLocked(sequenceNumbers, lockId, clock.instant());
 
     if (requeueCount != sequenceNumbers.size()) {
@@ -101,8 +317,90 @@ public class JpaMessageConsumer implements MessageConsumer {
     }
   }
 
+  @Override
+  public void retryLocked(final Long sequenceNumber, final UUID lockId, final Duration delay) {
+    final var retriedAt = clock.instant();
+
+    touchAllGroups(List.of(sequenceNumber), retriedAt.plus(delay));
+    final var retryCount = repository.retryLocked(sequenceNumber, lockId, retriedAt.plus(delay), retriedAt);
+
+    if (retryCount != 1) {
+      throw MessageException.notFound();
+    }
+  }
+
+  @Override
+  public void releaseAllLocked(final List<Long> sequenceNumbers, final UUID lockId) {
+    if (sequenceNumbers.isEmpty()) {
+      return;
+    }
+    touchAllGroups(sequenceNumbers, clock.instant());
+    final var releaseCount = repository.releaseAllLocked(sequenceNumbers, lockId, clock.instant());
+
+    if (releaseCount != sequenceNumbers.size()) {
+      throw MessageException.notFound();
+    }
+  }
+
+  @Override
+  public void deadLetterLocked(final Long sequenceNumber, final UUID lockId) {
+    touchAllGroups(List.of(sequenceNumber), clock.instant());
+    final var deadLetterCount = repository.deadLetterLocked(sequenceNumber, lockId, clock.instant());
+
+    if (deadLetterCount == 0) {
+      throw MessageException.notFound();
+    }
+    repository.dequeueAllDeadLettered(sequenceNumber);
+  }
+
+  @Override
+  public int deadLetterAllExhausted(final Partitions partitions) {
+    final var deadLetteredAt = clock.instant();
+    final var deadLetterCount = repository.deadLetterAllExhausted(
+      maxAttemptCount,
+      partitions.count(),
+      partitions.numbers(),
+      deadLetteredAt);
+
+    if (deadLetterCount == 0) {
+      return 0;
+    }
+
+    return repository.dequeueAllExhausted(
+      maxAttemptCount,
+      partitions.count(),
+      partitions.numbers(),
+      deadLetteredAt);
+  }
+
+  @Override
+  public List<MessageHeader> peekAllDeadLettered(final long offset, final int limit) {
+    return repository.peekAllDeadLettered(offset, limit);
+  }
+
+  @Override
+  public int replayAllDeadLettered(final String groupId) {
+    final var replayedAt = clock.instant();
+    final var replayCount = repository.replayAllDeadLettered(groupId, replayedAt);
+
+    if (replayCount == 0) {
+      return 0;
+    }
+    if (groupId == null) {
+      repository.deleteAllReplayed();
+    } else {
+      repository.deleteAllReplayedInGroup(groupId);
+    }
+    if (isGroupTracking()) {
+      repository.mergeAllGroups(groupId, replayedAt);
+    }
+
+    return replayCount;
+  }
+
   @Override
   public void dequeueLocked(final Long sequenceNumber, final UUID lockId) {
+    touchAllGroups(List.of(sequenceNumber), clock.instant());
     final var dequeueCount = repository.dequeueLocked(sequenceNumber, lockId, clock.instant());
 
     if (dequeueCount != 1) {
@@ -115,8 +413,12 @@ public class JpaMessageConsumer implements MessageConsumer {
     if (sequenceNumbers.isEmpty()) {
       return;
     }
+    final var dequeueStartedAt = System.nanoTime();
+
+    touchAllGroups(sequenceNumbers, clock.instant());
     final var dequeueCount = repository.dequeueAllLocked(sequenceNumbers, lockId, clock.instant());
 
+    metrics.recordDequeue(Duration.ofNanos(System.nanoTime() - dequeueStartedAt), dequeueCount);
     if (dequeueCount != sequenceNumbers.size()) {
       throw MessageException.notFound();
     }
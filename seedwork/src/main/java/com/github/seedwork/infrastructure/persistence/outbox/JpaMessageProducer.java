@@ -1,10 +1,12 @@
 package com.github.seedwork.infrastructure.persistence.outbox;
 
 import com.github.seedwork.infrastructure.outbox.Message;
+import com.github.seedwork.infrastructure.outbox.MessageContent;
 import com.github.seedwork.infrastructure.outbox.MessageProducer;
 
-import java.io.Serializable;
 import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
 import java.util.Objects;
 
 public class JpaMessageProducer implements MessageProducer {
@@ -17,11 +19,15 @@ public class JpaMessageProducer implements MessageProducer {
     this.clock = Objects.requireNonNull(clock);
   }
 
-  @Override
-  public Message enqueue(final String groupId, final String subject, final Serializable body) {
+  private Message enqueue(final String groupId,
+                          final String subject,
+                          final byte[] body,
+                          final Instant enqueuedAt,
+                          final Instant availableAt) {
     final var message = new Message(
       groupId,
-      clock.instant(),
+      enqueuedAt,
+      availableAt,
       subject,
       body);
 
@@ -29,4 +35,32 @@ public class JpaMessageProducer implements MessageProducer {
 
     return message;
   }
+
+  @Override
+  public Message enqueue(final String groupId, final String subject, final byte[] body) {
+    final var enqueuedAt = clock.instant();
+
+    return enqueue(groupId, subject, body, enqueuedAt, enqueuedAt);
+  }
+
+  @Override
+  public Message enqueue(final String groupId, final String subject, final byte[] body, final Instant availableAt) {
+    return enqueue(groupId, subject, body, clock.instant(), availableAt);
+  }
+
+  @Override
+  public List<Message> enqueueAll(final String groupId, final List<MessageContent> contents) {
+    final var enqueuedAt = clock.instant();
+    final var messages = contents.stream()
+      .map(c -> new Message(
+        groupId,
+        enqueuedAt,
+        c.subject(),
+        c.body()))
+      .toList();
+
+    repository.enqueueAll(messages);
+
+    return messages;
+  }
 }
@@ -2,6 +2,7 @@ package com.github.seedwork.infrastructure.persistence.outbox;
 
 import com.github.seedwork.infrastructure.outbox.Message;
 import com.github.seedwork.infrastructure.outbox.MessageCounts;
+import com.github.seedwork.infrastructure.outbox.MessageHeader;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.NativeQuery;
 import org.springframework.data.repository.Repository;
@@ -21,16 +22,79 @@ public interface JpaMessageRepository extends JpaMessageSupport, Repository<Mess
   @NativeQuery(name = "Message.peek")
   Optional<Message> peek(@Param("sequence_number") Long sequenceNumber);
 
-  @NativeQuery(name = "Message.peekAll")
-  List<Message> peekAll(@Param("offset") long offset, @Param("limit") int limit);
+  @NativeQuery(name = "Message.claimAllNextActiveGroups")
+  List<String> claimAllNextActiveGroups(@Param("limit") int limit,
+                                        @Param("max_attempt_count") int maxAttemptCount,
+                                        @Param("partition_count") int partitionCount,
+                                        @Param("partitions") List<Integer> partitions,
+                                        @Param("lane_subjects") List<String> laneSubjects,
+                                        @Param("lane_excluded") boolean laneExcluded,
+                                        @Param("locked_at") Instant lockedAt);
 
-  @NativeQuery(name = "Message.lockAllNextActive")
+  @NativeQuery(name = "Message.lockAllNextActiveInGroups")
   @Modifying
-  int lockAllNextActive(@Param("available_at") Instant availableAt,
-                        @Param("lock_id") UUID lockId,
-                        @Param("limit") int limit,
-                        @Param("max_attempt_count") int maxAttemptCount,
-                        @Param("locked_at") Instant lockedAt);
+  int lockAllNextActiveInGroups(@Param("available_at") Instant availableAt,
+                                @Param("lock_id") UUID lockId,
+                                @Param("group_ids") List<String> groupIds,
+                                @Param("group_limit") int groupLimit,
+                                @Param("max_attempt_count") int maxAttemptCount,
+                                @Param("locked_at") Instant lockedAt);
+
+  @NativeQuery(name = "MessageGroup.claimAllReady")
+  List<String> claimAllReadyGroups(@Param("limit") int limit,
+                                   @Param("partition_count") int partitionCount,
+                                   @Param("partitions") List<Integer> partitions,
+                                   @Param("locked_at") Instant lockedAt);
+
+  @NativeQuery(name = "MessageGroup.deferAll")
+  @Modifying
+  int deferAllGroups(@Param("group_ids") List<String> groupIds,
+                     @Param("available_at") Instant availableAt);
+
+  @NativeQuery(name = "MessageGroup.refreshAll")
+  @Modifying
+  int refreshAllGroups(@Param("group_ids") List<String> groupIds,
+                       @Param("max_attempt_count") int maxAttemptCount,
+                       @Param("deferred_until") Instant deferredUntil,
+                       @Param("locked_at") Instant lockedAt);
+
+  @NativeQuery(name = "MessageGroup.deleteAllEmpty")
+  @Modifying
+  int deleteAllEmptyGroups(@Param("group_ids") List<String> groupIds,
+                           @Param("updated_before") Instant updatedBefore);
+
+  @NativeQuery(name = "MessageGroup.touchAll")
+  @Modifying
+  int touchAllGroups(@Param("sequence_numbers") List<Long> sequenceNumbers,
+                     @Param("touched_at") Instant touchedAt,
+                     @Param("updated_at") Instant updatedAt);
+
+  @NativeQuery(name = "MessageGroup.mergeAll")
+  @Modifying
+  int mergeAllGroups(@Param("group_id") String groupId,
+                     @Param("merged_at") Instant mergedAt);
+
+  @NativeQuery(name = "MessageGroup.backfillPartitionKey")
+  @Modifying
+  int backfillGroupPartitionKey(@Param("group_id") String groupId,
+                                @Param("partition_key") int partitionKey);
+
+  @NativeQuery(name = "Message.peekAllPartitionBackfill")
+  List<String> peekAllPartitionBackfill(@Param("limit") int limit);
+
+  @NativeQuery(name = "Message.backfillPartitionKey")
+  @Modifying
+  int backfillPartitionKey(@Param("group_id") String groupId,
+                           @Param("partition_key") int partitionKey);
+
+  @NativeQuery(name = "Message.backfillDeadLetteredPartitionKey")
+  @Modifying
+  int backfillDeadLetteredPartitionKey(@Param("group_id") String groupId,
+                                       @Param("partition_key") int partitionKey);
+
+  @NativeQuery(name = "Message.deleteAllPartitionBackfill")
+  @Modifying
+  int deleteAllPartitionBackfill(@Param("group_ids") List<String> groupIds);
 
   @NativeQuery(name = "Message.lockAllNextFailed")
   @Modifying
@@ -50,12 +114,71 @@ public interface JpaMessageRepository extends JpaMessageSupport, Repository<Mess
                     @Param("lock_id") UUID lockId,
                     @Param("requeued_at") Instant requeuedAt);
 
+  @NativeQuery(name = "Message.extendAllLocked")
+  @Modifying
+  int extendAllLocked(@Param("lock_id") UUID lockId,
+                      @Param("available_at") Instant availableAt,
+                      @Param("extended_at") Instant extendedAt);
+
   @NativeQuery(name = "Message.requeueAllLocked")
   @Modifying
   int requeueAllLocked(@Param("sequence_numbers") List<Long> sequenceNumbers,
                        @Param("lock_id") UUID lockId,
                        @Param("requeued_at") Instant requeuedAt);
 
+  @NativeQuery(name = "Message.retryLocked")
+  @Modifying
+  int retryLocked(@Param("sequence_number") Long sequenceNumber,
+                  @Param("lock_id") UUID lockId,
+                  @Param("available_at") Instant availableAt,
+                  @Param("retried_at") Instant retriedAt);
+
+  @NativeQuery(name = "Message.releaseAllLocked")
+  @Modifying
+  int releaseAllLocked(@Param("sequence_numbers") List<Long> sequenceNumbers,
+                       @Param("lock_id") UUID lockId,
+                       @Param("released_at") Instant releasedAt);
+
+  @NativeQuery(name = "Message.deadLetterLocked")
+  @Modifying
+  int deadLetterLocked(@Param("sequence_number") Long sequenceNumber,
+                       @Param("lock_id") UUID lockId,
+                       @Param("dead_lettered_at") Instant deadLetteredAt);
+
+  @NativeQuery(name = "Message.dequeueAllDeadLettered")
+  @Modifying
+  int dequeueAllDeadLettered(@Param("sequence_number") Long sequenceNumber);
+
+  @NativeQuery(name = "Message.peekAllDeadLettered")
+  List<MessageHeader> peekAllDeadLettered(@Param("offset") long offset, @Param("limit") int limit);
+
+  @NativeQuery(name = "Message.replayAllDeadLettered")
+  @Modifying
+  int replayAllDeadLettered(@Param("group_id") String groupId,
+                            @Param("replayed_at") Instant replayedAt);
+
+  @NativeQuery(name = "Message.deleteAllReplayed")
+  @Modifying
+  int deleteAllReplayed();
+
+  @NativeQuery(name = "Message.deleteAllReplayedInGroup")
+  @Modifying
+  int deleteAllReplayedInGroup(@Param("group_id") String groupId);
+
+  @NativeQuery(name = "Message.deadLetterAllExhausted")
+  @Modifying
+  int deadLetterAllExhausted(@Param("max_attempt_count") int maxAttemptCount,
+                             @Param("partition_count") int partitionCount,
+                             @Param("partitions") List<Integer> partitions,
+                             @Param("dead_lettered_at") Instant deadLetteredAt);
+
+  @NativeQuery(name = "Message.dequeueAllExhausted")
+  @Modifying
+  int dequeueAllExhausted(@Param("max_attempt_count") int maxAttemptCount,
+                          @Param("partition_count") int partitionCount,
+                          @Param("partitions") List<Integer> partitions,
+                          @Param("dead_lettered_at") Instant deadLetteredAt);
+
   @NativeQuery(name = "Message.dequeueLocked")
   @Modifying
   int dequeueLocked(@Param("sequence_number") Long sequenceNumber,
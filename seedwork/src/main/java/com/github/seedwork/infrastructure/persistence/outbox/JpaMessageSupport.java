@@ -1,8 +1,40 @@
 package com.github.seedwork.infrastructure.persistence.outbox;
 
 import com.github.seedwork.infrastructure.outbox.Message;
+import com.github.seedwork.infrastructure.outbox.MessageFilter;
+import com.github.seedwork.infrastructure.outbox.MessageHeader;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
 
 public interface JpaMessageSupport {
 
   void enqueue(Message message);
+
+  void enqueueAll(List<Message> messages);
+
+  List<MessageHeader> peekAllAfter(Long afterSequenceNumber, MessageFilter filter, int maxAttemptCount, int limit);
+
+  int lockAllNextActive(Instant availableAt,
+                        UUID lockId,
+                        int limit,
+                        int groupLimit,
+                        int maxAttemptCount,
+                        int partitionCount,
+                        List<Integer> partitions,
+                        List<String> laneSubjects,
+                        boolean laneExcluded,
+                        Instant lockedAt);
+
+  List<Message> lockAllNextActiveReturning(Instant availableAt,
+                                           UUID lockId,
+                                           int limit,
+                                           int groupLimit,
+                                           int maxAttemptCount,
+                                           int partitionCount,
+                                           List<Integer> partitions,
+                                           List<String> laneSubjects,
+                                           boolean laneExcluded,
+                                           Instant lockedAt);
 }
@@ -1,20 +1,263 @@
 package com.github.seedwork.infrastructure.persistence.outbox;
 
 import com.github.seedwork.infrastructure.outbox.Message;
+import com.github.seedwork.infrastructure.outbox.MessageFilter;
+import com.github.seedwork.infrastructure.outbox.MessageHeader;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
 
 public class JpaMessageSupportImpl implements JpaMessageSupport {
 
+  // Both lock paths run this statement, so the RETURNING variant differs from the tested UPDATE only by its clause.
+  private static final String LOCK_ALL_NEXT_ACTIVE = """
+    UPDATE
+      outbox_message AS om
+    SET
+      available_at = :available_at,
+      lock_id = :lock_id,
+      attempt_count = attempt_count + 1
+    WHERE
+      om.sequence_number IN (
+        SELECT
+          omg.sequence_number
+        FROM (
+          SELECT
+            sequence_number,
+            ROW_NUMBER() OVER (PARTITION BY group_id ORDER BY sequence_number ASC) AS group_position
+          FROM
+            outbox_message
+          WHERE
+            group_id IN (
+              SELECT
+                omh.group_id
+              FROM
+                outbox_message AS omh
+              WHERE
+                omh.available_at <= :locked_at AND
+                omh.attempt_count < :max_attempt_count AND
+                MOD(omh.partition_key, :partition_count) IN (:partitions) AND
+                (omh.subject IN (:lane_subjects)) <> :lane_excluded AND
+                NOT EXISTS (
+                  SELECT
+                    1
+                  FROM
+                    outbox_message
+                  WHERE
+                    sequence_number < omh.sequence_number AND
+                    group_id = omh.group_id) AND
+                omh.group_id NOT IN (
+                  SELECT
+                    group_id
+                  FROM
+                    outbox_dead_letter)
+              ORDER BY
+                omh.sequence_number ASC
+              FETCH FIRST :limit ROWS ONLY)) AS omg
+        WHERE
+          omg.group_position <= :group_limit) AND
+      om.available_at <= :locked_at AND
+      om.attempt_count < :max_attempt_count AND
+      NOT EXISTS (
+        SELECT
+          1
+        FROM
+          outbox_message
+        WHERE
+          sequence_number < om.sequence_number AND
+          group_id = om.group_id AND (
+            available_at > :locked_at OR
+            attempt_count >= :max_attempt_count))
+    """;
+  private static final String RETURNING_MESSAGE = """
+    RETURNING
+      om.sequence_number,
+      om.group_id,
+      om.partition_key,
+      om.enqueued_at,
+      om.available_at,
+      om.lock_id,
+      om.attempt_count,
+      om.subject,
+      om.body
+    """;
+
   private final EntityManager entityManager;
+  private final boolean groupTracking;
 
-  public JpaMessageSupportImpl(final EntityManager entityManager) {
+  public JpaMessageSupportImpl(final EntityManager entityManager, final boolean groupTracking) {
     this.entityManager = Objects.requireNonNull(entityManager);
+    this.groupTracking = groupTracking;
+  }
+
+  private void mergeGroup(final Message message) {
+    if (!groupTracking) {
+      return;
+    }
+    entityManager.createNamedQuery("MessageGroup.merge")
+      .setParameter("group_id", message.groupId())
+      .setParameter("partition_key", message.partitionKey())
+      .setParameter("merged_at", message.availableAt())
+      .setParameter("updated_at", message.enqueuedAt())
+      .executeUpdate();
   }
 
   @Override
   public void enqueue(final Message message) {
     entityManager.persist(message);
+    mergeGroup(message);
+  }
+
+  @Override
+  public void enqueueAll(final List<Message> messages) {
+    if (messages.isEmpty()) {
+      return;
+    }
+    messages.forEach(entityManager::persist);
+    mergeGroup(messages.getFirst());
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<MessageHeader> peekAllAfter(final Long afterSequenceNumber,
+                                          final MessageFilter filter,
+                                          final int maxAttemptCount,
+                                          final int limit) {
+    // Only the requested predicates are rendered, as optional "IS NULL OR" predicates keep the planner off the indexes.
+    final var predicates = new ArrayList<String>();
+    final var parameters = new LinkedHashMap<String, Object>();
+
+    if (afterSequenceNumber != null) {
+      predicates.add("om.sequence_number > :after_sequence_number");
+      parameters.put("after_sequence_number", afterSequenceNumber);
+    }
+    if (filter.groupId() != null) {
+      predicates.add("om.group_id = :group_id");
+      parameters.put("group_id", filter.groupId());
+    }
+    if (filter.subject() != null) {
+      predicates.add("om.subject = :subject");
+      parameters.put("subject", filter.subject());
+    }
+    if (filter.failedOnly()) {
+      predicates.add("om.attempt_count >= :max_attempt_count");
+      parameters.put("max_attempt_count", maxAttemptCount);
+    }
+    final var sql = new StringBuilder("""
+      SELECT
+        om.sequence_number,
+        om.group_id,
+        om.enqueued_at,
+        om.available_at,
+        om.lock_id,
+        om.attempt_count,
+        om.subject
+      FROM
+        outbox_message AS om
+      """);
+
+    if (!predicates.isEmpty()) {
+      sql.append("WHERE\n  ")
+        .append(String.join(" AND\n  ", predicates))
+        .append("\n");
+    }
+    sql.append("""
+      ORDER BY
+        om.sequence_number ASC
+      FETCH FIRST :limit ROWS ONLY
+      """);
+    final var query = entityManager.createNativeQuery(sql.toString(), "MessageHeader");
+
+    parameters.forEach(query::setParameter);
+    query.setParameter("limit", limit);
+
+    return query.getResultList();
+  }
+
+  private static Query setLockParameters(final Query query,
+                                         final Instant availableAt,
+                                         final UUID lockId,
+                                         final int limit,
+                                         final int groupLimit,
+                                         final int maxAttemptCount,
+                                         final int partitionCount,
+                                         final List<Integer> partitions,
+                                         final List<String> laneSubjects,
+                                         final boolean laneExcluded,
+                                         final Instant lockedAt) {
+    return query
+      .setParameter("available_at", availableAt)
+      .setParameter("lock_id", lockId)
+      .setParameter("limit", limit)
+      .setParameter("group_limit", groupLimit)
+      .setParameter("max_attempt_count", maxAttemptCount)
+      .setParameter("partition_count", partitionCount)
+      .setParameter("partitions", partitions)
+      .setParameter("lane_subjects", laneSubjects)
+      .setParameter("lane_excluded", laneExcluded)
+      .setParameter("locked_at", lockedAt);
+  }
+
+  @Override
+  public int lockAllNextActive(final Instant availableAt,
+                               final UUID lockId,
+                               final int limit,
+                               final int groupLimit,
+                               final int maxAttemptCount,
+                               final int partitionCount,
+                               final List<Integer> partitions,
+                               final List<String> laneSubjects,
+                               final boolean laneExcluded,
+                               final Instant lockedAt) {
+    final var query = entityManager.createNativeQuery(LOCK_ALL_NEXT_ACTIVE);
+
+    return setLockParameters(
+      query,
+      availableAt,
+      lockId,
+      limit,
+      groupLimit,
+      maxAttemptCount,
+      partitionCount,
+      partitions,
+      laneSubjects,
+      laneExcluded,
+      lockedAt)
+      .executeUpdate();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<Message> lockAllNextActiveReturning(final Instant availableAt,
+                                                  final UUID lockId,
+                                                  final int limit,
+                                                  final int groupLimit,
+                                                  final int maxAttemptCount,
+                                                  final int partitionCount,
+                                                  final List<Integer> partitions,
+                                                  final List<String> laneSubjects,
+                                                  final boolean laneExcluded,
+                                                  final Instant lockedAt) {
+    final var query = entityManager.createNativeQuery(LOCK_ALL_NEXT_ACTIVE + RETURNING_MESSAGE, "Message");
+
+    return setLockParameters(
+      query,
+      availableAt,
+      lockId,
+      limit,
+      groupLimit,
+      maxAttemptCount,
+      partitionCount,
+      partitions,
+      laneSubjects,
+      laneExcluded,
+      lockedAt)
+      .getResultList();
   }
 }
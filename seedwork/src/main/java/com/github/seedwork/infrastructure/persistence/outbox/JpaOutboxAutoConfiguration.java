@@ -1,30 +1,85 @@
 package com.github.seedwork.infrastructure.persistence.outbox;
 
+import com.github.seedwork.infrastructure.outbox.LockStrategy;
 import com.github.seedwork.infrastructure.outbox.OutboxAutoConfiguration;
+import com.github.seedwork.infrastructure.outbox.OutboxMetrics;
 import com.github.seedwork.infrastructure.outbox.OutboxProperties;
 import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.data.jpa.autoconfigure.DataJpaRepositoriesAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
 
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
 import java.time.Clock;
 
 @AutoConfiguration
 @AutoConfigureAfter({DataJpaRepositoriesAutoConfiguration.class, OutboxAutoConfiguration.class})
 @ConditionalOnBean(OutboxProperties.class)
 @ConditionalOnClass(EntityManager.class)
+@ConditionalOnProperty(prefix = "outbox", name = "store", havingValue = "jpa", matchIfMissing = true)
 public class JpaOutboxAutoConfiguration {
 
+  private static final int PARTITION_BACKFILL_LIMIT = 100;
+
+  static boolean supportsUpdateReturning(final DataSource dataSource) {
+    try {
+      final var databaseProductName = JdbcUtils.extractDatabaseMetaData(
+        dataSource,
+        DatabaseMetaData::getDatabaseProductName);
+
+      return "PostgreSQL".equals(JdbcUtils.commonDatabaseName(databaseProductName));
+    } catch (final MetaDataAccessException e) {
+      return false;
+    }
+  }
+
   @Bean
   public JpaMessageConsumer jpaMessageConsumer(final OutboxProperties properties,
                                                final JpaMessageRepository messageRepository,
-                                               final Clock clock) {
-    return new JpaMessageConsumer(messageRepository, clock, properties.lockDuration(), properties.maxAttemptCount());
+                                               final Clock clock,
+                                               final ObjectProvider<OutboxMetrics> outboxMetrics,
+                                               final ObjectProvider<DataSource> dataSources) {
+    final var dataSource = dataSources.getIfUnique();
+    final var lockReturning = (dataSource != null) && supportsUpdateReturning(dataSource);
+
+    return new JpaMessageConsumer(messageRepository,
+      clock,
+      properties.lockDuration(),
+      properties.maxAttemptCount(),
+      outboxMetrics.getIfAvailable(OutboxMetrics::noop),
+      properties.lockStrategy(),
+      lockReturning);
+  }
+
+  @Bean
+  public ApplicationRunner jpaMessageGroupInitializer(final OutboxProperties properties,
+                                                     final JpaMessageConsumer messageConsumer) {
+    return args -> {
+      // Only polling nodes wait on held back or untracked groups, so web nodes start without the table scans.
+      if (!properties.isPollerEnabled()) {
+        return;
+      }
+      int backfillCount;
+
+      // Each batch commits on its own, and all run before merging so merged groups take the backfilled keys.
+      do {
+        backfillCount = messageConsumer.backfillPartitionKeys(PARTITION_BACKFILL_LIMIT);
+      } while (backfillCount > 0);
+      if (properties.lockStrategy() == LockStrategy.GROUP_HEAD) {
+        messageConsumer.mergeAllGroups();
+      }
+    };
   }
 
   @Bean
@@ -33,11 +88,34 @@ public class JpaOutboxAutoConfiguration {
     return new JpaMessageProducer(messageRepository, clock);
   }
 
+  @Bean
+  public JpaPartitionLeaseManager jpaPartitionLeaseManager(final OutboxProperties properties,
+                                                           final JpaPartitionLeaseRepository partitionLeaseRepository,
+                                                           final Clock clock) {
+    return new JpaPartitionLeaseManager(partitionLeaseRepository,
+      clock,
+      properties.partitionLeaseDuration(),
+      properties.partitionCount(),
+      properties.maxPollers());
+  }
+
   @Bean
   @ConditionalOnMissingBean(JpaMessageRepository.class)
-  public JpaMessageRepository jpaMessageRepository(final EntityManager entityManager) {
+  public JpaMessageRepository jpaMessageRepository(final OutboxProperties properties,
+                                                   final EntityManager entityManager) {
+    final var repositoryFactory = new JpaRepositoryFactory(entityManager);
+    final var groupTracking = properties.lockStrategy() == LockStrategy.GROUP_HEAD;
+
+    return repositoryFactory.getRepository(
+      JpaMessageRepository.class,
+      new JpaMessageSupportImpl(entityManager, groupTracking));
+  }
+
+  @Bean
+  @ConditionalOnMissingBean(JpaPartitionLeaseRepository.class)
+  public JpaPartitionLeaseRepository jpaPartitionLeaseRepository(final EntityManager entityManager) {
     final var repositoryFactory = new JpaRepositoryFactory(entityManager);
 
-    return repositoryFactory.getRepository(JpaMessageRepository.class, new JpaMessageSupportImpl(entityManager));
+    return repositoryFactory.getRepository(JpaPartitionLeaseRepository.class);
   }
 }
@@ -0,0 +1,115 @@
+package com.github.seedwork.infrastructure.persistence.outbox;
+
+import com.github.seedwork.infrastructure.outbox.PartitionLeaseManager;
+import com.github.seedwork.infrastructure.outbox.Partitions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+@Transactional
+public class JpaPartitionLeaseManager implements PartitionLeaseManager {
+
+  private final JpaPartitionLeaseRepository repository;
+  private final Clock clock;
+  private final Duration leaseDuration;
+  private final int partitionCount;
+  private final int maxPollers;
+
+  public JpaPartitionLeaseManager(final JpaPartitionLeaseRepository repository,
+                                  final Clock clock,
+                                  final Duration leaseDuration,
+                                  final int partitionCount) {
+    this(repository, clock, leaseDuration, partitionCount, 0);
+  }
+
+  public JpaPartitionLeaseManager(final JpaPartitionLeaseRepository repository,
+                                  final Clock clock,
+                                  final Duration leaseDuration,
+                                  final int partitionCount,
+                                  final int maxPollers) {
+    this.repository = Objects.requireNonNull(repository);
+    this.clock = Objects.requireNonNull(clock);
+    this.leaseDuration = Objects.requireNonNull(leaseDuration);
+    this.partitionCount = partitionCount;
+    this.maxPollers = maxPollers;
+  }
+
+  private void registerNode(final UUID nodeId, final Instant registeredAt, final Instant expiresAt) {
+    if (repository.renewNode(nodeId, expiresAt) == 0) {
+      repository.registerNode(nodeId, registeredAt, expiresAt);
+    }
+  }
+
+  private void createPartitions(final Instant createdAt) {
+    if (repository.countPartitions(partitionCount) == partitionCount) {
+      return;
+    }
+    for (var partitionNumber = 0; partitionNumber < partitionCount; partitionNumber++) {
+      repository.createPartition(partitionNumber, createdAt);
+    }
+  }
+
+  private List<UUID> electedNodeIds(final Instant electedAt) {
+    final var nodeIds = repository.findAllNodeIds(electedAt);
+
+    // Nodes are ordered by registration, so the longest-lived nodes keep polling while newer ones stand by.
+    if ((maxPollers > 0) && (nodeIds.size() > maxPollers)) {
+      return nodeIds.subList(0, maxPollers);
+    }
+
+    return nodeIds;
+  }
+
+  private List<Integer> assignedPartitions(final UUID nodeId, final Instant assignedAt) {
+    final var nodeIds = electedNodeIds(assignedAt);
+    final var nodeIndex = nodeIds.indexOf(nodeId);
+
+    if (nodeIndex < 0) {
+      return List.of();
+    }
+
+    return IntStream.range(0, partitionCount)
+      .filter(p -> p % nodeIds.size() == nodeIndex)
+      .boxed()
+      .toList();
+  }
+
+  private void releasePartitions(final UUID nodeId, final List<Integer> keptPartitions, final Instant releasedAt) {
+    if (keptPartitions.isEmpty()) {
+      repository.releaseAll(nodeId, releasedAt);
+    } else {
+      repository.releaseAllExcept(keptPartitions, nodeId, releasedAt);
+    }
+  }
+
+  @Override
+  public Partitions renewLeases(final UUID nodeId) {
+    final var renewedAt = clock.instant();
+    final var leasedUntil = renewedAt.plus(leaseDuration);
+
+    registerNode(nodeId, renewedAt, leasedUntil);
+    repository.unregisterAllExpiredNodes(renewedAt);
+    createPartitions(renewedAt);
+    final var assignedPartitions = assignedPartitions(nodeId, renewedAt);
+
+    releasePartitions(nodeId, assignedPartitions, renewedAt);
+    if (!assignedPartitions.isEmpty()) {
+      repository.acquireAll(assignedPartitions, nodeId, leasedUntil, renewedAt);
+    }
+    final var leasedPartitions = repository.findAllLeased(nodeId, partitionCount, renewedAt);
+
+    return new Partitions(partitionCount, leasedPartitions);
+  }
+
+  @Override
+  public void releaseLeases(final UUID nodeId) {
+    repository.releaseAll(nodeId, clock.instant());
+    repository.unregisterNode(nodeId);
+  }
+}
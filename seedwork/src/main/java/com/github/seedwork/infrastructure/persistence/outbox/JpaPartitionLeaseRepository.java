@@ -0,0 +1,67 @@
+package com.github.seedwork.infrastructure.persistence.outbox;
+
+import com.github.seedwork.infrastructure.outbox.PartitionLease;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface JpaPartitionLeaseRepository extends Repository<PartitionLease, Integer> {
+
+  @NativeQuery(name = "PartitionLease.registerNode")
+  @Modifying
+  int registerNode(@Param("node_id") UUID nodeId,
+                   @Param("registered_at") Instant registeredAt,
+                   @Param("expires_at") Instant expiresAt);
+
+  @NativeQuery(name = "PartitionLease.renewNode")
+  @Modifying
+  int renewNode(@Param("node_id") UUID nodeId,
+                @Param("expires_at") Instant expiresAt);
+
+  @NativeQuery(name = "PartitionLease.unregisterNode")
+  @Modifying
+  int unregisterNode(@Param("node_id") UUID nodeId);
+
+  @NativeQuery(name = "PartitionLease.unregisterAllExpiredNodes")
+  @Modifying
+  int unregisterAllExpiredNodes(@Param("expired_at") Instant expiredAt);
+
+  @NativeQuery(name = "PartitionLease.findAllNodeIds")
+  List<UUID> findAllNodeIds(@Param("found_at") Instant foundAt);
+
+  @NativeQuery(name = "PartitionLease.countPartitions")
+  long countPartitions(@Param("partition_count") int partitionCount);
+
+  @NativeQuery(name = "PartitionLease.createPartition")
+  @Modifying
+  int createPartition(@Param("partition_number") int partitionNumber,
+                      @Param("created_at") Instant createdAt);
+
+  @NativeQuery(name = "PartitionLease.acquireAll")
+  @Modifying
+  int acquireAll(@Param("partition_numbers") List<Integer> partitionNumbers,
+                 @Param("owner_id") UUID ownerId,
+                 @Param("leased_until") Instant leasedUntil,
+                 @Param("acquired_at") Instant acquiredAt);
+
+  @NativeQuery(name = "PartitionLease.releaseAll")
+  @Modifying
+  int releaseAll(@Param("owner_id") UUID ownerId,
+                 @Param("released_at") Instant releasedAt);
+
+  @NativeQuery(name = "PartitionLease.releaseAllExcept")
+  @Modifying
+  int releaseAllExcept(@Param("partition_numbers") List<Integer> partitionNumbers,
+                       @Param("owner_id") UUID ownerId,
+                       @Param("released_at") Instant releasedAt);
+
+  @NativeQuery(name = "PartitionLease.findAllLeased")
+  List<Integer> findAllLeased(@Param("owner_id") UUID ownerId,
+                              @Param("partition_count") int partitionCount,
+                              @Param("found_at") Instant foundAt);
+}
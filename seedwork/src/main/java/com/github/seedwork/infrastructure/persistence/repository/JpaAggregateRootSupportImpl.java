@@ -28,7 +28,7 @@ public class JpaAggregateRootSupportImpl implements JpaAggregateRootSupport {
   private void publishEvents(final String aggregateId, final AggregateRoot aggregateRoot) {
     final var groupId = "%s:%s".formatted(aggregateRoot.getClass().getSimpleName(), aggregateId);
 
-    aggregateRoot.dispatchEvents(e -> eventPublisher.publishEvent(groupId, e));
+    aggregateRoot.dispatchAllEvents(es -> eventPublisher.publishEvents(groupId, es));
   }
 
   @Override
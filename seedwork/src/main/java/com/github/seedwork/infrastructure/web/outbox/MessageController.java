@@ -1,9 +1,12 @@
 package com.github.seedwork.infrastructure.web.outbox;
 
 import com.github.seedwork.infrastructure.outbox.MessageConsumer;
+import com.github.seedwork.infrastructure.outbox.MessageFilter;
 import com.github.seedwork.infrastructure.web.outbox.representation.LockNextMessagesResponse;
+import com.github.seedwork.infrastructure.web.outbox.representation.PeekDeadLettersResponse;
 import com.github.seedwork.infrastructure.web.outbox.representation.PeekMessageResponse;
 import com.github.seedwork.infrastructure.web.outbox.representation.PeekMessagesResponse;
+import com.github.seedwork.infrastructure.web.outbox.representation.ReplayDeadLettersResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
@@ -31,9 +34,14 @@ public class MessageController implements MessageOperations {
   }
 
   @Override
-  public ResponseEntity<PeekMessagesResponse> peekMessages(final Long offset, final Integer limit) {
-    final var messages = messageConsumer.peekAll(offset, limit);
-    final var body = messageMapper.toPeekMessagesResponse(messages);
+  public ResponseEntity<PeekMessagesResponse> peekMessages(final Long after,
+                                                           final String groupId,
+                                                           final String subject,
+                                                           final Boolean failed,
+                                                           final Integer limit) {
+    final var filter = new MessageFilter(groupId, subject, Boolean.TRUE.equals(failed));
+    final var messages = messageConsumer.peekAllAfter(after, filter, limit);
+    final var body = messageMapper.toPeekMessagesResponse(messages, limit);
 
     return ResponseEntity.ok(body);
   }
@@ -63,4 +71,20 @@ public class MessageController implements MessageOperations {
     return ResponseEntity.noContent()
       .build();
   }
+
+  @Override
+  public ResponseEntity<PeekDeadLettersResponse> peekDeadLetters(final Long offset, final Integer limit) {
+    final var messages = messageConsumer.peekAllDeadLettered(offset, limit);
+    final var body = messageMapper.toPeekDeadLettersResponse(messages);
+
+    return ResponseEntity.ok(body);
+  }
+
+  @Override
+  public ResponseEntity<ReplayDeadLettersResponse> replayDeadLetters(final String groupId) {
+    final var replayedCount = messageConsumer.replayAllDeadLettered(groupId);
+    final var body = messageMapper.toReplayDeadLettersResponse(replayedCount);
+
+    return ResponseEntity.ok(body);
+  }
 }
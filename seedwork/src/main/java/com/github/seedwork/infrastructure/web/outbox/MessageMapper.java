@@ -1,25 +1,28 @@
 package com.github.seedwork.infrastructure.web.outbox;
 
 import com.github.seedwork.infrastructure.outbox.Message;
+import com.github.seedwork.infrastructure.outbox.MessageHeader;
 import com.github.seedwork.infrastructure.web.outbox.representation.LockNextMessagesResponse;
 import com.github.seedwork.infrastructure.web.outbox.representation.MessageSummary;
+import com.github.seedwork.infrastructure.web.outbox.representation.PeekDeadLettersResponse;
 import com.github.seedwork.infrastructure.web.outbox.representation.PeekMessageResponse;
 import com.github.seedwork.infrastructure.web.outbox.representation.PeekMessagesResponse;
+import com.github.seedwork.infrastructure.web.outbox.representation.ReplayDeadLettersResponse;
 
 import java.util.List;
 import java.util.UUID;
 
 public class MessageMapper {
 
-  private List<MessageSummary> toMessageSummaries(final List<Message> messages) {
-    return messages.stream()
-      .map(m -> new MessageSummary()
-        .sequenceNumber(m.sequenceNumber())
-        .groupId(m.groupId())
-        .enqueuedAt(m.enqueuedAt())
-        .availableAt(m.availableAt())
-        .attemptCount(m.attemptCount())
-        .subject(m.subject()))
+  private List<MessageSummary> toMessageSummaries(final List<MessageHeader> messageHeaders) {
+    return messageHeaders.stream()
+      .map(h -> new MessageSummary()
+        .sequenceNumber(h.sequenceNumber())
+        .groupId(h.groupId())
+        .enqueuedAt(h.enqueuedAt())
+        .availableAt(h.availableAt())
+        .attemptCount(h.attemptCount())
+        .subject(h.subject()))
       .toList();
   }
 
@@ -33,14 +36,27 @@ public class MessageMapper {
       .subject(message.subject());
   }
 
-  public PeekMessagesResponse toPeekMessagesResponse(final List<Message> messages) {
+  public PeekMessagesResponse toPeekMessagesResponse(final List<MessageHeader> messageHeaders, final int limit) {
+    final var after = (messageHeaders.size() < limit) ? null : messageHeaders.getLast().sequenceNumber();
+
     return new PeekMessagesResponse()
-      .messages(toMessageSummaries(messages));
+      .messages(toMessageSummaries(messageHeaders))
+      .after(after);
   }
 
   public LockNextMessagesResponse toLockNextMessagesResponse(final UUID lockId, final List<Message> messages) {
     return new LockNextMessagesResponse()
       .lockId(lockId)
-      .messages(toMessageSummaries(messages));
+      .messages(toMessageSummaries(messages.stream().map(Message::header).toList()));
+  }
+
+  public PeekDeadLettersResponse toPeekDeadLettersResponse(final List<MessageHeader> messageHeaders) {
+    return new PeekDeadLettersResponse()
+      .messages(toMessageSummaries(messageHeaders));
+  }
+
+  public ReplayDeadLettersResponse toReplayDeadLettersResponse(final int replayedCount) {
+    return new ReplayDeadLettersResponse()
+      .replayedCount(replayedCount);
   }
 }
@@ -0,0 +1,23 @@
+ALTER TABLE outbox_message
+  ADD COLUMN partition_key INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE outbox_node
+(
+  node_id    UUID      NOT NULL,
+  expires_at TIMESTAMP NOT NULL,
+  CONSTRAINT outbox_node_pk PRIMARY KEY (node_id)
+);
+
+CREATE INDEX outbox_node_expires_at_i
+  ON outbox_node (expires_at);
+
+CREATE TABLE outbox_partition_lease
+(
+  partition_number INTEGER   NOT NULL,
+  owner_id         UUID,
+  leased_until     TIMESTAMP NOT NULL,
+  CONSTRAINT outbox_partition_lease_pk PRIMARY KEY (partition_number)
+);
+
+CREATE INDEX outbox_partition_lease_owner_id_leased_until_i
+  ON outbox_partition_lease (owner_id, leased_until);
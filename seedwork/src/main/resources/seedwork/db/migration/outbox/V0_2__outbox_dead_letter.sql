@@ -0,0 +1,20 @@
+CREATE TABLE outbox_dead_letter
+(
+  sequence_number  BIGINT    NOT NULL,
+  group_id         TEXT      NOT NULL,
+  partition_key    INTEGER   NOT NULL,
+  enqueued_at      TIMESTAMP NOT NULL,
+  available_at     TIMESTAMP NOT NULL,
+  lock_id          UUID,
+  attempt_count    INTEGER   NOT NULL,
+  subject          TEXT      NOT NULL,
+  body             BYTEA     NOT NULL,
+  dead_lettered_at TIMESTAMP NOT NULL,
+  CONSTRAINT outbox_dead_letter_pk PRIMARY KEY (sequence_number)
+);
+
+CREATE INDEX outbox_dead_letter_group_id_sequence_number_i
+  ON outbox_dead_letter (group_id, sequence_number);
+
+CREATE INDEX outbox_dead_letter_dead_lettered_at_i
+  ON outbox_dead_letter (dead_lettered_at);
@@ -0,0 +1,2 @@
+CREATE INDEX outbox_message_subject_sequence_number_i
+  ON outbox_message (subject, sequence_number);
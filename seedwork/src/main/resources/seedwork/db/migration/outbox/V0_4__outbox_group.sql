@@ -0,0 +1,26 @@
+CREATE TABLE outbox_group
+(
+  group_id      TEXT      NOT NULL,
+  partition_key INTEGER   NOT NULL,
+  available_at  TIMESTAMP NOT NULL,
+  updated_at    TIMESTAMP NOT NULL,
+  CONSTRAINT outbox_group_pk PRIMARY KEY (group_id)
+);
+
+CREATE INDEX outbox_group_available_at_i
+  ON outbox_group (available_at);
+
+INSERT INTO outbox_group (
+  group_id,
+  partition_key,
+  available_at,
+  updated_at)
+SELECT
+  group_id,
+  MIN(partition_key),
+  MIN(available_at),
+  MAX(enqueued_at)
+FROM
+  outbox_message
+GROUP BY
+  group_id;
@@ -0,0 +1,2 @@
+ALTER TABLE outbox_node
+  ADD COLUMN registered_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
@@ -0,0 +1,50 @@
+CREATE TABLE outbox_partition_backfill
+(
+  group_id TEXT NOT NULL,
+  CONSTRAINT outbox_partition_backfill_pk PRIMARY KEY (group_id)
+);
+
+INSERT INTO outbox_partition_backfill (
+  group_id)
+SELECT
+  group_id
+FROM
+  outbox_message
+WHERE
+  partition_key = 0
+UNION
+SELECT
+  group_id
+FROM
+  outbox_dead_letter
+WHERE
+  partition_key = 0
+UNION
+SELECT
+  group_id
+FROM
+  outbox_group
+WHERE
+  partition_key = 0;
+
+-- A negative key matches no partition, so these rows wait until the application backfills their key.
+UPDATE
+  outbox_message
+SET
+  partition_key = -1
+WHERE
+  partition_key = 0;
+
+UPDATE
+  outbox_dead_letter
+SET
+  partition_key = -1
+WHERE
+  partition_key = 0;
+
+UPDATE
+  outbox_group
+SET
+  partition_key = -1
+WHERE
+  partition_key = 0;
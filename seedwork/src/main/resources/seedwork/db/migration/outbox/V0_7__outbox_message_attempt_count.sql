@@ -0,0 +1,2 @@
+CREATE INDEX outbox_message_attempt_count_sequence_number_i
+  ON outbox_message (attempt_count, sequence_number);
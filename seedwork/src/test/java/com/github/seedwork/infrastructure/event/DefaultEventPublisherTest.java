@@ -4,10 +4,17 @@ import com.github.seedwork.domain.TestEvent;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class DefaultEventPublisherTest {
 
+  private static final Clock CLOCK = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+
   @Test
   void publishEventShouldPublishEvent() {
     // Arrange
@@ -16,7 +23,7 @@ class DefaultEventPublisherTest {
     doNothing()
       .when(applicationEventPublisher)
       .publishEvent(any(Object.class));
-    final var defaultEventPublisher = new DefaultEventPublisher(applicationEventPublisher);
+    final var defaultEventPublisher = new DefaultEventPublisher(applicationEventPublisher, CLOCK);
 
     // Act
     defaultEventPublisher.publishEvent("A", new TestEvent());
@@ -25,4 +32,37 @@ class DefaultEventPublisherTest {
     verify(applicationEventPublisher, times(1))
       .publishEvent(isA(TestEvent.class));
   }
+
+  @Test
+  void scheduleEventWithDueAvailableAtShouldPublishEvent() {
+    // Arrange
+    final var applicationEventPublisher = mock(ApplicationEventPublisher.class);
+
+    doNothing()
+      .when(applicationEventPublisher)
+      .publishEvent(any(Object.class));
+    final var defaultEventPublisher = new DefaultEventPublisher(applicationEventPublisher, CLOCK);
+
+    // Act
+    defaultEventPublisher.scheduleEvent("A", new TestEvent(), Instant.EPOCH);
+
+    // Assert
+    verify(applicationEventPublisher, times(1))
+      .publishEvent(isA(TestEvent.class));
+  }
+
+  @Test
+  void scheduleEventWithFutureAvailableAtShouldThrowUnsupportedOperationException() {
+    // Arrange
+    final var applicationEventPublisher = mock(ApplicationEventPublisher.class);
+    final var defaultEventPublisher = new DefaultEventPublisher(applicationEventPublisher, CLOCK);
+
+    // Act
+    // Assert
+    assertThrows(
+      UnsupportedOperationException.class,
+      () -> defaultEventPublisher.scheduleEvent("A", new TestEvent(), Instant.EPOCH.plusMillis(100L)));
+    verify(applicationEventPublisher, never())
+      .publishEvent(any(Object.class));
+  }
 }
@@ -0,0 +1,282 @@
+package com.github.seedwork.infrastructure.journal.outbox;
+
+import com.github.seedwork.infrastructure.memory.outbox.InMemoryMessageConsumer;
+import com.github.seedwork.infrastructure.memory.outbox.InMemoryMessageProducer;
+import com.github.seedwork.infrastructure.outbox.Message;
+import com.github.seedwork.infrastructure.outbox.MessageFilter;
+import com.github.seedwork.infrastructure.outbox.MessageHeader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalMessageStoreTest {
+
+  private static final Clock CLOCK = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+
+  @TempDir
+  private Path directory;
+
+  @Test
+  void recoverShouldRestoreUnacknowledgedMessages() {
+    // Arrange
+    try (final var store = JournalMessageStore.open(directory, 1024)) {
+      final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+      final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+      messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[]{0x01});
+      messageProducer.enqueue("00000000-0000-0000-0000-000000000001", "TestEvent", new byte[]{0x02});
+      final var lockId = UUID.randomUUID();
+
+      messageConsumer.lockAllNextActive(lockId, 1);
+      messageConsumer.dequeueLocked(1L, lockId);
+    }
+
+    // Act
+    try (final var store = JournalMessageStore.open(directory, 1024)) {
+      final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+      // Assert
+      final var messages = messageConsumer.peekAllAfter(null, MessageFilter.none(), 10);
+
+      assertEquals(List.of(2L), messages.stream().map(MessageHeader::sequenceNumber).toList());
+      assertArrayEquals(new byte[]{0x02}, messageConsumer.peek(2L).body());
+      assertEquals(3L, store.nextSequenceNumber());
+    }
+  }
+
+  @Test
+  void acknowledgeShouldDeleteAcknowledgedSegments() throws Exception {
+    // Arrange
+    try (final var store = JournalMessageStore.open(directory, 160)) {
+      final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+      final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+      for (var i = 0; i < 4; i++) {
+        messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[32]);
+      }
+      final var lockId = UUID.randomUUID();
+
+      // Act
+      for (var i = 0; i < 3; i++) {
+        final var message = messageConsumer.lockAllNextActive(lockId, 1).getFirst();
+
+        messageConsumer.dequeueLocked(message.sequenceNumber(), lockId);
+      }
+
+      // Assert
+      try (final var files = Files.list(directory)) {
+        assertEquals(1L, files.filter(f -> f.toString().endsWith(".segment")).count());
+      }
+    }
+  }
+
+  @Test
+  void recoverWithVersion0SegmentShouldRestoreMessages() throws Exception {
+    // Arrange
+    final var groupId = "00000000-0000-0000-0000-000000000000".getBytes(StandardCharsets.UTF_8);
+    final var subject = "TestEvent".getBytes(StandardCharsets.UTF_8);
+    final var segment = ByteBuffer.allocate(1024)
+      .putLong(0L)
+      .putInt((2 * Long.BYTES) + Integer.BYTES + Short.BYTES + groupId.length + Short.BYTES + subject.length + Integer.BYTES + 1)
+      .putLong(1L)
+      .putLong(60L)
+      .putInt(0)
+      .putShort((short) groupId.length)
+      .put(groupId)
+      .putShort((short) subject.length)
+      .put(subject)
+      .putInt(1)
+      .put((byte) 0x01);
+
+    Files.write(directory.resolve("%020d.segment".formatted(0L)), segment.array());
+    try (final var store = JournalMessageStore.open(directory, 1024)) {
+      final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+
+      messageProducer.enqueue("00000000-0000-0000-0000-000000000001", "TestEvent", new byte[]{0x02}, Instant.EPOCH.plusSeconds(120L));
+    }
+
+    // Act
+    try (final var store = JournalMessageStore.open(directory, 1024)) {
+      final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+      // Assert
+      final var message1 = messageConsumer.peek(1L);
+      final var message2 = messageConsumer.peek(2L);
+
+      assertNotNull(message1);
+      assertEquals(Instant.EPOCH.plusSeconds(60L), message1.availableAt());
+      assertArrayEquals(new byte[]{0x01}, message1.body());
+      assertNotNull(message2);
+      assertEquals(Instant.EPOCH.plusSeconds(120L), message2.availableAt());
+      assertArrayEquals(new byte[]{0x02}, message2.body());
+    }
+  }
+
+  @Test
+  void recoverWithDeadLetteredMessageShouldRestoreDeadLetter() {
+    // Arrange
+    try (final var store = JournalMessageStore.open(directory, 1024)) {
+      final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+      final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+      messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[]{0x01});
+      final var lockId = UUID.randomUUID();
+
+      messageConsumer.lockAllNextActive(lockId, 1);
+      messageConsumer.deadLetterLocked(1L, lockId);
+    }
+
+    // Act
+    try (final var store = JournalMessageStore.open(directory, 1024)) {
+      final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+      // Assert
+      final var messageCounts = messageConsumer.count();
+
+      assertEquals(0, messageCounts.activeCount());
+      assertEquals(1, messageCounts.deadLetteredCount());
+      assertEquals(List.of(1L), messageConsumer.peekAllDeadLettered(0L, 10).stream().map(MessageHeader::sequenceNumber).toList());
+      assertTrue(messageConsumer.lockAllNextActive(UUID.randomUUID(), 10).isEmpty());
+    }
+  }
+
+  @Test
+  void recoverWithReplayedMessageShouldRestoreMessage() {
+    // Arrange
+    try (final var store = JournalMessageStore.open(directory, 1024)) {
+      final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+      final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+      messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[]{0x01});
+      final var lockId = UUID.randomUUID();
+
+      messageConsumer.lockAllNextActive(lockId, 1);
+      messageConsumer.deadLetterLocked(1L, lockId);
+      messageConsumer.replayAllDeadLettered(null);
+    }
+
+    // Act
+    try (final var store = JournalMessageStore.open(directory, 1024)) {
+      final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+      // Assert
+      final var messageCounts = messageConsumer.count();
+
+      assertEquals(1, messageCounts.activeCount());
+      assertEquals(0, messageCounts.deadLetteredCount());
+      assertEquals(List.of(1L), messageConsumer.lockAllNextActive(UUID.randomUUID(), 10).stream().map(Message::sequenceNumber).toList());
+    }
+  }
+
+  @Test
+  void acknowledgeWithDeadLetteredMessageShouldDeleteAcknowledgedSegments() throws Exception {
+    // Arrange
+    try (final var store = JournalMessageStore.open(directory, 160)) {
+      final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+      final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+      for (var i = 0; i < 4; i++) {
+        messageProducer.enqueue("00000000-0000-0000-0000-00000000000" + i, "TestEvent", new byte[32]);
+      }
+      final var lockId = UUID.randomUUID();
+
+      // Act
+      messageConsumer.lockAllNextActive(lockId, 1);
+      messageConsumer.deadLetterLocked(1L, lockId);
+      for (var i = 0; i < 2; i++) {
+        final var message = messageConsumer.lockAllNextActive(lockId, 1).getFirst();
+
+        messageConsumer.dequeueLocked(message.sequenceNumber(), lockId);
+      }
+
+      // Assert
+      try (final var files = Files.list(directory)) {
+        assertEquals(1L, files.filter(f -> f.toString().endsWith(".segment")).count());
+      }
+    }
+  }
+
+  @Test
+  void enqueueWithRolledBackTransactionShouldNotRecoverMessage() {
+    // Arrange
+    try (final var store = JournalMessageStore.open(directory, 1024)) {
+      final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+
+      TransactionSynchronizationManager.initSynchronization();
+      try {
+        messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[]{0x01});
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+      } finally {
+        TransactionSynchronizationManager.clearSynchronization();
+      }
+    }
+
+    // Act
+    try (final var store = JournalMessageStore.open(directory, 1024)) {
+      final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+      // Assert
+      assertEquals(0, messageConsumer.count().totalCount());
+    }
+  }
+
+  @Test
+  void enqueueWithCommittedTransactionShouldRecoverMessage() {
+    // Arrange
+    try (final var store = JournalMessageStore.open(directory, 1024)) {
+      final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+
+      TransactionSynchronizationManager.initSynchronization();
+      try {
+        messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[]{0x01});
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+      } finally {
+        TransactionSynchronizationManager.clearSynchronization();
+      }
+    }
+
+    // Act
+    try (final var store = JournalMessageStore.open(directory, 1024)) {
+      final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+      // Assert
+      final var message = messageConsumer.peek(1L);
+
+      assertNotNull(message);
+      assertArrayEquals(new byte[]{0x01}, message.body());
+    }
+  }
+
+  @Test
+  void enqueueWithGroupIdExceedingStringSizeShouldThrowIllegalArgumentException() {
+    // Arrange
+    try (final var store = JournalMessageStore.open(directory, 1 << 20)) {
+      final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+      final var groupId = "A".repeat(0x10000);
+
+      // Act
+      // Assert
+      assertThrows(
+        IllegalArgumentException.class,
+        () -> messageProducer.enqueue(groupId, "TestEvent", new byte[]{0x01}));
+    }
+  }
+}
@@ -0,0 +1,212 @@
+package com.github.seedwork.infrastructure.memory.outbox;
+
+import com.github.seedwork.infrastructure.outbox.Message;
+import com.github.seedwork.infrastructure.outbox.MessageCounts;
+import com.github.seedwork.infrastructure.outbox.MessageException;
+import com.github.seedwork.infrastructure.outbox.MessageFilter;
+import com.github.seedwork.infrastructure.outbox.MessageHeader;
+import com.github.seedwork.infrastructure.outbox.Partitions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryMessageConsumerTest {
+
+  private static final Clock CLOCK = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+
+  @Test
+  void lockAllNextActiveShouldLockGroupHeadsInOrder() {
+    // Arrange
+    final var store = new InMemoryMessageStore();
+    final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+    final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[0]);
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[0]);
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000001", "TestEvent", new byte[0]);
+    final var lockId = UUID.randomUUID();
+
+    // Act
+    final var messages = messageConsumer.lockAllNextActive(lockId, 10);
+
+    // Assert
+    assertEquals(List.of(1L, 3L), messages.stream().map(Message::sequenceNumber).toList());
+    assertTrue(messages.stream().allMatch(m -> lockId.equals(m.lockId()) && (m.attemptCount() == 1)));
+    assertEquals(new MessageCounts(3, 0, 2, 0), messageConsumer.count());
+  }
+
+  @Test
+  void lockAllNextActiveAfterDequeueShouldLockNextGroupMessage() {
+    // Arrange
+    final var store = new InMemoryMessageStore();
+    final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+    final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[0]);
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[0]);
+    final var lockId = UUID.randomUUID();
+
+    messageConsumer.lockAllNextActive(lockId, 10);
+    messageConsumer.dequeueLocked(1L, lockId);
+
+    // Act
+    final var messages = messageConsumer.lockAllNextActive(lockId, 10);
+
+    // Assert
+    assertEquals(List.of(2L), messages.stream().map(Message::sequenceNumber).toList());
+  }
+
+  @Test
+  void lockAllNextActiveWithFailedHeadShouldNotLockGroup() {
+    // Arrange
+    final var store = new InMemoryMessageStore();
+    final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+    final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 1);
+
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[0]);
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[0]);
+    final var lockId = UUID.randomUUID();
+
+    messageConsumer.lockAllNextActive(lockId, 10);
+    messageConsumer.retryLocked(1L, lockId, Duration.ZERO);
+
+    // Act
+    final var messages = messageConsumer.lockAllNextActive(lockId, 10);
+
+    // Assert
+    assertTrue(messages.isEmpty());
+    assertEquals(new MessageCounts(1, 1, 0, 0), messageConsumer.count());
+  }
+
+  @Test
+  void dequeueLockedWithUnknownLockShouldThrowMessageException() {
+    // Arrange
+    final var store = new InMemoryMessageStore();
+    final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+    final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[0]);
+    messageConsumer.lockAllNextActive(UUID.randomUUID(), 10);
+
+    // Act
+    // Assert
+    assertThrows(MessageException.class, () -> messageConsumer.dequeueLocked(1L, UUID.randomUUID()));
+  }
+
+  @Test
+  void deadLetterLockedShouldMoveRemainingGroupMessages() {
+    // Arrange
+    final var store = new InMemoryMessageStore();
+    final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+    final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[0]);
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[0]);
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000001", "TestEvent", new byte[0]);
+    final var lockId = UUID.randomUUID();
+
+    messageConsumer.lockAllNextActive(lockId, 10);
+
+    // Act
+    messageConsumer.deadLetterLocked(1L, lockId);
+
+    // Assert
+    assertEquals(2, messageConsumer.peekAllDeadLettered(0L, 10).size());
+    assertEquals(List.of(3L), messageConsumer.peekAllAfter(null, MessageFilter.none(), 10).stream().map(MessageHeader::sequenceNumber).toList());
+  }
+
+  @Test
+  void lockAllNextActiveWithDeadLetteredGroupShouldNotLockLaterGroupMessages() {
+    // Arrange
+    final var store = new InMemoryMessageStore();
+    final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+    final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[0]);
+    final var lockId = UUID.randomUUID();
+
+    messageConsumer.lockAllNextActive(lockId, 10);
+    messageConsumer.deadLetterLocked(1L, lockId);
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[0]);
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000001", "TestEvent", new byte[0]);
+
+    // Act
+    final var messages = messageConsumer.lockAllNextActive(lockId, 10);
+
+    // Assert
+    assertEquals(List.of(3L), messages.stream().map(Message::sequenceNumber).toList());
+    assertEquals(new MessageCounts(2, 0, 1, 1), messageConsumer.count());
+  }
+
+  @Test
+  void deadLetterAllExhaustedWithExpiredExhaustedMessageShouldMoveRemainingGroupMessages() {
+    // Arrange
+    final var store = new InMemoryMessageStore();
+    final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+    final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 1);
+
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[0]);
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[0]);
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000001", "TestEvent", new byte[0]);
+    messageConsumer.lockAllNextActive(UUID.randomUUID(), 1);
+    final var expiredMessageConsumer = new InMemoryMessageConsumer(
+      store,
+      Clock.offset(CLOCK, Duration.ofMinutes(1L)),
+      Duration.ofSeconds(30L),
+      1);
+
+    // Act
+    final var deadLetterCount = expiredMessageConsumer.deadLetterAllExhausted(Partitions.all());
+
+    // Assert
+    assertEquals(2, deadLetterCount);
+    assertEquals(2, expiredMessageConsumer.peekAllDeadLettered(0L, 10).size());
+    assertEquals(List.of(3L), expiredMessageConsumer.peekAllAfter(null, MessageFilter.none(), 10).stream().map(MessageHeader::sequenceNumber).toList());
+  }
+
+  @Test
+  void replayAllDeadLetteredShouldRequeueGroupMessages() {
+    // Arrange
+    final var store = new InMemoryMessageStore();
+    final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+    final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[0]);
+    final var lockId = UUID.randomUUID();
+
+    messageConsumer.lockAllNextActive(lockId, 10);
+    messageConsumer.deadLetterLocked(1L, lockId);
+
+    // Act
+    final var replayCount = messageConsumer.replayAllDeadLettered("00000000-0000-0000-0000-000000000000");
+
+    // Assert
+    assertEquals(1, replayCount);
+    assertTrue(messageConsumer.peekAllDeadLettered(0L, 10).isEmpty());
+    assertEquals(List.of(1L), messageConsumer.lockAllNextActive(lockId, 10).stream().map(Message::sequenceNumber).toList());
+  }
+
+  @Test
+  void lockAllNextActiveWithScheduledMessageShouldNotLockGroupBeforeDue() {
+    // Arrange
+    final var store = new InMemoryMessageStore();
+    final var messageProducer = new InMemoryMessageProducer(store, CLOCK);
+    final var messageConsumer = new InMemoryMessageConsumer(store, CLOCK, Duration.ofSeconds(30L), 3);
+
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000000", "TestEvent", new byte[0], Instant.EPOCH.plusSeconds(60L));
+    messageProducer.enqueue("00000000-0000-0000-0000-000000000001", "TestEvent", new byte[0]);
+
+    // Act
+    final var messages = messageConsumer.lockAllNextActive(UUID.randomUUID(), 10);
+
+    // Assert
+    assertEquals(List.of(2L), messages.stream().map(Message::sequenceNumber).toList());
+  }
+}
@@ -0,0 +1,81 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import com.github.seedwork.domain.TestEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryMessageCodecTest {
+
+  private static final class TestEventFormat implements MessageBodyFormat<TestEvent> {
+
+    @Override
+    public Class<TestEvent> type() {
+      return TestEvent.class;
+    }
+
+    @Override
+    public void write(final TestEvent body, final DataOutput output) throws IOException {
+      output.writeBoolean(body.dispatchable());
+    }
+
+    @Override
+    public TestEvent read(final DataInput input) throws IOException {
+      return new TestEvent(input.readBoolean());
+    }
+  }
+
+  @Test
+  void encodeWithKnownSubjectShouldReturnBinaryBody() {
+    // Arrange
+    final var messageCodec = new BinaryMessageCodec(List.of(new TestEventFormat()), new SerializableMessageCodec());
+
+    // Act
+    final var body = messageCodec.encode("TestEvent", new TestEvent(false));
+
+    // Assert
+    assertArrayEquals(new byte[]{0x01, 0x00}, body);
+  }
+
+  @Test
+  void decodeWithKnownSubjectShouldReturnBody() {
+    // Arrange
+    final var messageCodec = new BinaryMessageCodec(List.of(new TestEventFormat()), new SerializableMessageCodec());
+
+    // Act
+    final var body = messageCodec.decode("TestEvent", new byte[]{0x01, 0x00});
+
+    // Assert
+    assertEquals(new TestEvent(false), body);
+  }
+
+  @Test
+  void decodeWithKnownSubjectAndSerializedBodyShouldReturnBody() {
+    // Arrange
+    final var serializedBody = new SerializableMessageCodec().encode("TestEvent", new TestEvent(false));
+    final var messageCodec = new BinaryMessageCodec(List.of(new TestEventFormat()), new SerializableMessageCodec());
+
+    // Act
+    final var body = messageCodec.decode("TestEvent", serializedBody);
+
+    // Assert
+    assertEquals(new TestEvent(false), body);
+  }
+
+  @Test
+  void encodeWithUnknownSubjectShouldReturnSerializedBody() {
+    // Arrange
+    final var messageCodec = new BinaryMessageCodec(List.of(), new SerializableMessageCodec());
+
+    // Act
+    final var body = messageCodec.encode("TestEvent", new TestEvent(false));
+
+    // Assert
+    assertEquals(new TestEvent(false), new SerializableMessageCodec().decode("TestEvent", body));
+  }
+}
@@ -0,0 +1,73 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileMessageDispatcherTest {
+
+  @TempDir
+  private Path directory;
+
+  @Test
+  void dispatchAllShouldAcknowledgeWrittenMessages() throws Exception {
+    // Arrange
+    final var file = directory.resolve("messages");
+
+    try (final var messageDispatcher = new FileMessageDispatcher(file, 2)) {
+      final var groupMessages = List.of(
+        MessageFixture.newMessage(1L, "A", Instant.EPOCH, Instant.EPOCH, null, 1),
+        MessageFixture.newMessage(2L, "A", Instant.EPOCH, Instant.EPOCH, null, 1));
+
+      // Act
+      final var result = messageDispatcher.dispatchAll(groupMessages).join();
+
+      // Assert
+      assertEquals(DispatchResult.acknowledged(2), result);
+      assertTrue(Files.size(file) > 0L);
+    }
+  }
+
+  @Test
+  void closeWithQueuedMessagesShouldAcknowledgeQueuedMessages() throws Exception {
+    // Arrange
+    final var file = directory.resolve("messages");
+    final var messageDispatcher = new FileMessageDispatcher(file, 2);
+    final var results = LongStream.rangeClosed(1L, 3L)
+      .mapToObj(s -> messageDispatcher.dispatchAll(List.of(
+        MessageFixture.newMessage(s, "A", Instant.EPOCH, Instant.EPOCH, null, 1))))
+      .toList();
+
+    // Act
+    messageDispatcher.close();
+
+    // Assert
+    for (final var result : results) {
+      assertEquals(DispatchResult.acknowledged(1), result.get(1L, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  void dispatchAllAfterCloseShouldFail() throws Exception {
+    // Arrange
+    final var messageDispatcher = new FileMessageDispatcher(directory.resolve("messages"), 1);
+    final var groupMessages = List.of(MessageFixture.newMessage(1L, "A", Instant.EPOCH, Instant.EPOCH, null, 1));
+
+    messageDispatcher.close();
+
+    // Act
+    final var result = messageDispatcher.dispatchAll(groupMessages).get(1L, TimeUnit.SECONDS);
+
+    // Assert
+    assertEquals(0, result.acknowledgedCount());
+    assertInstanceOf(IllegalStateException.class, result.failure());
+  }
+}
@@ -0,0 +1,132 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import com.github.seedwork.domain.TestEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageCoalescerTest {
+
+  private static final class TestEventRule implements MessageCoalescingRule<TestEvent> {
+
+    @Override
+    public Class<TestEvent> type() {
+      return TestEvent.class;
+    }
+
+    @Override
+    public Object key(final TestEvent body) {
+      return "TestEvent";
+    }
+  }
+
+  private static final class OtherTestEventRule implements MessageCoalescingRule<TestEvent> {
+
+    @Override
+    public Class<TestEvent> type() {
+      return TestEvent.class;
+    }
+
+    @Override
+    public String subject() {
+      return "OtherTestEvent";
+    }
+
+    @Override
+    public Object key(final TestEvent body) {
+      return "TestEvent";
+    }
+  }
+
+  private static final class DispatchableTestEventRule implements MessageCoalescingRule<TestEvent> {
+
+    @Override
+    public Class<TestEvent> type() {
+      return TestEvent.class;
+    }
+
+    @Override
+    public Object key(final TestEvent body) {
+      return body.dispatchable();
+    }
+  }
+
+  @Test
+  void coalesceWithSameKeyShouldSupersedeEarlierMessages() {
+    // Arrange
+    final var messageCoalescer = new MessageCoalescer(List.of(new TestEventRule()), new SerializableMessageCodec());
+    final var groupMessages = List.of(
+      MessageFixture.newMessage(1L, "A", Instant.EPOCH, Instant.EPOCH, null, 1),
+      MessageFixture.newMessage(2L, "A", Instant.EPOCH, Instant.EPOCH, null, 1),
+      MessageFixture.newMessage(3L, "A", Instant.EPOCH, Instant.EPOCH, null, 1));
+
+    // Act
+    final var coalescedMessages = messageCoalescer.coalesce(groupMessages);
+
+    // Assert
+    assertEquals(List.of(3L), coalescedMessages.messages().stream().map(Message::sequenceNumber).toList());
+    assertEquals(Map.of(1L, 3L, 2L, 3L), coalescedMessages.supersedingSequenceNumbers());
+    assertEquals(Map.of(3L, new TestEvent()), coalescedMessages.decodedBodies());
+  }
+
+  @Test
+  void coalesceWithDifferentKeysShouldOnlySupersedeEarlierMessagesWithSameKey() {
+    // Arrange
+    final var messageCoalescer = new MessageCoalescer(
+      List.of(new DispatchableTestEventRule()),
+      new SerializableMessageCodec());
+    final var groupMessages = List.of(
+      MessageFixture.newMessage(1L, "A", Instant.EPOCH, Instant.EPOCH, null, 1),
+      MessageFixture.newUndispatchableMessage(2L, "A", Instant.EPOCH, Instant.EPOCH, null, 1),
+      MessageFixture.newMessage(3L, "A", Instant.EPOCH, Instant.EPOCH, null, 1));
+
+    // Act
+    final var coalescedMessages = messageCoalescer.coalesce(groupMessages);
+
+    // Assert
+    assertEquals(List.of(2L, 3L), coalescedMessages.messages().stream().map(Message::sequenceNumber).toList());
+    assertEquals(Map.of(1L, 3L), coalescedMessages.supersedingSequenceNumbers());
+  }
+
+  @Test
+  void coalesceWithSameKeyOfDifferentSubjectsShouldSupersedeWholeChain() {
+    // Arrange
+    final var messageCoalescer = new MessageCoalescer(
+      List.of(new TestEventRule(), new OtherTestEventRule()),
+      new SerializableMessageCodec());
+    final var groupMessages = List.of(
+      MessageFixture.newMessage(1L, "A", Instant.EPOCH, Instant.EPOCH, null, 1, "TestEvent", new TestEvent()),
+      MessageFixture.newMessage(2L, "A", Instant.EPOCH, Instant.EPOCH, null, 1, "OtherTestEvent", new TestEvent()),
+      MessageFixture.newMessage(3L, "A", Instant.EPOCH, Instant.EPOCH, null, 1, "TestEvent", new TestEvent()),
+      MessageFixture.newMessage(4L, "A", Instant.EPOCH, Instant.EPOCH, null, 1, "OtherTestEvent", new TestEvent()));
+
+    // Act
+    final var coalescedMessages = messageCoalescer.coalesce(groupMessages);
+
+    // Assert
+    assertEquals(List.of(4L), coalescedMessages.messages().stream().map(Message::sequenceNumber).toList());
+    assertEquals(Map.of(1L, 4L, 2L, 4L, 3L, 4L), coalescedMessages.supersedingSequenceNumbers());
+    assertEquals(Map.of(4L, new TestEvent()), coalescedMessages.decodedBodies());
+  }
+
+  @Test
+  void coalesceWithoutRuleShouldReturnAllMessages() {
+    // Arrange
+    final var messageCoalescer = new MessageCoalescer(List.of(), new SerializableMessageCodec());
+    final var groupMessages = List.of(
+      MessageFixture.newMessage(1L, "A", Instant.EPOCH, Instant.EPOCH, null, 1),
+      MessageFixture.newMessage(2L, "A", Instant.EPOCH, Instant.EPOCH, null, 1));
+
+    // Act
+    final var coalescedMessages = messageCoalescer.coalesce(groupMessages);
+
+    // Assert
+    assertEquals(groupMessages, coalescedMessages.messages());
+    assertTrue(coalescedMessages.supersedingSequenceNumbers().isEmpty());
+    assertTrue(coalescedMessages.decodedBodies().isEmpty());
+  }
+}
@@ -0,0 +1,154 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MessageCountsCacheTest {
+
+  @Test
+  void countsWithinStalenessShouldReturnCachedCounts() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.count()).thenReturn(new MessageCounts(2, 1, 0, 0));
+    final var messageCountsCache = new MessageCountsCache(
+      messageConsumer,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(10L));
+
+    messageCountsCache.counts();
+
+    // Act
+    final var messageCounts = messageCountsCache.counts();
+
+    // Assert
+    assertEquals(new MessageCounts(2, 1, 0, 0), messageCounts);
+    verify(messageConsumer, times(1)).count();
+  }
+
+  @Test
+  void countsAfterStalenessShouldReconcileCounts() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.count())
+      .thenReturn(new MessageCounts(2, 1, 0, 0))
+      .thenReturn(new MessageCounts(5, 1, 0, 0));
+    final var clock = mock(Clock.class);
+
+    when(clock.instant())
+      .thenReturn(Instant.EPOCH)
+      .thenReturn(Instant.EPOCH.plusSeconds(10L));
+    final var messageCountsCache = new MessageCountsCache(messageConsumer, clock, Duration.ofSeconds(10L));
+
+    messageCountsCache.counts();
+
+    // Act
+    final var messageCounts = messageCountsCache.counts();
+
+    // Assert
+    assertEquals(new MessageCounts(5, 1, 0, 0), messageCounts);
+    verify(messageConsumer, times(2)).count();
+  }
+
+  @Test
+  void countsAfterEnqueueAndDequeueShouldReturnAdjustedCounts() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.count()).thenReturn(new MessageCounts(2, 1, 0, 0));
+    final var messageCountsCache = new MessageCountsCache(
+      messageConsumer,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(10L));
+
+    messageCountsCache.counts();
+    messageCountsCache.recordEnqueued(3);
+    messageCountsCache.recordLocked(4);
+    messageCountsCache.recordDequeued(4);
+
+    // Act
+    final var messageCounts = messageCountsCache.counts();
+
+    // Assert
+    assertEquals(new MessageCounts(1, 1, 0, 0), messageCounts);
+    verify(messageConsumer, times(1)).count();
+  }
+
+  @Test
+  void countsAfterLockAndUnlockShouldReturnAdjustedCounts() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.count()).thenReturn(new MessageCounts(2, 1, 0, 0));
+    final var messageCountsCache = new MessageCountsCache(
+      messageConsumer,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(10L));
+
+    messageCountsCache.counts();
+    messageCountsCache.recordLocked(2);
+    messageCountsCache.recordUnlocked(1);
+
+    // Act
+    final var messageCounts = messageCountsCache.counts();
+
+    // Assert
+    assertEquals(new MessageCounts(2, 1, 1, 0), messageCounts);
+    verify(messageConsumer, times(1)).count();
+  }
+
+  @Test
+  void countsAfterFailedShouldReturnAdjustedCounts() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.count()).thenReturn(new MessageCounts(2, 1, 0, 0));
+    final var messageCountsCache = new MessageCountsCache(
+      messageConsumer,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(10L));
+
+    messageCountsCache.counts();
+    messageCountsCache.recordLocked(1);
+    messageCountsCache.recordFailed(1);
+
+    // Act
+    final var messageCounts = messageCountsCache.counts();
+
+    // Assert
+    assertEquals(new MessageCounts(1, 2, 0, 0), messageCounts);
+    verify(messageConsumer, times(1)).count();
+  }
+
+  @Test
+  void countsAfterInvalidateShouldReconcileCounts() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.count())
+      .thenReturn(new MessageCounts(2, 1, 0, 0))
+      .thenReturn(new MessageCounts(1, 0, 0, 2));
+    final var messageCountsCache = new MessageCountsCache(
+      messageConsumer,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(10L));
+
+    messageCountsCache.counts();
+    messageCountsCache.invalidate();
+
+    // Act
+    final var messageCounts = messageCountsCache.counts();
+
+    // Assert
+    assertEquals(new MessageCounts(1, 0, 0, 2), messageCounts);
+    verify(messageConsumer, times(2)).count();
+  }
+}
@@ -8,6 +8,8 @@ import java.util.UUID;
 
 public final class MessageFixture {
 
+  private static final MessageCodec MESSAGE_CODEC = new SerializableMessageCodec();
+
   private MessageFixture() {
   }
 
@@ -24,7 +26,25 @@ public final class MessageFixture {
       lockId,
       attemptCount,
       TestEvent.class.getSimpleName(),
-      new TestEvent());
+      MESSAGE_CODEC.encode(TestEvent.class.getSimpleName(), new TestEvent()));
+  }
+
+  public static Message newMessage(final String groupId,
+                                   final Instant enqueuedAt,
+                                   final Instant availableAt,
+                                   final UUID lockId,
+                                   final int attemptCount,
+                                   final String subject,
+                                   final Serializable body) {
+    return new Message(
+      null,
+      groupId,
+      enqueuedAt,
+      availableAt,
+      lockId,
+      attemptCount,
+      subject,
+      MESSAGE_CODEC.encode(subject, body));
   }
 
   public static Message newMessage(final long sequenceNumber,
@@ -41,7 +61,7 @@ public final class MessageFixture {
       lockId,
       attemptCount,
       TestEvent.class.getSimpleName(),
-      new TestEvent());
+      MESSAGE_CODEC.encode(TestEvent.class.getSimpleName(), new TestEvent()));
   }
 
   public static Message newMessage(final long sequenceNumber,
@@ -60,7 +80,7 @@ public final class MessageFixture {
       lockId,
       attemptCount,
       subject,
-      body);
+      MESSAGE_CODEC.encode(subject, body));
   }
 
   public static Message newUndispatchableMessage(final long sequenceNumber,
@@ -77,6 +97,6 @@ public final class MessageFixture {
       lockId,
       attemptCount,
       TestEvent.class.getSimpleName(),
-      new TestEvent(false));
+      MESSAGE_CODEC.encode(TestEvent.class.getSimpleName(), new TestEvent(false)));
   }
 }
@@ -0,0 +1,52 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageLanesTest {
+
+  @Test
+  void lanesWithoutSubjectPrioritiesShouldReturnSingleLane() {
+    // Arrange
+    final var messageLanes = new MessageLanes(Map.of(), 10);
+
+    // Act
+    final var lanes = messageLanes.lanes();
+
+    // Assert
+    assertEquals(List.of(MessageLane.all()), lanes);
+    assertFalse(messageLanes.isPrioritized());
+  }
+
+  @Test
+  void lanesWithSubjectPrioritiesShouldReturnLanesByDescendingPriority() {
+    // Arrange
+    final var messageLanes = new MessageLanes(Map.of("A", 1, "B", -1), 10);
+
+    // Act
+    final var lanes = messageLanes.lanes();
+
+    // Assert
+    assertEquals(List.of(
+      MessageLane.including(Set.of("A")),
+      MessageLane.excluding(Set.of("A", "B")),
+      MessageLane.including(Set.of("B"))), lanes);
+  }
+
+  @Test
+  void reservedLimitShouldLeaveRoomForHighestLane() {
+    // Arrange
+    final var messageLanes = new MessageLanes(Map.of("A", 1), 10);
+
+    // Act
+    // Assert
+    assertEquals(10, messageLanes.reservedLimit(100));
+    assertEquals(1, messageLanes.reservedLimit(2));
+    assertEquals(0, messageLanes.reservedLimit(1));
+  }
+}
@@ -0,0 +1,73 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MicrometerOutboxMetricsTest {
+
+  @Test
+  void recordLockShouldRecordDurationAndBatchSize() {
+    // Arrange
+    final var meterRegistry = new SimpleMeterRegistry();
+    final var metrics = new MicrometerOutboxMetrics(meterRegistry, Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+
+    // Act
+    metrics.recordLock(Duration.ofMillis(5L), 3);
+
+    // Assert
+    assertEquals(1L, meterRegistry.get("outbox.lock").timer().count());
+    assertEquals(3.0D, meterRegistry.get("outbox.lock.batch.size").summary().totalAmount());
+  }
+
+  @Test
+  void recordDispatchAllShouldRecordDurationOncePerGroup() {
+    // Arrange
+    final var meterRegistry = new SimpleMeterRegistry();
+    final var metrics = new MicrometerOutboxMetrics(meterRegistry, Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+
+    // Act
+    metrics.recordDispatchAll(Duration.ofMillis(5L), 3, true);
+
+    // Assert
+    assertEquals(1L, meterRegistry.get("outbox.dispatch").tag("outcome", "success").timer().count());
+    assertEquals(3.0D, meterRegistry.get("outbox.dispatch.batch.size").summary().totalAmount());
+  }
+
+  @Test
+  void recordDispatchWithDispatchedMessageShouldRecordLatency() {
+    // Arrange
+    final var meterRegistry = new SimpleMeterRegistry();
+    final var metrics = new MicrometerOutboxMetrics(meterRegistry, Clock.fixed(Instant.EPOCH.plusSeconds(2L), ZoneOffset.UTC));
+    final var message = MessageFixture.newMessage(1L, "00000000-0000-0000-0000-000000000000", Instant.EPOCH, Instant.EPOCH, null, 0);
+
+    // Act
+    metrics.recordDispatch(message, true);
+
+    // Assert
+    assertEquals(2.0D, meterRegistry.get("outbox.message.latency").timer().totalTime(TimeUnit.SECONDS));
+    assertNull(meterRegistry.find("outbox.dispatch.failures").counter());
+  }
+
+  @Test
+  void recordDispatchWithFailedMessageShouldIncrementFailures() {
+    // Arrange
+    final var meterRegistry = new SimpleMeterRegistry();
+    final var metrics = new MicrometerOutboxMetrics(meterRegistry, Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+    final var message = MessageFixture.newMessage(1L, "00000000-0000-0000-0000-000000000000", Instant.EPOCH, Instant.EPOCH, null, 0);
+
+    // Act
+    metrics.recordDispatch(message, false);
+
+    // Assert
+    assertEquals(1.0D, meterRegistry.get("outbox.dispatch.failures").counter().count());
+    assertNull(meterRegistry.find("outbox.message.latency").timer());
+  }
+}
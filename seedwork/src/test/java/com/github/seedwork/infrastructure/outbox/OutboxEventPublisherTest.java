@@ -3,12 +3,17 @@ package com.github.seedwork.infrastructure.outbox;
 import com.github.seedwork.domain.TestEvent;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
 import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
 
 import static org.mockito.Mockito.*;
 
 class OutboxEventPublisherTest {
 
+  private static final Clock CLOCK = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+
   @Test
   void publishEventShouldEnqueueMessage() {
     // Arrange
@@ -24,13 +29,161 @@ class OutboxEventPublisherTest {
         0,
         "TestEvent",
         new TestEvent()));
-    final var outboxEventPublisher = new OutboxEventPublisher(messageProducer);
+    final var outboxPoller = mock(OutboxPoller.class);
+    final var outboxEventPublisher = new OutboxEventPublisher(
+      messageProducer,
+      new SerializableMessageCodec(),
+      outboxPoller,
+      mock(MessageCountsCache.class),
+      CLOCK);
+
+    // Act
+    outboxEventPublisher.publishEvent("A", new TestEvent());
+
+    // Assert
+    verify(messageProducer, times(1))
+      .enqueue(eq("A"), eq("TestEvent"), isA(byte[].class));
+  }
+
+  @Test
+  void publishEventWithoutTransactionShouldWakeUpPoller() {
+    // Arrange
+    final var messageProducer = mock(MessageProducer.class);
+
+    when(messageProducer.enqueue(anyString(), anyString(), any()))
+      .thenReturn(MessageFixture.newMessage(
+        1L,
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0,
+        "TestEvent",
+        new TestEvent()));
+    final var outboxPoller = mock(OutboxPoller.class);
+    final var outboxEventPublisher = new OutboxEventPublisher(
+      messageProducer,
+      new SerializableMessageCodec(),
+      outboxPoller,
+      mock(MessageCountsCache.class),
+      CLOCK);
 
     // Act
     outboxEventPublisher.publishEvent("A", new TestEvent());
 
+    // Assert
+    verify(outboxPoller, times(1))
+      .wakeUp();
+  }
+
+  @Test
+  void publishEventsShouldEnqueueAllMessages() {
+    // Arrange
+    final var messageProducer = mock(MessageProducer.class);
+
+    when(messageProducer.enqueueAll(anyString(), anyList()))
+      .thenReturn(List.of(
+        MessageFixture.newMessage(
+          1L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          null,
+          0,
+          "TestEvent",
+          new TestEvent()),
+        MessageFixture.newMessage(
+          2L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          null,
+          0,
+          "TestEvent",
+          new TestEvent())));
+    final var outboxPoller = mock(OutboxPoller.class);
+    final var outboxEventPublisher = new OutboxEventPublisher(
+      messageProducer,
+      new SerializableMessageCodec(),
+      outboxPoller,
+      mock(MessageCountsCache.class),
+      CLOCK);
+
+    // Act
+    outboxEventPublisher.publishEvents("A", List.of(new TestEvent(), new TestEvent()));
+
+    // Assert
+    verify(messageProducer, times(1))
+      .enqueueAll(eq("A"), argThat(cs -> cs.size() == 2));
+    verify(messageProducer, never())
+      .enqueue(anyString(), anyString(), any());
+    verify(outboxPoller, times(1))
+      .wakeUp();
+  }
+
+  @Test
+  void scheduleEventShouldEnqueueDelayedMessageInGroupWithoutWakingUpPoller() {
+    // Arrange
+    final var messageProducer = mock(MessageProducer.class);
+
+    when(messageProducer.enqueue(anyString(), anyString(), any(), any()))
+      .thenReturn(MessageFixture.newMessage(
+        1L,
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(60L),
+        null,
+        0,
+        "TestEvent",
+        new TestEvent()));
+    final var outboxPoller = mock(OutboxPoller.class);
+    final var outboxEventPublisher = new OutboxEventPublisher(
+      messageProducer,
+      new SerializableMessageCodec(),
+      outboxPoller,
+      mock(MessageCountsCache.class),
+      CLOCK);
+
+    // Act
+    outboxEventPublisher.scheduleEvent("A", new TestEvent(), Instant.EPOCH.plusSeconds(60L));
+
+    // Assert
+    verify(messageProducer, times(1))
+      .enqueue(eq("A"), eq("TestEvent"), isA(byte[].class), eq(Instant.EPOCH.plusSeconds(60L)));
+    verify(outboxPoller, never())
+      .wakeUp();
+  }
+
+  @Test
+  void scheduleEventWithDueAvailableAtShouldWakeUpPoller() {
+    // Arrange
+    final var messageProducer = mock(MessageProducer.class);
+
+    when(messageProducer.enqueue(anyString(), anyString(), any(), any()))
+      .thenReturn(MessageFixture.newMessage(
+        1L,
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0,
+        "TestEvent",
+        new TestEvent()));
+    final var outboxPoller = mock(OutboxPoller.class);
+    final var outboxEventPublisher = new OutboxEventPublisher(
+      messageProducer,
+      new SerializableMessageCodec(),
+      outboxPoller,
+      mock(MessageCountsCache.class),
+      CLOCK);
+
+    // Act
+    outboxEventPublisher.scheduleEvent("A", new TestEvent(), Instant.EPOCH);
+
     // Assert
     verify(messageProducer, times(1))
-      .enqueue(eq("A"), eq("TestEvent"), isA(TestEvent.class));
+      .enqueue(eq("A"), eq("TestEvent"), isA(byte[].class), eq(Instant.EPOCH));
+    verify(outboxPoller, times(1))
+      .wakeUp();
   }
 }
@@ -0,0 +1,70 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OutboxMeterBinderTest {
+
+  @Test
+  void oldestAgeWithinStalenessShouldNotPeekAgain() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.peekAllAfter(isNull(), any(), eq(1))).thenReturn(List.of(
+      new MessageHeader(1L, "A", Instant.EPOCH, Instant.EPOCH, null, 0, "TestEvent")));
+    final var clock = mock(Clock.class);
+
+    when(clock.instant())
+      .thenReturn(Instant.EPOCH.plusSeconds(1L))
+      .thenReturn(Instant.EPOCH.plusSeconds(5L));
+    final var meterRegistry = new SimpleMeterRegistry();
+
+    new OutboxMeterBinder(messageConsumer, clock, Duration.ofSeconds(10L)).bindTo(meterRegistry);
+    final var gauge = meterRegistry.get("outbox.message.oldest.age").gauge();
+
+    gauge.value();
+
+    // Act
+    final var age = gauge.value();
+
+    // Assert
+    assertEquals(5.0D, age);
+    verify(messageConsumer, times(1)).peekAllAfter(isNull(), any(), eq(1));
+  }
+
+  @Test
+  void oldestAgeAfterStalenessShouldPeekAgain() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.peekAllAfter(isNull(), any(), eq(1)))
+      .thenReturn(List.of(new MessageHeader(1L, "A", Instant.EPOCH, Instant.EPOCH, null, 0, "TestEvent")))
+      .thenReturn(List.of());
+    final var clock = mock(Clock.class);
+
+    when(clock.instant())
+      .thenReturn(Instant.EPOCH.plusSeconds(1L))
+      .thenReturn(Instant.EPOCH.plusSeconds(11L));
+    final var meterRegistry = new SimpleMeterRegistry();
+
+    new OutboxMeterBinder(messageConsumer, clock, Duration.ofSeconds(10L)).bindTo(meterRegistry);
+    final var gauge = meterRegistry.get("outbox.message.oldest.age").gauge();
+
+    gauge.value();
+
+    // Act
+    final var age = gauge.value();
+
+    // Assert
+    assertEquals(0.0D, age);
+    verify(messageConsumer, times(2)).peekAllAfter(isNull(), any(), eq(1));
+  }
+}
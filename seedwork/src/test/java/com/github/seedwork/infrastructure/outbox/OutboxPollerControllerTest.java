@@ -0,0 +1,84 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxPollerControllerTest {
+
+  @Test
+  void adaptWithNoLockedMessagesShouldBackOffUpToMaxPollInterval() {
+    // Arrange
+    final var outboxPollerController = new OutboxPollerController(
+      Duration.ofSeconds(1L),
+      Duration.ofSeconds(3L),
+      100,
+      1000,
+      Duration.ofSeconds(1L));
+
+    outboxPollerController.adapt(0, Duration.ZERO);
+
+    // Act
+    outboxPollerController.adapt(0, Duration.ZERO);
+
+    // Assert
+    assertEquals(Duration.ofSeconds(3L), outboxPollerController.pollInterval());
+  }
+
+  @Test
+  void resetShouldRestoreMinPollInterval() {
+    // Arrange
+    final var outboxPollerController = new OutboxPollerController(
+      Duration.ofSeconds(1L),
+      Duration.ofSeconds(10L),
+      100,
+      1000,
+      Duration.ofSeconds(1L));
+
+    outboxPollerController.adapt(0, Duration.ZERO);
+
+    // Act
+    outboxPollerController.reset();
+
+    // Assert
+    assertEquals(Duration.ofSeconds(1L), outboxPollerController.pollInterval());
+  }
+
+  @Test
+  void adaptWithFullBatchShouldGrowLockLimitUpToMaxLockLimit() {
+    // Arrange
+    final var outboxPollerController = new OutboxPollerController(
+      Duration.ofSeconds(1L),
+      Duration.ofSeconds(10L),
+      100,
+      300,
+      Duration.ofSeconds(1L));
+
+    outboxPollerController.adapt(100, Duration.ofMillis(100L));
+
+    // Act
+    outboxPollerController.adapt(200, Duration.ofMillis(100L));
+
+    // Assert
+    assertEquals(300, outboxPollerController.lockLimit());
+  }
+
+  @Test
+  void adaptWithSlowPollShouldShrinkLockLimit() {
+    // Arrange
+    final var outboxPollerController = new OutboxPollerController(
+      Duration.ofSeconds(1L),
+      Duration.ofSeconds(10L),
+      100,
+      1000,
+      Duration.ofSeconds(1L));
+
+    // Act
+    outboxPollerController.adapt(100, Duration.ofSeconds(2L));
+
+    // Assert
+    assertEquals(50, outboxPollerController.lockLimit());
+  }
+}
@@ -4,33 +4,84 @@ import com.github.seedwork.domain.TestEvent;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class OutboxPollerTest {
 
+  private static final class TestEventRule implements MessageCoalescingRule<TestEvent> {
+
+    @Override
+    public Class<TestEvent> type() {
+      return TestEvent.class;
+    }
+
+    @Override
+    public Object key(final TestEvent body) {
+      return "TestEvent";
+    }
+  }
+
+  private static OutboxPoller newOutboxPoller(final OutboxProperties properties,
+                                              final MessageConsumer messageConsumer,
+                                              final MessageDispatcher messageDispatcher) {
+    return new OutboxPoller(
+      properties,
+      messageConsumer,
+      messageDispatcher,
+      PartitionLeaseManager.unpartitioned(),
+      OutboxMetrics.noop(),
+      new MessageCountsCache(messageConsumer, Clock.systemUTC(), Duration.ZERO),
+      MessageCoalescer.none());
+  }
+
+  private static OutboxPoller newCoalescingOutboxPoller(final MessageConsumer messageConsumer,
+                                                        final MessageDispatcher messageDispatcher) {
+    return new OutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(),
+      messageConsumer,
+      messageDispatcher,
+      PartitionLeaseManager.unpartitioned(),
+      OutboxMetrics.noop(),
+      new MessageCountsCache(messageConsumer, Clock.systemUTC(), Duration.ZERO),
+      new MessageCoalescer(List.of(new TestEventRule()), new SerializableMessageCodec()));
+  }
+
   @Test
   void runWithNoActiveMessagesShouldDoNothing() {
     // Arrange
     final var messageConsumer = mock(MessageConsumer.class);
 
-    when(messageConsumer.lockAllNextActive(any(), anyInt()))
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
       .thenReturn(List.of());
     final var applicationEventPublisher = mock(ApplicationEventPublisher.class);
     final var outboxPoller = new OutboxPoller(
       OutboxPropertiesFixture.newOutboxProperties(),
       messageConsumer,
-      applicationEventPublisher);
+      new SerializableMessageCodec(),
+      applicationEventPublisher,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
 
     // Act
     outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000"));
 
     // Assert
     verify(messageConsumer, times(1))
-      .lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      .lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), Partitions.all(), 100, 1);
     verify(messageConsumer, never())
       .dequeueAllLocked(any(), any());
     verify(applicationEventPublisher, never())
@@ -42,7 +93,7 @@ class OutboxPollerTest {
     // Arrange
     final var messageConsumer = mock(MessageConsumer.class);
 
-    when(messageConsumer.lockAllNextActive(any(), anyInt()))
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
       .thenReturn(List.of(
         MessageFixture.newMessage(
           1L,
@@ -62,14 +113,16 @@ class OutboxPollerTest {
     final var outboxPoller = new OutboxPoller(
       OutboxPropertiesFixture.newOutboxProperties(),
       messageConsumer,
-      applicationEventPublisher);
+      new SerializableMessageCodec(),
+      applicationEventPublisher,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
 
     // Act
     outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000"));
 
     // Assert
     verify(messageConsumer, times(1))
-      .lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      .lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), Partitions.all(), 100, 1);
     verify(messageConsumer, times(1))
       .dequeueAllLocked(List.of(1L, 2L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
     verify(applicationEventPublisher, times(2))
@@ -81,7 +134,7 @@ class OutboxPollerTest {
     // Arrange
     final var messageConsumer = mock(MessageConsumer.class);
 
-    when(messageConsumer.lockAllNextActive(any(), anyInt()))
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
       .thenReturn(List.of(
         MessageFixture.newUndispatchableMessage(
           1L,
@@ -105,17 +158,712 @@ class OutboxPollerTest {
     final var outboxPoller = new OutboxPoller(
       OutboxPropertiesFixture.newOutboxProperties(),
       messageConsumer,
-      applicationEventPublisher);
+      new SerializableMessageCodec(),
+      applicationEventPublisher,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
 
     // Act
     outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000"));
 
     // Assert
     verify(messageConsumer, times(1))
-      .lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      .lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), Partitions.all(), 100, 1);
     verify(messageConsumer, times(1))
       .dequeueAllLocked(List.of(2L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    verify(messageConsumer, times(1))
+      .retryLocked(eq(1L), eq(UUID.fromString("00000000-0000-0000-0000-000000000000")), any(Duration.class));
+    verify(applicationEventPublisher, times(2))
+      .publishEvent(any(Object.class));
+  }
+
+  @Test
+  void runWithActiveGroupMessagesShouldDequeueAllGroupMessages() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
+      .thenReturn(List.of(
+        MessageFixture.newMessage(
+          1L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1),
+        MessageFixture.newMessage(
+          2L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1)));
+    final var applicationEventPublisher = mock(ApplicationEventPublisher.class);
+    final var outboxPoller = new OutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(),
+      messageConsumer,
+      new SerializableMessageCodec(),
+      applicationEventPublisher,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+
+    // Act
+    outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    // Assert
+    verify(messageConsumer, times(1))
+      .dequeueAllLocked(List.of(1L, 2L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    verify(messageConsumer, never())
+      .releaseAllLocked(any(), any());
     verify(applicationEventPublisher, times(2))
       .publishEvent(any(Object.class));
   }
+
+  @Test
+  void runWithActiveGroupMessagesAndUndispatchableMessageShouldReleaseSubsequentGroupMessages() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
+      .thenReturn(List.of(
+        MessageFixture.newUndispatchableMessage(
+          1L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1),
+        MessageFixture.newMessage(
+          2L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1)));
+    final var applicationEventPublisher = mock(ApplicationEventPublisher.class);
+
+    doThrow(new RuntimeException("An error occurred"))
+      .when(applicationEventPublisher)
+      .publishEvent(new TestEvent(false));
+    final var outboxPoller = new OutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(),
+      messageConsumer,
+      new SerializableMessageCodec(),
+      applicationEventPublisher,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+
+    // Act
+    outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    // Assert
+    verify(messageConsumer, never())
+      .dequeueAllLocked(any(), any());
+    verify(messageConsumer, times(1))
+      .retryLocked(eq(1L), eq(UUID.fromString("00000000-0000-0000-0000-000000000000")), any(Duration.class));
+    verify(messageConsumer, times(1))
+      .releaseAllLocked(List.of(2L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    verify(applicationEventPublisher, times(1))
+      .publishEvent(any(Object.class));
+  }
+
+  @Test
+  void runWithPartiallyAcknowledgedGroupShouldDequeueAcknowledgedMessages() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
+      .thenReturn(List.of(
+        MessageFixture.newMessage(
+          1L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1),
+        MessageFixture.newMessage(
+          2L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1),
+        MessageFixture.newMessage(
+          3L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1)));
+    final var outboxPoller = newOutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(),
+      messageConsumer,
+      _ -> CompletableFuture.completedFuture(DispatchResult.failed(1, new RuntimeException("An error occurred"))));
+
+    // Act
+    outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    // Assert
+    verify(messageConsumer, times(1))
+      .dequeueAllLocked(List.of(1L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    verify(messageConsumer, times(1))
+      .retryLocked(eq(2L), eq(UUID.fromString("00000000-0000-0000-0000-000000000000")), any(Duration.class));
+    verify(messageConsumer, times(1))
+      .releaseAllLocked(List.of(3L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+  }
+
+  @Test
+  void runWithThrowingDispatcherShouldRetryMessagesOfEveryGroup() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
+      .thenReturn(List.of(
+        MessageFixture.newMessage(
+          1L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1),
+        MessageFixture.newMessage(
+          2L,
+          "B",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1)));
+    final var outboxPoller = newOutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(1, Duration.ofSeconds(10L)),
+      messageConsumer,
+      _ -> {
+        throw new RuntimeException("An error occurred");
+      });
+
+    // Act
+    outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    // Assert
+    verify(messageConsumer, never())
+      .dequeueAllLocked(any(), any());
+    verify(messageConsumer, times(1))
+      .retryLocked(eq(1L), eq(UUID.fromString("00000000-0000-0000-0000-000000000000")), any(Duration.class));
+    verify(messageConsumer, times(1))
+      .retryLocked(eq(2L), eq(UUID.fromString("00000000-0000-0000-0000-000000000000")), any(Duration.class));
+  }
+
+  @Test
+  void runWithDispatchOutlastingLockDurationShouldDequeueMessages() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
+      .thenReturn(List.of(
+        MessageFixture.newMessage(
+          1L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1)));
+    final var outboxPoller = newOutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(Duration.ofMillis(100L)),
+      messageConsumer,
+      m -> CompletableFuture.supplyAsync(
+        () -> DispatchResult.acknowledged(m.size()),
+        CompletableFuture.delayedExecutor(300L, TimeUnit.MILLISECONDS)));
+
+    // Act
+    outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    // Assert
+    verify(messageConsumer, atLeastOnce())
+      .extendAllLocked(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    verify(messageConsumer, times(1))
+      .dequeueAllLocked(List.of(1L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    verify(messageConsumer, never())
+      .retryLocked(any(), any(), any());
+  }
+
+  @Test
+  void runWithSubjectPrioritiesShouldLockAndDispatchPrioritizedLaneFirst() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.lockAllNextActive(any(), any(), eq(MessageLane.including(Set.of("PrioritizedEvent"))), anyInt(), anyInt()))
+      .thenReturn(List.of(
+        MessageFixture.newMessage(
+          2L,
+          "B",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1,
+          "PrioritizedEvent",
+          new TestEvent())));
+    when(messageConsumer.lockAllNextActive(any(), any(), eq(MessageLane.excluding(Set.of("PrioritizedEvent"))), anyInt(), anyInt()))
+      .thenReturn(List.of(
+        MessageFixture.newMessage(
+          1L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1)));
+    final var dispatchedSequenceNumbers = new ArrayList<Long>();
+    final var outboxPoller = newOutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(LockStrategy.GROUP_SCAN, Map.of("PrioritizedEvent", 1)),
+      messageConsumer,
+      m -> {
+        m.forEach(message -> dispatchedSequenceNumbers.add(message.sequenceNumber()));
+
+        return CompletableFuture.completedFuture(DispatchResult.acknowledged(m.size()));
+      });
+
+    // Act
+    outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    // Assert
+    final var inOrder = inOrder(messageConsumer);
+
+    inOrder.verify(messageConsumer, times(1))
+      .lockAllNextActive(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        Partitions.all(),
+        MessageLane.including(Set.of("PrioritizedEvent")),
+        90,
+        1);
+    inOrder.verify(messageConsumer, times(1))
+      .lockAllNextActive(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        Partitions.all(),
+        MessageLane.excluding(Set.of("PrioritizedEvent")),
+        99,
+        1);
+    assertEquals(List.of(2L, 1L), dispatchedSequenceNumbers);
+  }
+
+  @Test
+  void runWithSupersededMessageShouldDequeueSupersededMessageWithDispatchedMessage() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
+      .thenReturn(List.of(
+        MessageFixture.newMessage(
+          1L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1),
+        MessageFixture.newMessage(
+          2L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1)));
+    final var dispatchedSequenceNumbers = new ArrayList<Long>();
+    final var outboxPoller = newCoalescingOutboxPoller(
+      messageConsumer,
+      m -> {
+        m.forEach(message -> dispatchedSequenceNumbers.add(message.sequenceNumber()));
+
+        return CompletableFuture.completedFuture(DispatchResult.acknowledged(m.size()));
+      });
+
+    // Act
+    outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    // Assert
+    assertEquals(List.of(2L), dispatchedSequenceNumbers);
+    verify(messageConsumer, times(1))
+      .dequeueAllLocked(List.of(1L, 2L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    verify(messageConsumer, never())
+      .releaseAllLocked(any(), any());
+  }
+
+  @Test
+  void runWithSupersededMessageAndUndispatchedSupersedingMessageShouldReleaseSupersededMessage() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
+      .thenReturn(List.of(
+        MessageFixture.newMessage(
+          1L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1),
+        MessageFixture.newMessage(
+          2L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1)));
+    final var outboxPoller = newCoalescingOutboxPoller(
+      messageConsumer,
+      _ -> CompletableFuture.completedFuture(DispatchResult.failed(0, new RuntimeException("An error occurred"))));
+
+    // Act
+    outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    // Assert
+    verify(messageConsumer, never())
+      .dequeueAllLocked(any(), any());
+    verify(messageConsumer, times(1))
+      .releaseAllLocked(List.of(1L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    verify(messageConsumer, times(1))
+      .retryLocked(eq(2L), eq(UUID.fromString("00000000-0000-0000-0000-000000000000")), any(Duration.class));
+  }
+
+  @Test
+  void runWithSupersededMessageBeforeAcknowledgedMessageShouldDequeueSupersededMessage() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
+      .thenReturn(List.of(
+        MessageFixture.newMessage(
+          1L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1),
+        MessageFixture.newMessage(
+          2L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1,
+          "OtherTestEvent",
+          new TestEvent()),
+        MessageFixture.newMessage(
+          3L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1)));
+    final var outboxPoller = newCoalescingOutboxPoller(
+      messageConsumer,
+      _ -> CompletableFuture.completedFuture(DispatchResult.failed(1, new RuntimeException("An error occurred"))));
+
+    // Act
+    outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    // Assert
+    verify(messageConsumer, times(1))
+      .dequeueAllLocked(List.of(1L, 2L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    verify(messageConsumer, times(1))
+      .retryLocked(eq(3L), eq(UUID.fromString("00000000-0000-0000-0000-000000000000")), any(Duration.class));
+    verify(messageConsumer, never())
+      .releaseAllLocked(any(), any());
+  }
+
+  @Test
+  void runWithExhaustedUndispatchableMessageShouldDeadLetterMessage() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
+      .thenReturn(List.of(
+        MessageFixture.newUndispatchableMessage(
+          1L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          10)));
+    final var applicationEventPublisher = mock(ApplicationEventPublisher.class);
+
+    doThrow(new RuntimeException("An error occurred"))
+      .when(applicationEventPublisher)
+      .publishEvent(new TestEvent(false));
+    final var outboxPoller = new OutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(),
+      messageConsumer,
+      new SerializableMessageCodec(),
+      applicationEventPublisher,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+
+    // Act
+    outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    // Assert
+    verify(messageConsumer, times(1))
+      .deadLetterLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    verify(messageConsumer, never())
+      .retryLocked(any(), any(), any());
+  }
+
+  @Test
+  void runShouldDeadLetterExhaustedMessagesOncePerLockDuration() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
+      .thenReturn(List.of());
+    final var outboxPoller = new OutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(),
+      messageConsumer,
+      new SerializableMessageCodec(),
+      mock(ApplicationEventPublisher.class),
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+
+    // Act
+    outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+
+    // Assert
+    verify(messageConsumer, times(1))
+      .deadLetterAllExhausted(Partitions.all());
+  }
+
+  @Test
+  void runWithFewerLockedGroupsThanLockLimitShouldKeepLockLimit() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
+      .thenReturn(LongStream.rangeClosed(1L, 100L)
+        .mapToObj(s -> MessageFixture.newMessage(
+          s,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1))
+        .toList())
+      .thenReturn(List.of());
+    final var outboxPoller = newOutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(),
+      messageConsumer,
+      m -> CompletableFuture.completedFuture(DispatchResult.acknowledged(m.size())));
+
+    outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    // Act
+    outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+
+    // Assert
+    verify(messageConsumer, times(1))
+      .lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000001"), Partitions.all(), 100, 1);
+  }
+
+  @Test
+  void wakeUpShouldPollMessages() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
+      .thenReturn(List.of());
+    final var applicationEventPublisher = mock(ApplicationEventPublisher.class);
+    final var outboxPoller = new OutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(),
+      messageConsumer,
+      new SerializableMessageCodec(),
+      applicationEventPublisher,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+
+    // Act
+    outboxPoller.wakeUp();
+
+    // Assert
+    verify(messageConsumer, timeout(1000L).times(1))
+      .lockAllNextActive(any(UUID.class), eq(Partitions.all()), eq(100), eq(1));
+  }
+
+  @Test
+  void runAfterStopShouldNotLockMessages() {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+    final var outboxPoller = new OutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(),
+      messageConsumer,
+      new SerializableMessageCodec(),
+      mock(ApplicationEventPublisher.class),
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+
+    outboxPoller.stop();
+
+    // Act
+    outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+
+    // Assert
+    verify(messageConsumer, never())
+      .lockAllNextActive(any(), any(), anyInt(), anyInt());
+    verify(messageConsumer, never())
+      .requeueAllLocked(any(), any());
+  }
+
+  @Test
+  void stopWithInFlightDispatchShouldAwaitDispatch() throws Exception {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
+      .thenReturn(List.of(
+        MessageFixture.newMessage(
+          1L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1)));
+    final var dispatchStarted = new CountDownLatch(1);
+    final var dispatch = new CompletableFuture<DispatchResult>();
+    final var outboxPoller = newOutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(10, Duration.ofSeconds(10L)),
+      messageConsumer,
+      m -> {
+        dispatchStarted.countDown();
+
+        return dispatch;
+      });
+
+    Thread.ofVirtual().start(() -> outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000")));
+    dispatchStarted.await();
+    CompletableFuture.delayedExecutor(100L, TimeUnit.MILLISECONDS)
+      .execute(() -> dispatch.complete(DispatchResult.acknowledged(1)));
+
+    // Act
+    outboxPoller.stop();
+
+    // Assert
+    verify(messageConsumer, times(1))
+      .dequeueAllLocked(List.of(1L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    verify(messageConsumer, never())
+      .requeueAllLocked(any(), any());
+  }
+
+  @Test
+  void stopWithPendingGroupDispatchShouldReleasePendingGroupMessages() throws Exception {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
+      .thenReturn(List.of(
+        MessageFixture.newMessage(
+          1L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1),
+        MessageFixture.newMessage(
+          2L,
+          "B",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1)));
+    final var dispatchStarted = new CountDownLatch(1);
+    final var dispatch = new CompletableFuture<DispatchResult>();
+    final var messageDispatcher = mock(MessageDispatcher.class);
+
+    when(messageDispatcher.dispatchAll(any(), any()))
+      .thenAnswer(i -> {
+        dispatchStarted.countDown();
+
+        return dispatch;
+      });
+    final var outboxPoller = newOutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(1, Duration.ofSeconds(10L)),
+      messageConsumer,
+      messageDispatcher);
+
+    Thread.ofVirtual().start(() -> outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000")));
+    dispatchStarted.await();
+    CompletableFuture.delayedExecutor(100L, TimeUnit.MILLISECONDS)
+      .execute(() -> dispatch.complete(DispatchResult.acknowledged(1)));
+
+    // Act
+    outboxPoller.stop();
+
+    // Assert
+    verify(messageDispatcher, times(1))
+      .dispatchAll(any(), any());
+    verify(messageConsumer, times(1))
+      .dequeueAllLocked(List.of(1L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    verify(messageConsumer, times(1))
+      .releaseAllLocked(List.of(2L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+  }
+
+  @Test
+  void stopWithTimedOutDispatchShouldRequeueMessages() throws Exception {
+    // Arrange
+    final var messageConsumer = mock(MessageConsumer.class);
+
+    when(messageConsumer.lockAllNextActive(any(), any(), anyInt(), anyInt()))
+      .thenReturn(List.of(
+        MessageFixture.newMessage(
+          1L,
+          "A",
+          Instant.EPOCH,
+          Instant.EPOCH,
+          UUID.fromString("00000000-0000-0000-0000-000000000000"),
+          1)));
+    final var dispatchStarted = new CountDownLatch(1);
+    final var dispatch = new CompletableFuture<DispatchResult>();
+    final var outboxPoller = newOutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(10, Duration.ofMillis(100L)),
+      messageConsumer,
+      m -> {
+        dispatchStarted.countDown();
+
+        return dispatch;
+      });
+
+    final var poll = Thread.ofVirtual()
+      .start(() -> outboxPoller.run(UUID.fromString("00000000-0000-0000-0000-000000000000")));
+    dispatchStarted.await();
+
+    // Act
+    outboxPoller.stop();
+
+    // Assert
+    verify(messageConsumer, times(1))
+      .requeueAllLocked(List.of(1L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    verify(messageConsumer, never())
+      .releaseAllLocked(any(), any());
+    verify(messageConsumer, never())
+      .dequeueAllLocked(any(), any());
+    assertTrue(poll.join(Duration.ofSeconds(1L)));
+  }
+
+  @Test
+  void isRunningBeforeStartShouldReturnFalse() {
+    // Arrange
+    final var outboxPoller = newOutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(),
+      mock(MessageConsumer.class),
+      m -> CompletableFuture.completedFuture(DispatchResult.acknowledged(m.size())));
+
+    // Act
+    final var running = outboxPoller.isRunning();
+
+    // Assert
+    assertFalse(running);
+  }
+
+  @Test
+  void isRunningAfterStopShouldReturnFalse() {
+    // Arrange
+    final var outboxPoller = newOutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(),
+      mock(MessageConsumer.class),
+      m -> CompletableFuture.completedFuture(DispatchResult.acknowledged(m.size())));
+
+    outboxPoller.start();
+
+    // Act
+    outboxPoller.stop();
+
+    // Assert
+    assertFalse(outboxPoller.isRunning());
+  }
 }
@@ -1,19 +1,126 @@
 package com.github.seedwork.infrastructure.outbox;
 
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Map;
 
 public final class OutboxPropertiesFixture {
 
   private OutboxPropertiesFixture() {
   }
 
-  public static OutboxProperties newOutboxProperties() {
+  private static OutboxProperties newOutboxProperties(final Duration maxPollInterval,
+                                                      final Duration lockDuration,
+                                                      final LockStrategy lockStrategy,
+                                                      final Map<String, Integer> subjectPriorities,
+                                                      final int maxConcurrency,
+                                                      final int partitionCount,
+                                                      final Duration partitionLeaseDuration,
+                                                      final int maxPollers,
+                                                      final Duration shutdownTimeout) {
     return new OutboxProperties(
       true,
+      OutboxStore.JPA,
+      Path.of("outbox-journal"),
+      DataSize.ofMegabytes(64L),
+      OutboxDispatcher.EVENT,
+      Path.of("outbox-messages"),
+      0,
       Duration.ofSeconds(1L),
-      Duration.ofSeconds(30L),
+      maxPollInterval,
+      lockDuration,
       100,
+      1000,
+      Duration.ofSeconds(1L),
+      1,
+      lockStrategy,
+      subjectPriorities,
       10,
-      10);
+      10,
+      Duration.ofMillis(100L),
+      Duration.ofMinutes(5L),
+      maxConcurrency,
+      partitionCount,
+      partitionLeaseDuration,
+      maxPollers,
+      Duration.ofSeconds(10L),
+      shutdownTimeout);
+  }
+
+  public static OutboxProperties newOutboxProperties() {
+    return newOutboxProperties(
+      Duration.ofSeconds(10L),
+      Duration.ofSeconds(30L),
+      LockStrategy.GROUP_SCAN,
+      Map.of(),
+      10,
+      16,
+      Duration.ZERO,
+      0,
+      Duration.ofSeconds(10L));
+  }
+
+  public static OutboxProperties newOutboxProperties(final Duration maxPollInterval,
+                                                     final int partitionCount,
+                                                     final Duration partitionLeaseDuration) {
+    return newOutboxProperties(maxPollInterval, partitionCount, partitionLeaseDuration, 0);
+  }
+
+  public static OutboxProperties newOutboxProperties(final Duration maxPollInterval,
+                                                     final int partitionCount,
+                                                     final Duration partitionLeaseDuration,
+                                                     final int maxPollers) {
+    return newOutboxProperties(
+      maxPollInterval,
+      Duration.ofSeconds(30L),
+      LockStrategy.GROUP_SCAN,
+      Map.of(),
+      10,
+      partitionCount,
+      partitionLeaseDuration,
+      maxPollers,
+      Duration.ofSeconds(10L));
+  }
+
+  public static OutboxProperties newOutboxProperties(final Duration lockDuration) {
+    return newOutboxProperties(
+      Duration.ofSeconds(10L),
+      lockDuration,
+      LockStrategy.GROUP_SCAN,
+      Map.of(),
+      10,
+      16,
+      Duration.ZERO,
+      0,
+      Duration.ofSeconds(10L));
+  }
+
+  public static OutboxProperties newOutboxProperties(final int maxConcurrency, final Duration shutdownTimeout) {
+    return newOutboxProperties(
+      Duration.ofSeconds(10L),
+      Duration.ofSeconds(30L),
+      LockStrategy.GROUP_SCAN,
+      Map.of(),
+      maxConcurrency,
+      16,
+      Duration.ZERO,
+      0,
+      shutdownTimeout);
+  }
+
+  public static OutboxProperties newOutboxProperties(final LockStrategy lockStrategy,
+                                                     final Map<String, Integer> subjectPriorities) {
+    return newOutboxProperties(
+      Duration.ofSeconds(10L),
+      Duration.ofSeconds(30L),
+      lockStrategy,
+      subjectPriorities,
+      1,
+      16,
+      Duration.ZERO,
+      0,
+      Duration.ofSeconds(10L));
   }
 }
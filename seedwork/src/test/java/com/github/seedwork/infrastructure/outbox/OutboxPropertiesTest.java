@@ -0,0 +1,131 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxPropertiesTest {
+
+  @Test
+  void validateWithoutPartitioningShouldSucceed() {
+    // Arrange
+    final var properties = OutboxPropertiesFixture.newOutboxProperties();
+
+    try (final var validatorFactory = Validation.buildDefaultValidatorFactory()) {
+      // Act
+      final var violations = validatorFactory.getValidator().validate(properties);
+
+      // Assert
+      assertTrue(violations.isEmpty());
+    }
+  }
+
+  @Test
+  void validateWithPartitionLeaseDurationExceedingTwiceMaxPollIntervalShouldSucceed() {
+    // Arrange
+    final var properties = OutboxPropertiesFixture.newOutboxProperties(
+      Duration.ofSeconds(10L),
+      16,
+      Duration.ofSeconds(30L));
+
+    try (final var validatorFactory = Validation.buildDefaultValidatorFactory()) {
+      // Act
+      final var violations = validatorFactory.getValidator().validate(properties);
+
+      // Assert
+      assertTrue(violations.isEmpty());
+    }
+  }
+
+  @Test
+  void validateWithPartitionLeaseDurationNotExceedingTwiceMaxPollIntervalShouldFail() {
+    // Arrange
+    final var properties = OutboxPropertiesFixture.newOutboxProperties(
+      Duration.ofSeconds(10L),
+      16,
+      Duration.ofSeconds(20L));
+
+    try (final var validatorFactory = Validation.buildDefaultValidatorFactory()) {
+      // Act
+      final var violations = validatorFactory.getValidator().validate(properties);
+
+      // Assert
+      assertEquals(1, violations.size());
+      assertEquals("partitionLeaseDurationValid", violations.iterator().next().getPropertyPath().toString());
+    }
+  }
+
+  @Test
+  void validateWithMaxPollersWithoutPartitioningShouldFail() {
+    // Arrange
+    final var properties = OutboxPropertiesFixture.newOutboxProperties(
+      Duration.ofSeconds(10L),
+      16,
+      Duration.ZERO,
+      2);
+
+    try (final var validatorFactory = Validation.buildDefaultValidatorFactory()) {
+      // Act
+      final var violations = validatorFactory.getValidator().validate(properties);
+
+      // Assert
+      assertEquals(1, violations.size());
+      assertEquals("maxPollersValid", violations.iterator().next().getPropertyPath().toString());
+    }
+  }
+
+  @Test
+  void validateWithMaxPollersWithPartitioningShouldSucceed() {
+    // Arrange
+    final var properties = OutboxPropertiesFixture.newOutboxProperties(
+      Duration.ofSeconds(10L),
+      16,
+      Duration.ofSeconds(30L),
+      2);
+
+    try (final var validatorFactory = Validation.buildDefaultValidatorFactory()) {
+      // Act
+      final var violations = validatorFactory.getValidator().validate(properties);
+
+      // Assert
+      assertTrue(violations.isEmpty());
+    }
+  }
+
+  @Test
+  void validateWithGroupHeadStrategyAndSubjectPrioritiesShouldFail() {
+    // Arrange
+    final var properties = OutboxPropertiesFixture.newOutboxProperties(
+      LockStrategy.GROUP_HEAD,
+      Map.of("TestEvent", 1));
+
+    try (final var validatorFactory = Validation.buildDefaultValidatorFactory()) {
+      // Act
+      final var violations = validatorFactory.getValidator().validate(properties);
+
+      // Assert
+      assertEquals(1, violations.size());
+      assertEquals("lockStrategyValid", violations.iterator().next().getPropertyPath().toString());
+    }
+  }
+
+  @Test
+  void validateWithGroupScanStrategyAndSubjectPrioritiesShouldSucceed() {
+    // Arrange
+    final var properties = OutboxPropertiesFixture.newOutboxProperties(
+      LockStrategy.GROUP_SCAN,
+      Map.of("TestEvent", 1));
+
+    try (final var validatorFactory = Validation.buildDefaultValidatorFactory()) {
+      // Act
+      final var violations = validatorFactory.getValidator().validate(properties);
+
+      // Assert
+      assertTrue(violations.isEmpty());
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.github.seedwork.infrastructure.outbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBackoffTest {
+
+  @Test
+  void delayWithFirstAttemptShouldReturnMinDelayWithJitter() {
+    // Arrange
+    final var retryBackoff = new RetryBackoff(Duration.ofSeconds(1L), Duration.ofMinutes(5L));
+
+    // Act
+    final var delay = retryBackoff.delay(1);
+
+    // Assert
+    assertTrue(delay.compareTo(Duration.ofMillis(500L)) >= 0);
+    assertTrue(delay.compareTo(Duration.ofSeconds(1L)) <= 0);
+  }
+
+  @Test
+  void delayWithSubsequentAttemptShouldReturnExponentialDelayWithJitter() {
+    // Arrange
+    final var retryBackoff = new RetryBackoff(Duration.ofSeconds(1L), Duration.ofMinutes(5L));
+
+    // Act
+    final var delay = retryBackoff.delay(4);
+
+    // Assert
+    assertTrue(delay.compareTo(Duration.ofSeconds(4L)) >= 0);
+    assertTrue(delay.compareTo(Duration.ofSeconds(8L)) <= 0);
+  }
+
+  @Test
+  void delayWithExcessiveAttemptShouldReturnMaxDelayWithJitter() {
+    // Arrange
+    final var retryBackoff = new RetryBackoff(Duration.ofSeconds(1L), Duration.ofMinutes(5L));
+
+    // Act
+    final var delay = retryBackoff.delay(100);
+
+    // Assert
+    assertTrue(delay.compareTo(Duration.ofSeconds(150L)) >= 0);
+    assertTrue(delay.compareTo(Duration.ofMinutes(5L)) <= 0);
+  }
+}
@@ -0,0 +1,239 @@
+package com.github.seedwork.infrastructure.persistence.outbox;
+
+import com.github.seedwork.infrastructure.outbox.LockStrategy;
+import com.github.seedwork.infrastructure.outbox.MessageFixture;
+import com.github.seedwork.infrastructure.outbox.OutboxMetrics;
+import com.github.seedwork.infrastructure.persistence.PersistenceTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = "outbox.lock-strategy=group-head")
+class JpaMessageConsumerGroupHeadTest extends PersistenceTest {
+
+  @Autowired
+  private JpaMessageRepository messageRepository;
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Test
+  void lockAllNextActiveWithGroupHeadStrategyShouldReturnNextActiveGroupMessages() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10,
+      OutboxMetrics.noop(),
+      LockStrategy.GROUP_HEAD);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(2, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(3L, messages.getLast().sequenceNumber());
+    assertEquals("B", messages.getLast().groupId());
+  }
+
+  @Test
+  void lockAllNextActiveWithGroupHeadStrategyAndActiveLockedGroupShouldReturnNoMessages() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.randomUUID(),
+        1));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10,
+      OutboxMetrics.noop(),
+      LockStrategy.GROUP_HEAD);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(0, messages.size());
+  }
+
+  @Test
+  void lockAllNextActiveWithGroupHeadStrategyAfterDequeueShouldReturnNextGroupMessage() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10,
+      OutboxMetrics.noop(),
+      LockStrategy.GROUP_HEAD);
+
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      messageConsumer.dequeueAllLocked(List.of(1L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    });
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000001"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(1, messages.size());
+    assertEquals(2L, messages.getFirst().sequenceNumber());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000001"), messages.getFirst().lockId());
+  }
+
+  @Test
+  void lockAllNextActiveWithGroupHeadStrategyAndDeadLetteredGroupShouldNotLockLaterGroupMessages() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        10));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10,
+      OutboxMetrics.noop(),
+      LockStrategy.GROUP_HEAD);
+
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageConsumer.deadLetterLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000"));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+    });
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000001"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(1, messages.size());
+    assertEquals(3L, messages.getFirst().sequenceNumber());
+    assertEquals("B", messages.getFirst().groupId());
+  }
+
+  @Test
+  void lockAllNextActiveWithGroupHeadStrategyAndScheduledMessageShouldReturnMessageOnlyWhenDue() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(60L),
+        null,
+        0));
+    });
+    final var dueMessageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH.plusSeconds(60L), ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10,
+      OutboxMetrics.noop(),
+      LockStrategy.GROUP_HEAD);
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10,
+      OutboxMetrics.noop(),
+      LockStrategy.GROUP_HEAD);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+    final var dueMessages = transactionTemplate.execute(ts -> {
+      return dueMessageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(0, messages.size());
+    assertNotNull(dueMessages);
+    assertEquals(1, dueMessages.size());
+    assertEquals(1L, dueMessages.getFirst().sequenceNumber());
+  }
+}
@@ -1,10 +1,19 @@
 package com.github.seedwork.infrastructure.persistence.outbox;
 
+import com.github.seedwork.domain.TestEvent;
+import com.github.seedwork.infrastructure.outbox.LockStrategy;
+import com.github.seedwork.infrastructure.outbox.Message;
 import com.github.seedwork.infrastructure.outbox.MessageException;
+import com.github.seedwork.infrastructure.outbox.MessageFilter;
 import com.github.seedwork.infrastructure.outbox.MessageFixture;
+import com.github.seedwork.infrastructure.outbox.MessageLane;
+import com.github.seedwork.infrastructure.outbox.OutboxMetrics;
+import com.github.seedwork.infrastructure.outbox.Partitions;
 import com.github.seedwork.infrastructure.persistence.PersistenceTest;
+import org.flywaydb.core.Flyway;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Clock;
@@ -12,7 +21,9 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,6 +33,10 @@ class JpaMessageConsumerTest extends PersistenceTest {
   private JpaMessageRepository messageRepository;
   @Autowired
   private TransactionTemplate transactionTemplate;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  @Autowired
+  private Flyway flyway;
 
   @Test
   void countWithNoMessagesShouldReturnMessageCounts() {
@@ -204,19 +219,21 @@ class JpaMessageConsumerTest extends PersistenceTest {
   }
 
   @Test
-  void peekAllShouldReturnMessages() {
+  void peekAllAfterShouldMapMessageHeaders() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
-        Instant.EPOCH,
-        null,
-        0));
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        1,
+        "OtherEvent",
+        new TestEvent()));
       messageRepository.enqueue(MessageFixture.newMessage(
         "B",
-        Instant.EPOCH,
-        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(10L),
+        Instant.EPOCH.plusSeconds(20L),
         null,
         10));
     });
@@ -228,7 +245,7 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.peekAll(0L, 100);
+      return messageConsumer.peekAllAfter(null, MessageFilter.none(), 100);
     });
 
     // Assert
@@ -237,19 +254,21 @@ class JpaMessageConsumerTest extends PersistenceTest {
     assertEquals(1L, messages.getFirst().sequenceNumber());
     assertEquals("A", messages.getFirst().groupId());
     assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
-    assertEquals(Instant.EPOCH, messages.getFirst().availableAt());
-    assertNull(messages.getFirst().lockId());
-    assertEquals(0, messages.getFirst().attemptCount());
+    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
+    assertEquals(1, messages.getFirst().attemptCount());
+    assertEquals("OtherEvent", messages.getFirst().subject());
     assertEquals(2L, messages.getLast().sequenceNumber());
     assertEquals("B", messages.getLast().groupId());
-    assertEquals(Instant.EPOCH, messages.getLast().enqueuedAt());
-    assertEquals(Instant.EPOCH, messages.getLast().availableAt());
+    assertEquals(Instant.EPOCH.plusSeconds(10L), messages.getLast().enqueuedAt());
+    assertEquals(Instant.EPOCH.plusSeconds(20L), messages.getLast().availableAt());
     assertNull(messages.getLast().lockId());
     assertEquals(10, messages.getLast().attemptCount());
+    assertEquals(TestEvent.class.getSimpleName(), messages.getLast().subject());
   }
 
   @Test
-  void lockAllNextActiveWithActiveGroupShouldReturnNextActiveGroupMessage() {
+  void peekAllAfterShouldReturnMessagesAfterSequenceNumber() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -259,7 +278,13 @@ class JpaMessageConsumerTest extends PersistenceTest {
         null,
         0));
       messageRepository.enqueue(MessageFixture.newMessage(
-        "A",
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "C",
         Instant.EPOCH,
         Instant.EPOCH,
         null,
@@ -273,36 +298,38 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.peekAllAfter(1L, MessageFilter.none(), 1);
     });
 
     // Assert
     assertNotNull(messages);
     assertEquals(1, messages.size());
-    assertEquals(1L, messages.getFirst().sequenceNumber());
-    assertEquals("A", messages.getFirst().groupId());
-    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
-    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
-    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
-    assertEquals(1, messages.getFirst().attemptCount());
+    assertEquals(2L, messages.getFirst().sequenceNumber());
+    assertEquals("B", messages.getFirst().groupId());
   }
 
   @Test
-  void lockAllNextActiveWithActiveLockedGroupShouldReturnNoMessages() {
+  void peekAllAfterWithFilterShouldReturnMatchingMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
-        Instant.EPOCH.plusSeconds(30L),
-        UUID.randomUUID(),
+        Instant.EPOCH,
+        null,
         0));
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
         Instant.EPOCH,
         null,
-        0));
+        10));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        10));
     });
     final var messageConsumer = new JpaMessageConsumer(
       messageRepository,
@@ -312,16 +339,19 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.peekAllAfter(null, new MessageFilter("A", "TestEvent", true), 100);
     });
 
     // Assert
     assertNotNull(messages);
-    assertEquals(0, messages.size());
+    assertEquals(1, messages.size());
+    assertEquals(2L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(10, messages.getFirst().attemptCount());
   }
 
   @Test
-  void lockAllNextActiveWithFailedGroupShouldReturnNoMessages() {
+  void peekAllAfterWithGroupIdFilterShouldReturnGroupMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -329,13 +359,13 @@ class JpaMessageConsumerTest extends PersistenceTest {
         Instant.EPOCH,
         Instant.EPOCH,
         null,
-        10));
+        0));
       messageRepository.enqueue(MessageFixture.newMessage(
-        "A",
+        "B",
         Instant.EPOCH,
         Instant.EPOCH,
         null,
-        0));
+        10));
     });
     final var messageConsumer = new JpaMessageConsumer(
       messageRepository,
@@ -345,30 +375,38 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.peekAllAfter(null, new MessageFilter("B", null, false), 100);
     });
 
     // Assert
     assertNotNull(messages);
-    assertEquals(0, messages.size());
+    assertEquals(1, messages.size());
+    assertEquals(2L, messages.getFirst().sequenceNumber());
+    assertEquals("B", messages.getFirst().groupId());
   }
 
   @Test
-  void lockAllNextActiveWithFailedLockedGroupShouldReturnNoMessages() {
+  void peekAllAfterWithFailedOnlyFilterShouldReturnFailedMessagesAfterSequenceNumber() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
-        Instant.EPOCH.plusSeconds(30L),
-        UUID.randomUUID(),
+        Instant.EPOCH,
+        null,
         10));
       messageRepository.enqueue(MessageFixture.newMessage(
-        "A",
+        "B",
         Instant.EPOCH,
         Instant.EPOCH,
         null,
         0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "C",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        10));
     });
     final var messageConsumer = new JpaMessageConsumer(
       messageRepository,
@@ -378,16 +416,18 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.peekAllAfter(1L, new MessageFilter(null, null, true), 100);
     });
 
     // Assert
     assertNotNull(messages);
-    assertEquals(0, messages.size());
+    assertEquals(1, messages.size());
+    assertEquals(3L, messages.getFirst().sequenceNumber());
+    assertEquals("C", messages.getFirst().groupId());
   }
 
   @Test
-  void lockAllNextActiveWithActiveGroupAndActiveGroupShouldReturnNextActiveGroupMessages() {
+  void lockAllNextActiveWithActiveGroupShouldReturnNextActiveGroupMessage() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -397,7 +437,7 @@ class JpaMessageConsumerTest extends PersistenceTest {
         null,
         0));
       messageRepository.enqueue(MessageFixture.newMessage(
-        "B",
+        "A",
         Instant.EPOCH,
         Instant.EPOCH,
         null,
@@ -416,36 +456,30 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Assert
     assertNotNull(messages);
-    assertEquals(2, messages.size());
+    assertEquals(1, messages.size());
     assertEquals(1L, messages.getFirst().sequenceNumber());
     assertEquals("A", messages.getFirst().groupId());
     assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
     assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
     assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
     assertEquals(1, messages.getFirst().attemptCount());
-    assertEquals(2L, messages.getLast().sequenceNumber());
-    assertEquals("B", messages.getLast().groupId());
-    assertEquals(Instant.EPOCH, messages.getLast().enqueuedAt());
-    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getLast().availableAt());
-    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getLast().lockId());
-    assertEquals(1, messages.getLast().attemptCount());
   }
 
   @Test
-  void lockAllNextActiveWithActiveGroupAndActiveLockedGroupShouldReturnNextActiveGroupMessage() {
+  void lockAllNextActiveWithActiveLockedGroupShouldReturnNoMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
-        Instant.EPOCH,
-        null,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.randomUUID(),
         0));
       messageRepository.enqueue(MessageFixture.newMessage(
-        "B",
+        "A",
         Instant.EPOCH,
-        Instant.EPOCH.plusSeconds(30L),
-        UUID.randomUUID(),
+        Instant.EPOCH,
+        null,
         0));
     });
     final var messageConsumer = new JpaMessageConsumer(
@@ -461,17 +495,11 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Assert
     assertNotNull(messages);
-    assertEquals(1, messages.size());
-    assertEquals(1L, messages.getFirst().sequenceNumber());
-    assertEquals("A", messages.getFirst().groupId());
-    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
-    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
-    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
-    assertEquals(1, messages.getFirst().attemptCount());
+    assertEquals(0, messages.size());
   }
 
   @Test
-  void lockAllNextActiveWithActiveGroupAndFailedGroupShouldReturnNextActiveGroupMessage() {
+  void lockAllNextActiveWithFailedGroupShouldReturnNoMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -479,13 +507,13 @@ class JpaMessageConsumerTest extends PersistenceTest {
         Instant.EPOCH,
         Instant.EPOCH,
         null,
-        0));
+        10));
       messageRepository.enqueue(MessageFixture.newMessage(
-        "B",
+        "A",
         Instant.EPOCH,
         Instant.EPOCH,
         null,
-        10));
+        0));
     });
     final var messageConsumer = new JpaMessageConsumer(
       messageRepository,
@@ -500,31 +528,25 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Assert
     assertNotNull(messages);
-    assertEquals(1, messages.size());
-    assertEquals(1L, messages.getFirst().sequenceNumber());
-    assertEquals("A", messages.getFirst().groupId());
-    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
-    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
-    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
-    assertEquals(1, messages.getFirst().attemptCount());
+    assertEquals(0, messages.size());
   }
 
   @Test
-  void lockAllNextActiveWithActiveGroupAndFailedLockedGroupShouldReturnNextActiveGroupMessage() {
+  void lockAllNextActiveWithFailedLockedGroupShouldReturnNoMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
-        Instant.EPOCH,
-        null,
-        0));
-      messageRepository.enqueue(MessageFixture.newMessage(
-        "B",
-        Instant.EPOCH,
         Instant.EPOCH.plusSeconds(30L),
         UUID.randomUUID(),
         10));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
     });
     final var messageConsumer = new JpaMessageConsumer(
       messageRepository,
@@ -539,30 +561,24 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Assert
     assertNotNull(messages);
-    assertEquals(1, messages.size());
-    assertEquals(1L, messages.getFirst().sequenceNumber());
-    assertEquals("A", messages.getFirst().groupId());
-    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
-    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
-    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
-    assertEquals(1, messages.getFirst().attemptCount());
+    assertEquals(0, messages.size());
   }
 
   @Test
-  void lockAllNextActiveWithActiveLockedGroupAndActiveLockedGroupShouldReturnNoMessage() {
+  void lockAllNextActiveWithActiveGroupAndActiveGroupShouldReturnNextActiveGroupMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
-        Instant.EPOCH.plusSeconds(30L),
-        UUID.randomUUID(),
+        Instant.EPOCH,
+        null,
         0));
       messageRepository.enqueue(MessageFixture.newMessage(
         "B",
         Instant.EPOCH,
-        Instant.EPOCH.plusSeconds(30L),
-        UUID.randomUUID(),
+        Instant.EPOCH,
+        null,
         0));
     });
     final var messageConsumer = new JpaMessageConsumer(
@@ -578,31 +594,51 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Assert
     assertNotNull(messages);
-    assertEquals(0, messages.size());
+    assertEquals(2, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
+    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
+    assertEquals(1, messages.getFirst().attemptCount());
+    assertEquals(2L, messages.getLast().sequenceNumber());
+    assertEquals("B", messages.getLast().groupId());
+    assertEquals(Instant.EPOCH, messages.getLast().enqueuedAt());
+    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getLast().availableAt());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getLast().lockId());
+    assertEquals(1, messages.getLast().attemptCount());
   }
 
   @Test
-  void lockAllNextActiveWithActiveLockedGroupAndFailedGroupShouldReturnNoMessage() {
+  void lockAllNextActiveWithSkipLockedStrategyShouldReturnNextActiveGroupMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
-        Instant.EPOCH.plusSeconds(30L),
-        UUID.randomUUID(),
+        Instant.EPOCH,
+        null,
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
         0));
       messageRepository.enqueue(MessageFixture.newMessage(
         "B",
         Instant.EPOCH,
         Instant.EPOCH,
         null,
-        10));
+        0));
     });
     final var messageConsumer = new JpaMessageConsumer(
       messageRepository,
       Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
       Duration.ofSeconds(30L),
-      10);
+      10,
+      OutboxMetrics.noop(),
+      LockStrategy.SKIP_LOCKED);
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
@@ -611,11 +647,17 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Assert
     assertNotNull(messages);
-    assertEquals(0, messages.size());
+    assertEquals(2, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
+    assertEquals(3L, messages.getLast().sequenceNumber());
+    assertEquals("B", messages.getLast().groupId());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getLast().lockId());
   }
 
   @Test
-  void lockAllNextActiveWithActiveLockedGroupAndFailedLockedGroupShouldReturnNoMessage() {
+  void lockAllNextActiveWithSkipLockedStrategyAndActiveLockedGroupShouldReturnNoMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -623,19 +665,21 @@ class JpaMessageConsumerTest extends PersistenceTest {
         Instant.EPOCH,
         Instant.EPOCH.plusSeconds(30L),
         UUID.randomUUID(),
-        0));
+        1));
       messageRepository.enqueue(MessageFixture.newMessage(
-        "B",
+        "A",
         Instant.EPOCH,
-        Instant.EPOCH.plusSeconds(30L),
-        UUID.randomUUID(),
-        10));
+        Instant.EPOCH,
+        null,
+        0));
     });
     final var messageConsumer = new JpaMessageConsumer(
       messageRepository,
       Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
       Duration.ofSeconds(30L),
-      10);
+      10,
+      OutboxMetrics.noop(),
+      LockStrategy.SKIP_LOCKED);
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
@@ -648,7 +692,7 @@ class JpaMessageConsumerTest extends PersistenceTest {
   }
 
   @Test
-  void lockAllNextActiveWithFailedGroupAndFailedGroupShouldReturnNoMessage() {
+  void lockAllNextActiveWithSkipLockedStrategyAndGroupLimitShouldReturnNextActiveGroupMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -656,32 +700,46 @@ class JpaMessageConsumerTest extends PersistenceTest {
         Instant.EPOCH,
         Instant.EPOCH,
         null,
-        10));
+        0));
       messageRepository.enqueue(MessageFixture.newMessage(
-        "B",
+        "A",
         Instant.EPOCH,
         Instant.EPOCH,
         null,
-        10));
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
     });
     final var messageConsumer = new JpaMessageConsumer(
       messageRepository,
       Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
       Duration.ofSeconds(30L),
-      10);
+      10,
+      OutboxMetrics.noop(),
+      LockStrategy.SKIP_LOCKED);
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.lockAllNextActive(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        Partitions.all(),
+        100,
+        2);
     });
 
     // Assert
     assertNotNull(messages);
-    assertEquals(0, messages.size());
+    assertEquals(2, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals(2L, messages.getLast().sequenceNumber());
   }
 
   @Test
-  void lockAllNextActiveWithFailedGroupAndFailedLockedGroupShouldReturnNoMessage() {
+  void mergeAllGroupsWithGroupHeadStrategyShouldRebuildUntrackedGroups() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -689,48 +747,60 @@ class JpaMessageConsumerTest extends PersistenceTest {
         Instant.EPOCH,
         Instant.EPOCH,
         null,
-        10));
+        0));
       messageRepository.enqueue(MessageFixture.newMessage(
         "B",
         Instant.EPOCH,
-        Instant.EPOCH.plusSeconds(30L),
-        UUID.randomUUID(),
-        10));
+        Instant.EPOCH,
+        null,
+        0));
     });
     final var messageConsumer = new JpaMessageConsumer(
       messageRepository,
       Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
       Duration.ofSeconds(30L),
-      10);
+      10,
+      OutboxMetrics.noop(),
+      LockStrategy.GROUP_HEAD);
+    final var untrackedMessages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
 
     // Act
+    final var mergeCount = transactionTemplate.execute(ts -> {
+      return messageConsumer.mergeAllGroups();
+    });
+
+    // Assert
+    assertNotNull(untrackedMessages);
+    assertEquals(0, untrackedMessages.size());
+    assertEquals(2, mergeCount);
     final var messages = transactionTemplate.execute(ts -> {
       return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
     });
 
-    // Assert
     assertNotNull(messages);
-    assertEquals(0, messages.size());
+    assertEquals(2, messages.size());
   }
 
   @Test
-  void lockAllNextActiveWithFailedLockedGroupAndFailedLockedGroupShouldReturnNoMessage() {
+  void lockAllNextActiveWithPartitionsShouldReturnNextActivePartitionGroupMessage() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
-        Instant.EPOCH.plusSeconds(30L),
-        UUID.randomUUID(),
-        10));
+        Instant.EPOCH,
+        null,
+        0));
       messageRepository.enqueue(MessageFixture.newMessage(
         "B",
         Instant.EPOCH,
-        Instant.EPOCH.plusSeconds(30L),
-        UUID.randomUUID(),
-        10));
-    });
-    final var messageConsumer = new JpaMessageConsumer(
+        Instant.EPOCH,
+        null,
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
       messageRepository,
       Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
       Duration.ofSeconds(30L),
@@ -738,16 +808,22 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.lockAllNextActive(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        new Partitions(2, List.of(0)),
+        100);
     });
 
     // Assert
     assertNotNull(messages);
-    assertEquals(0, messages.size());
+    assertEquals(1, messages.size());
+    assertEquals(2L, messages.getFirst().sequenceNumber());
+    assertEquals("B", messages.getFirst().groupId());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
   }
 
   @Test
-  void lockAllNextFailedWithActiveGroupShouldReturnNoMessages() {
+  void lockAllNextActiveWithIncludingLaneShouldReturnNextActiveLaneGroupMessage() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -755,12 +831,57 @@ class JpaMessageConsumerTest extends PersistenceTest {
         Instant.EPOCH,
         Instant.EPOCH,
         null,
+        0,
+        "PrioritizedEvent",
+        new TestEvent()));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
         0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextActive(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        Partitions.all(),
+        MessageLane.including(Set.of("PrioritizedEvent")),
+        100,
+        1);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(1, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
+  }
+
+  @Test
+  void lockAllNextActiveWithExcludingLaneShouldReturnNextActiveGroupMessageOutsideLane() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
         Instant.EPOCH,
         null,
+        0,
+        "PrioritizedEvent",
+        new TestEvent()));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
         0));
     });
     final var messageConsumer = new JpaMessageConsumer(
@@ -771,30 +892,85 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.lockAllNextActive(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        Partitions.all(),
+        MessageLane.excluding(Set.of("PrioritizedEvent")),
+        100,
+        1);
     });
 
     // Assert
     assertNotNull(messages);
-    assertEquals(0, messages.size());
+    assertEquals(1, messages.size());
+    assertEquals(2L, messages.getFirst().sequenceNumber());
+    assertEquals("B", messages.getFirst().groupId());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
   }
 
   @Test
-  void lockAllNextFailedWithActiveLockedGroupShouldReturnNoMessages() {
+  void lockAllNextActiveWithSkipLockedStrategyAndIncludingLaneShouldReturnNextActiveLaneGroupMessage() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
-        Instant.EPOCH.plusSeconds(30L),
-        UUID.randomUUID(),
+        Instant.EPOCH,
+        null,
+        0,
+        "PrioritizedEvent",
+        new TestEvent()));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
         0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10,
+      OutboxMetrics.noop(),
+      LockStrategy.SKIP_LOCKED);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextActive(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        Partitions.all(),
+        MessageLane.including(Set.of("PrioritizedEvent")),
+        100,
+        1);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(1, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
+  }
+
+  @Test
+  void lockAllNextActiveWithIncludingLaneAndGroupHeadOutsideLaneShouldReturnNoMessages() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
         Instant.EPOCH,
         null,
         0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0,
+        "PrioritizedEvent",
+        new TestEvent()));
     });
     final var messageConsumer = new JpaMessageConsumer(
       messageRepository,
@@ -804,16 +980,21 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.lockAllNextActive(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        Partitions.all(),
+        MessageLane.including(Set.of("PrioritizedEvent")),
+        100,
+        2);
     });
 
     // Assert
     assertNotNull(messages);
-    assertEquals(0, messages.size());
+    assertTrue(messages.isEmpty());
   }
 
   @Test
-  void lockAllNextFailedWithFailedGroupShouldReturnNextFailedGroupMessage() {
+  void lockAllNextActiveWithSkipLockedStrategyAndIncludingLaneAndGroupHeadOutsideLaneShouldReturnNoMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -821,46 +1002,55 @@ class JpaMessageConsumerTest extends PersistenceTest {
         Instant.EPOCH,
         Instant.EPOCH,
         null,
-        10));
+        0));
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
         Instant.EPOCH,
         null,
-        10));
+        0,
+        "PrioritizedEvent",
+        new TestEvent()));
     });
     final var messageConsumer = new JpaMessageConsumer(
       messageRepository,
       Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
       Duration.ofSeconds(30L),
-      10);
+      10,
+      OutboxMetrics.noop(),
+      LockStrategy.SKIP_LOCKED);
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.lockAllNextActive(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        Partitions.all(),
+        MessageLane.including(Set.of("PrioritizedEvent")),
+        100,
+        2);
     });
 
     // Assert
     assertNotNull(messages);
-    assertEquals(1, messages.size());
-    assertEquals(1L, messages.getFirst().sequenceNumber());
-    assertEquals("A", messages.getFirst().groupId());
-    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
-    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
-    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
-    assertEquals(10, messages.getFirst().attemptCount());
+    assertTrue(messages.isEmpty());
   }
 
   @Test
-  void lockAllNextFailedWithFailedLockedGroupShouldReturnNoMessages() {
+  void lockAllNextActiveWithGroupLimitShouldReturnNextActiveGroupMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
-        Instant.EPOCH.plusSeconds(30L),
-        UUID.randomUUID(),
-        10));
+        Instant.EPOCH,
+        null,
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
@@ -876,16 +1066,26 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.lockAllNextActive(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        Partitions.all(),
+        100,
+        2);
     });
 
     // Assert
     assertNotNull(messages);
-    assertEquals(0, messages.size());
+    assertEquals(2, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
+    assertEquals(2L, messages.getLast().sequenceNumber());
+    assertEquals("A", messages.getLast().groupId());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getLast().lockId());
   }
 
   @Test
-  void lockAllNextFailedWithActiveGroupAndActiveGroupShouldReturnNoMessages() {
+  void lockAllNextActiveWithGroupLimitAndFailedGroupMessageShouldReturnPrecedingGroupMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -895,7 +1095,13 @@ class JpaMessageConsumerTest extends PersistenceTest {
         null,
         0));
       messageRepository.enqueue(MessageFixture.newMessage(
-        "B",
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        10));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
         Instant.EPOCH,
         Instant.EPOCH,
         null,
@@ -909,16 +1115,22 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.lockAllNextActive(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        Partitions.all(),
+        100,
+        3);
     });
 
     // Assert
     assertNotNull(messages);
-    assertEquals(0, messages.size());
+    assertEquals(1, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
   }
 
   @Test
-  void lockAllNextFailedWithActiveGroupAndActiveLockedGroupShouldReturnNoMessages() {
+  void lockAllNextActiveWithActiveGroupAndActiveLockedGroupShouldReturnNextActiveGroupMessage() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -942,16 +1154,22 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
     });
 
     // Assert
     assertNotNull(messages);
-    assertEquals(0, messages.size());
+    assertEquals(1, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
+    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
+    assertEquals(1, messages.getFirst().attemptCount());
   }
 
   @Test
-  void lockAllNextFailedWithActiveGroupAndFailedGroupShouldReturnNextFailedGroupMessage() {
+  void lockAllNextActiveWithActiveGroupAndFailedGroupShouldReturnNextActiveGroupMessage() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -975,22 +1193,22 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
     });
 
     // Assert
     assertNotNull(messages);
     assertEquals(1, messages.size());
-    assertEquals(2L, messages.getFirst().sequenceNumber());
-    assertEquals("B", messages.getFirst().groupId());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
     assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
     assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
     assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
-    assertEquals(10, messages.getFirst().attemptCount());
+    assertEquals(1, messages.getFirst().attemptCount());
   }
 
   @Test
-  void lockAllNextFailedWithActiveGroupAndFailedLockedGroupShouldReturnNoMessages() {
+  void lockAllNextActiveWithActiveGroupAndFailedLockedGroupShouldReturnNextActiveGroupMessage() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -1014,16 +1232,22 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
     });
 
     // Assert
     assertNotNull(messages);
-    assertEquals(0, messages.size());
+    assertEquals(1, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
+    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
+    assertEquals(1, messages.getFirst().attemptCount());
   }
 
   @Test
-  void lockAllNextFailedWithActiveLockedGroupAndActiveLockedGroupShouldReturnNoMessage() {
+  void lockAllNextActiveWithActiveLockedGroupAndActiveLockedGroupShouldReturnNoMessage() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -1047,7 +1271,7 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
     });
 
     // Assert
@@ -1056,7 +1280,7 @@ class JpaMessageConsumerTest extends PersistenceTest {
   }
 
   @Test
-  void lockAllNextFailedWithActiveLockedGroupAndFailedGroupShouldReturnNextFailedGroupMessage() {
+  void lockAllNextActiveWithActiveLockedGroupAndFailedGroupShouldReturnNoMessage() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -1080,22 +1304,16 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
     });
 
     // Assert
     assertNotNull(messages);
-    assertEquals(1, messages.size());
-    assertEquals(2L, messages.getFirst().sequenceNumber());
-    assertEquals("B", messages.getFirst().groupId());
-    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
-    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
-    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
-    assertEquals(10, messages.getFirst().attemptCount());
+    assertEquals(0, messages.size());
   }
 
   @Test
-  void lockAllNextFailedWithActiveLockedGroupAndFailedLockedGroupShouldReturnNoMessage() {
+  void lockAllNextActiveWithActiveLockedGroupAndFailedLockedGroupShouldReturnNoMessage() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -1119,7 +1337,7 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
     });
 
     // Assert
@@ -1128,7 +1346,7 @@ class JpaMessageConsumerTest extends PersistenceTest {
   }
 
   @Test
-  void lockAllNextFailedWithFailedGroupAndFailedGroupShouldReturnNextFailedGroupMessages() {
+  void lockAllNextActiveWithFailedGroupAndFailedGroupShouldReturnNoMessage() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -1152,28 +1370,16 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
     });
 
     // Assert
     assertNotNull(messages);
-    assertEquals(2, messages.size());
-    assertEquals(1L, messages.getFirst().sequenceNumber());
-    assertEquals("A", messages.getFirst().groupId());
-    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
-    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
-    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
-    assertEquals(10, messages.getFirst().attemptCount());
-    assertEquals(2L, messages.getLast().sequenceNumber());
-    assertEquals("B", messages.getLast().groupId());
-    assertEquals(Instant.EPOCH, messages.getLast().enqueuedAt());
-    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getLast().availableAt());
-    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getLast().lockId());
-    assertEquals(10, messages.getLast().attemptCount());
+    assertEquals(0, messages.size());
   }
 
   @Test
-  void lockAllNextFailedWithFailedGroupAndFailedLockedGroupShouldReturnNextFailedGroupMessage() {
+  void lockAllNextActiveWithFailedGroupAndFailedLockedGroupShouldReturnNoMessage() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -1197,22 +1403,16 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
     });
 
     // Assert
     assertNotNull(messages);
-    assertEquals(1, messages.size());
-    assertEquals(1L, messages.getFirst().sequenceNumber());
-    assertEquals("A", messages.getFirst().groupId());
-    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
-    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
-    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
-    assertEquals(10, messages.getFirst().attemptCount());
+    assertEquals(0, messages.size());
   }
 
   @Test
-  void lockAllNextFailedWithFailedLockedGroupAndFailedLockedGroupShouldReturnNoMessage() {
+  void lockAllNextActiveWithFailedLockedGroupAndFailedLockedGroupShouldReturnNoMessage() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -1236,7 +1436,7 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
     });
 
     // Assert
@@ -1245,7 +1445,7 @@ class JpaMessageConsumerTest extends PersistenceTest {
   }
 
   @Test
-  void requeueLockedWithActiveMessageShouldThrowMessageException() {
+  void lockAllNextFailedWithActiveGroupShouldReturnNoMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -1254,6 +1454,12 @@ class JpaMessageConsumerTest extends PersistenceTest {
         Instant.EPOCH,
         null,
         0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
     });
     final var messageConsumer = new JpaMessageConsumer(
       messageRepository,
@@ -1262,59 +1468,1046 @@ class JpaMessageConsumerTest extends PersistenceTest {
       10);
 
     // Act
-    // Assert
-    transactionTemplate.executeWithoutResult(ts -> {
-      assertThrows(MessageException.class, () -> messageConsumer.requeueLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000")));
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
     });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(0, messages.size());
   }
 
   @Test
-  void requeueLockedWithActiveLockedMessageShouldRequeueLockedMessage() {
+  void lockAllNextFailedWithActiveLockedGroupShouldReturnNoMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
         Instant.EPOCH.plusSeconds(30L),
-        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        UUID.randomUUID(),
         0));
-    });
-    final var messageConsumer = new JpaMessageConsumer(
-      messageRepository,
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(0, messages.size());
+  }
+
+  @Test
+  void lockAllNextFailedWithFailedGroupShouldReturnNextFailedGroupMessage() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        10));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        10));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(1, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
+    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
+    assertEquals(10, messages.getFirst().attemptCount());
+  }
+
+  @Test
+  void lockAllNextFailedWithFailedLockedGroupShouldReturnNoMessages() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.randomUUID(),
+        10));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(0, messages.size());
+  }
+
+  @Test
+  void lockAllNextFailedWithActiveGroupAndActiveGroupShouldReturnNoMessages() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(0, messages.size());
+  }
+
+  @Test
+  void lockAllNextFailedWithActiveGroupAndActiveLockedGroupShouldReturnNoMessages() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.randomUUID(),
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(0, messages.size());
+  }
+
+  @Test
+  void lockAllNextFailedWithActiveGroupAndFailedGroupShouldReturnNextFailedGroupMessage() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        10));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(1, messages.size());
+    assertEquals(2L, messages.getFirst().sequenceNumber());
+    assertEquals("B", messages.getFirst().groupId());
+    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
+    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
+    assertEquals(10, messages.getFirst().attemptCount());
+  }
+
+  @Test
+  void lockAllNextFailedWithActiveGroupAndFailedLockedGroupShouldReturnNoMessages() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.randomUUID(),
+        10));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(0, messages.size());
+  }
+
+  @Test
+  void lockAllNextFailedWithActiveLockedGroupAndActiveLockedGroupShouldReturnNoMessage() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.randomUUID(),
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.randomUUID(),
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(0, messages.size());
+  }
+
+  @Test
+  void lockAllNextFailedWithActiveLockedGroupAndFailedGroupShouldReturnNextFailedGroupMessage() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.randomUUID(),
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        10));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(1, messages.size());
+    assertEquals(2L, messages.getFirst().sequenceNumber());
+    assertEquals("B", messages.getFirst().groupId());
+    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
+    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
+    assertEquals(10, messages.getFirst().attemptCount());
+  }
+
+  @Test
+  void lockAllNextFailedWithActiveLockedGroupAndFailedLockedGroupShouldReturnNoMessage() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.randomUUID(),
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.randomUUID(),
+        10));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(0, messages.size());
+  }
+
+  @Test
+  void lockAllNextFailedWithFailedGroupAndFailedGroupShouldReturnNextFailedGroupMessages() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        10));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        10));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(2, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
+    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
+    assertEquals(10, messages.getFirst().attemptCount());
+    assertEquals(2L, messages.getLast().sequenceNumber());
+    assertEquals("B", messages.getLast().groupId());
+    assertEquals(Instant.EPOCH, messages.getLast().enqueuedAt());
+    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getLast().availableAt());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getLast().lockId());
+    assertEquals(10, messages.getLast().attemptCount());
+  }
+
+  @Test
+  void lockAllNextFailedWithFailedGroupAndFailedLockedGroupShouldReturnNextFailedGroupMessage() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        10));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.randomUUID(),
+        10));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(1, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
+    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
+    assertEquals(10, messages.getFirst().attemptCount());
+  }
+
+  @Test
+  void lockAllNextFailedWithFailedLockedGroupAndFailedLockedGroupShouldReturnNoMessage() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.randomUUID(),
+        10));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.randomUUID(),
+        10));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextFailed(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(0, messages.size());
+  }
+
+  @Test
+  void extendAllLockedWithActiveLockedMessagesShouldExtendLockedMessages() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        1));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000001"),
+        1));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH.plusSeconds(10L), ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var extendCount = transactionTemplate.execute(ts -> {
+      return messageConsumer.extendAllLocked(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    });
+
+    // Assert
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageRepository.peekAllAfter(null, MessageFilter.none(), 10, 100);
+    });
+
+    assertEquals(1, extendCount);
+    assertNotNull(messages);
+    assertEquals(2, messages.size());
+    assertEquals(Instant.EPOCH.plusSeconds(40L), messages.getFirst().availableAt());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
+    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getLast().availableAt());
+  }
+
+  @Test
+  void extendAllLockedWithExpiredLockedMessagesShouldNotExtendMessages() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        1));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH.plusSeconds(60L), ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var extendCount = transactionTemplate.execute(ts -> {
+      return messageConsumer.extendAllLocked(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    });
+
+    // Assert
+    assertEquals(0, extendCount);
+  }
+
+  @Test
+  void requeueLockedWithActiveMessageShouldThrowMessageException() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    // Assert
+    transactionTemplate.executeWithoutResult(ts -> {
+      assertThrows(MessageException.class, () -> messageConsumer.requeueLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000")));
+    });
+  }
+
+  @Test
+  void requeueLockedWithActiveLockedMessageShouldRequeueLockedMessage() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageConsumer.requeueLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    });
+
+    // Assert
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageRepository.peekAllAfter(null, MessageFilter.none(), 10, 100);
+    });
+
+    assertNotNull(messages);
+    assertEquals(1, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
+    assertEquals(Instant.EPOCH, messages.getFirst().availableAt());
+    assertNull(messages.getFirst().lockId());
+    assertEquals(0, messages.getFirst().attemptCount());
+  }
+
+  @Test
+  void requeueLockedWithFailedMessageShouldThrowMessageException() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        10));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    // Assert
+    transactionTemplate.executeWithoutResult(ts -> {
+      assertThrows(MessageException.class, () -> messageConsumer.requeueLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000")));
+    });
+  }
+
+  @Test
+  void requeueLockedWithFailedLockedMessageShouldRequeueLockedMessage() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        10));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageConsumer.requeueLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    });
+
+    // Assert
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageRepository.peekAllAfter(null, MessageFilter.none(), 10, 100);
+    });
+
+    assertNotNull(messages);
+    assertEquals(1, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
+    assertEquals(Instant.EPOCH, messages.getFirst().availableAt());
+    assertNull(messages.getFirst().lockId());
+    assertEquals(0, messages.getFirst().attemptCount());
+  }
+
+  @Test
+  void requeueAllLockedWithActiveMessagesShouldThrowMessageException() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    // Assert
+    transactionTemplate.executeWithoutResult(ts -> {
+      assertThrows(MessageException.class, () -> messageConsumer.requeueAllLocked(List.of(1L, 2L), UUID.fromString("00000000-0000-0000-0000-000000000000")));
+    });
+  }
+
+  @Test
+  void requeueAllLockedWithActiveLockedMessagesShouldRequeueLockedMessages() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageConsumer.requeueAllLocked(List.of(1L, 2L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    });
+
+    // Assert
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageRepository.peekAllAfter(null, MessageFilter.none(), 10, 100);
+    });
+
+    assertNotNull(messages);
+    assertEquals(2, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
+    assertEquals(Instant.EPOCH, messages.getFirst().availableAt());
+    assertNull(messages.getFirst().lockId());
+    assertEquals(0, messages.getFirst().attemptCount());
+    assertEquals(2L, messages.getLast().sequenceNumber());
+    assertEquals("B", messages.getLast().groupId());
+    assertEquals(Instant.EPOCH, messages.getLast().enqueuedAt());
+    assertEquals(Instant.EPOCH, messages.getLast().availableAt());
+    assertNull(messages.getLast().lockId());
+    assertEquals(0, messages.getLast().attemptCount());
+  }
+
+  @Test
+  void requeueAllLockedWithFailedMessagesShouldThrowMessageException() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        10));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        10));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    // Assert
+    transactionTemplate.executeWithoutResult(ts -> {
+      assertThrows(MessageException.class, () -> messageConsumer.requeueAllLocked(List.of(1L, 2L), UUID.fromString("00000000-0000-0000-0000-000000000000")));
+    });
+  }
+
+  @Test
+  void requeueAllLockedWithFailedLockedMessagesShouldRequeueLockedMessages() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        10));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        10));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageConsumer.requeueAllLocked(List.of(1L, 2L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    });
+
+    // Assert
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageRepository.peekAllAfter(null, MessageFilter.none(), 10, 100);
+    });
+
+    assertNotNull(messages);
+    assertEquals(2, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
+    assertEquals(Instant.EPOCH, messages.getFirst().availableAt());
+    assertNull(messages.getFirst().lockId());
+    assertEquals(0, messages.getFirst().attemptCount());
+    assertEquals(2L, messages.getLast().sequenceNumber());
+    assertEquals("B", messages.getLast().groupId());
+    assertEquals(Instant.EPOCH, messages.getLast().enqueuedAt());
+    assertEquals(Instant.EPOCH, messages.getLast().availableAt());
+    assertNull(messages.getLast().lockId());
+    assertEquals(0, messages.getLast().attemptCount());
+  }
+
+  @Test
+  void retryLockedWithActiveMessageShouldThrowMessageException() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    // Assert
+    transactionTemplate.executeWithoutResult(ts -> {
+      assertThrows(MessageException.class, () -> messageConsumer.retryLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000"), Duration.ofSeconds(1L)));
+    });
+  }
+
+  @Test
+  void retryLockedWithActiveLockedMessageShouldUnlockMessageUntilRetry() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        1));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageConsumer.retryLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000"), Duration.ofSeconds(1L));
+    });
+
+    // Assert
+    final var message = transactionTemplate.execute(ts -> {
+      return messageConsumer.peek(1L);
+    });
+
+    assertNotNull(message);
+    assertEquals(Instant.EPOCH.plusSeconds(1L), message.availableAt());
+    assertNull(message.lockId());
+    assertEquals(1, message.attemptCount());
+  }
+
+  @Test
+  void releaseAllLockedWithActiveMessagesShouldThrowMessageException() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    // Assert
+    transactionTemplate.executeWithoutResult(ts -> {
+      assertThrows(MessageException.class, () -> messageConsumer.releaseAllLocked(List.of(1L), UUID.fromString("00000000-0000-0000-0000-000000000000")));
+    });
+  }
+
+  @Test
+  void releaseAllLockedWithActiveLockedMessagesShouldReleaseLockedMessages() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        1));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        1));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageConsumer.releaseAllLocked(List.of(2L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    });
+
+    // Assert
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageRepository.peekAllAfter(null, MessageFilter.none(), 10, 100);
+    });
+
+    assertNotNull(messages);
+    assertEquals(2, messages.size());
+    assertEquals(1L, messages.getFirst().sequenceNumber());
+    assertEquals(Instant.EPOCH.plusSeconds(30L), messages.getFirst().availableAt());
+    assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), messages.getFirst().lockId());
+    assertEquals(1, messages.getFirst().attemptCount());
+    assertEquals(2L, messages.getLast().sequenceNumber());
+    assertEquals(Instant.EPOCH, messages.getLast().availableAt());
+    assertNull(messages.getLast().lockId());
+    assertEquals(0, messages.getLast().attemptCount());
+  }
+
+  @Test
+  void deadLetterLockedWithActiveMessageShouldThrowMessageException() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        10));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    // Assert
+    transactionTemplate.executeWithoutResult(ts -> {
+      assertThrows(MessageException.class, () -> messageConsumer.deadLetterLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000")));
+    });
+  }
+
+  @Test
+  void deadLetterLockedWithFailedLockedMessageShouldMoveRemainingGroupMessages() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        10));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
       Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
       Duration.ofSeconds(30L),
       10);
 
     // Act
     transactionTemplate.executeWithoutResult(ts -> {
-      messageConsumer.requeueLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000"));
+      messageConsumer.deadLetterLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000"));
     });
 
     // Assert
     final var messages = transactionTemplate.execute(ts -> {
-      return messageRepository.peekAll(0L, 100);
+      return messageConsumer.peekAllAfter(null, MessageFilter.none(), 100);
     });
 
     assertNotNull(messages);
     assertEquals(1, messages.size());
-    assertEquals(1L, messages.getFirst().sequenceNumber());
-    assertEquals("A", messages.getFirst().groupId());
-    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
-    assertEquals(Instant.EPOCH, messages.getFirst().availableAt());
-    assertNull(messages.getFirst().lockId());
-    assertEquals(0, messages.getFirst().attemptCount());
+    assertEquals(3L, messages.getFirst().sequenceNumber());
+    final var deadLetters = transactionTemplate.execute(ts -> {
+      return messageConsumer.peekAllDeadLettered(0L, 100);
+    });
+
+    assertNotNull(deadLetters);
+    assertEquals(2, deadLetters.size());
+    assertEquals(1L, deadLetters.getFirst().sequenceNumber());
+    assertEquals(10, deadLetters.getFirst().attemptCount());
+    assertEquals(2L, deadLetters.getLast().sequenceNumber());
   }
 
   @Test
-  void requeueLockedWithFailedMessageShouldThrowMessageException() {
+  void countWithDeadLetteredMessageShouldReturnMessageCountsWithDeadLetteredCount() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        10));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
         Instant.EPOCH,
         null,
-        10));
+        0));
     });
     final var messageConsumer = new JpaMessageConsumer(
       messageRepository,
@@ -1322,15 +2515,25 @@ class JpaMessageConsumerTest extends PersistenceTest {
       Duration.ofSeconds(30L),
       10);
 
-    // Act
-    // Assert
     transactionTemplate.executeWithoutResult(ts -> {
-      assertThrows(MessageException.class, () -> messageConsumer.requeueLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000")));
+      messageConsumer.deadLetterLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    });
+
+    // Act
+    final var messageCounts = transactionTemplate.execute(ts -> {
+      return messageConsumer.count();
     });
+
+    // Assert
+    assertNotNull(messageCounts);
+    assertEquals(1, messageCounts.activeCount());
+    assertEquals(0, messageCounts.failedCount());
+    assertEquals(1, messageCounts.deadLetteredCount());
+    assertTrue(messageCounts.hasFailed());
   }
 
   @Test
-  void requeueLockedWithFailedLockedMessageShouldRequeueLockedMessage() {
+  void lockAllNextActiveWithDeadLetteredGroupShouldNotLockLaterGroupMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -1346,30 +2549,55 @@ class JpaMessageConsumerTest extends PersistenceTest {
       Duration.ofSeconds(30L),
       10);
 
-    // Act
     transactionTemplate.executeWithoutResult(ts -> {
-      messageConsumer.requeueLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000"));
+      messageConsumer.deadLetterLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000"));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "B",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
     });
 
-    // Assert
+    // Act
     final var messages = transactionTemplate.execute(ts -> {
-      return messageRepository.peekAll(0L, 100);
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000001"), 100);
     });
 
+    // Assert
     assertNotNull(messages);
     assertEquals(1, messages.size());
-    assertEquals(1L, messages.getFirst().sequenceNumber());
-    assertEquals("A", messages.getFirst().groupId());
-    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
-    assertEquals(Instant.EPOCH, messages.getFirst().availableAt());
-    assertNull(messages.getFirst().lockId());
-    assertEquals(0, messages.getFirst().attemptCount());
+    assertEquals(3L, messages.getFirst().sequenceNumber());
+    assertEquals("B", messages.getFirst().groupId());
   }
 
   @Test
-  void requeueAllLockedWithActiveMessagesShouldThrowMessageException() {
+  void lockAllNextActiveWithSkipLockedStrategyAndDeadLetteredGroupShouldNotLockLaterGroupMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        10));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10,
+      OutboxMetrics.noop(),
+      LockStrategy.SKIP_LOCKED);
+
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageConsumer.deadLetterLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000"));
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
@@ -1383,34 +2611,40 @@ class JpaMessageConsumerTest extends PersistenceTest {
         null,
         0));
     });
-    final var messageConsumer = new JpaMessageConsumer(
-      messageRepository,
-      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
-      Duration.ofSeconds(30L),
-      10);
 
     // Act
-    // Assert
-    transactionTemplate.executeWithoutResult(ts -> {
-      assertThrows(MessageException.class, () -> messageConsumer.requeueAllLocked(List.of(1L, 2L), UUID.fromString("00000000-0000-0000-0000-000000000000")));
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000001"), 100);
     });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(1, messages.size());
+    assertEquals(3L, messages.getFirst().sequenceNumber());
+    assertEquals("B", messages.getFirst().groupId());
   }
 
   @Test
-  void requeueAllLockedWithActiveLockedMessagesShouldRequeueLockedMessages() {
+  void deadLetterAllExhaustedWithExpiredExhaustedMessageShouldMoveRemainingGroupMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
-        Instant.EPOCH.plusSeconds(30L),
+        Instant.EPOCH,
         UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        10));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
         0));
       messageRepository.enqueue(MessageFixture.newMessage(
         "B",
         Instant.EPOCH,
-        Instant.EPOCH.plusSeconds(30L),
-        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        Instant.EPOCH,
+        null,
         0));
     });
     final var messageConsumer = new JpaMessageConsumer(
@@ -1420,47 +2654,45 @@ class JpaMessageConsumerTest extends PersistenceTest {
       10);
 
     // Act
-    transactionTemplate.executeWithoutResult(ts -> {
-      messageConsumer.requeueAllLocked(List.of(1L, 2L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    final var deadLetterCount = transactionTemplate.execute(ts -> {
+      return messageConsumer.deadLetterAllExhausted(Partitions.all());
     });
 
     // Assert
+    assertEquals(2, deadLetterCount);
     final var messages = transactionTemplate.execute(ts -> {
-      return messageRepository.peekAll(0L, 100);
+      return messageConsumer.peekAllAfter(null, MessageFilter.none(), 100);
     });
 
     assertNotNull(messages);
-    assertEquals(2, messages.size());
-    assertEquals(1L, messages.getFirst().sequenceNumber());
-    assertEquals("A", messages.getFirst().groupId());
-    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
-    assertEquals(Instant.EPOCH, messages.getFirst().availableAt());
-    assertNull(messages.getFirst().lockId());
-    assertEquals(0, messages.getFirst().attemptCount());
-    assertEquals(2L, messages.getLast().sequenceNumber());
-    assertEquals("B", messages.getLast().groupId());
-    assertEquals(Instant.EPOCH, messages.getLast().enqueuedAt());
-    assertEquals(Instant.EPOCH, messages.getLast().availableAt());
-    assertNull(messages.getLast().lockId());
-    assertEquals(0, messages.getLast().attemptCount());
+    assertEquals(1, messages.size());
+    assertEquals(3L, messages.getFirst().sequenceNumber());
+    final var deadLetters = transactionTemplate.execute(ts -> {
+      return messageConsumer.peekAllDeadLettered(0L, 100);
+    });
+
+    assertNotNull(deadLetters);
+    assertEquals(2, deadLetters.size());
+    assertEquals(1L, deadLetters.getFirst().sequenceNumber());
+    assertEquals(2L, deadLetters.getLast().sequenceNumber());
   }
 
   @Test
-  void requeueAllLockedWithFailedMessagesShouldThrowMessageException() {
+  void deadLetterAllExhaustedWithLockedExhaustedMessageShouldNotMoveMessages() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
         "A",
         Instant.EPOCH,
-        Instant.EPOCH,
-        null,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
         10));
       messageRepository.enqueue(MessageFixture.newMessage(
-        "B",
+        "A",
         Instant.EPOCH,
         Instant.EPOCH,
         null,
-        10));
+        0));
     });
     final var messageConsumer = new JpaMessageConsumer(
       messageRepository,
@@ -1469,14 +2701,22 @@ class JpaMessageConsumerTest extends PersistenceTest {
       10);
 
     // Act
+    final var deadLetterCount = transactionTemplate.execute(ts -> {
+      return messageConsumer.deadLetterAllExhausted(Partitions.all());
+    });
+
     // Assert
-    transactionTemplate.executeWithoutResult(ts -> {
-      assertThrows(MessageException.class, () -> messageConsumer.requeueAllLocked(List.of(1L, 2L), UUID.fromString("00000000-0000-0000-0000-000000000000")));
+    assertEquals(0, deadLetterCount);
+    final var deadLetters = transactionTemplate.execute(ts -> {
+      return messageConsumer.peekAllDeadLettered(0L, 100);
     });
+
+    assertNotNull(deadLetters);
+    assertEquals(0, deadLetters.size());
   }
 
   @Test
-  void requeueAllLockedWithFailedLockedMessagesShouldRequeueLockedMessages() {
+  void replayAllDeadLetteredWithGroupIdShouldOnlyRequeueGroupDeadLetters() {
     // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
       messageRepository.enqueue(MessageFixture.newMessage(
@@ -1498,30 +2738,79 @@ class JpaMessageConsumerTest extends PersistenceTest {
       Duration.ofSeconds(30L),
       10);
 
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageConsumer.deadLetterLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000"));
+      messageConsumer.deadLetterLocked(2L, UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    });
+
     // Act
+    final var replayedCount = transactionTemplate.execute(ts -> {
+      return messageConsumer.replayAllDeadLettered("A");
+    });
+
+    // Assert
+    assertEquals(1, replayedCount);
+    final var deadLetters = transactionTemplate.execute(ts -> {
+      return messageConsumer.peekAllDeadLettered(0L, 100);
+    });
+
+    assertNotNull(deadLetters);
+    assertEquals(1, deadLetters.size());
+    assertEquals(2L, deadLetters.getFirst().sequenceNumber());
+    assertEquals("B", deadLetters.getFirst().groupId());
+  }
+
+  @Test
+  void replayAllDeadLetteredShouldRequeueDeadLetters() {
+    // Arrange
     transactionTemplate.executeWithoutResult(ts -> {
-      messageConsumer.requeueAllLocked(List.of(1L, 2L), UUID.fromString("00000000-0000-0000-0000-000000000000"));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(30L),
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        10));
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageConsumer.deadLetterLocked(1L, UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    });
+
+    // Act
+    final var replayedCount = transactionTemplate.execute(ts -> {
+      return messageConsumer.replayAllDeadLettered(null);
     });
 
     // Assert
+    assertEquals(2, replayedCount);
     final var messages = transactionTemplate.execute(ts -> {
-      return messageRepository.peekAll(0L, 100);
+      return messageConsumer.peekAllAfter(null, MessageFilter.none(), 100);
     });
 
     assertNotNull(messages);
     assertEquals(2, messages.size());
     assertEquals(1L, messages.getFirst().sequenceNumber());
-    assertEquals("A", messages.getFirst().groupId());
-    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
     assertEquals(Instant.EPOCH, messages.getFirst().availableAt());
     assertNull(messages.getFirst().lockId());
     assertEquals(0, messages.getFirst().attemptCount());
     assertEquals(2L, messages.getLast().sequenceNumber());
-    assertEquals("B", messages.getLast().groupId());
-    assertEquals(Instant.EPOCH, messages.getLast().enqueuedAt());
-    assertEquals(Instant.EPOCH, messages.getLast().availableAt());
-    assertNull(messages.getLast().lockId());
-    assertEquals(0, messages.getLast().attemptCount());
+    final var deadLetters = transactionTemplate.execute(ts -> {
+      return messageConsumer.peekAllDeadLettered(0L, 100);
+    });
+
+    assertNotNull(deadLetters);
+    assertEquals(0, deadLetters.size());
   }
 
   @Test
@@ -1572,7 +2861,7 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Assert
     final var messages = transactionTemplate.execute(ts -> {
-      return messageRepository.peekAll(0L, 100);
+      return messageRepository.peekAllAfter(null, MessageFilter.none(), 10, 100);
     });
 
     assertNotNull(messages);
@@ -1627,7 +2916,7 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Assert
     final var messages = transactionTemplate.execute(ts -> {
-      return messageRepository.peekAll(0L, 100);
+      return messageRepository.peekAllAfter(null, MessageFilter.none(), 10, 100);
     });
 
     assertNotNull(messages);
@@ -1694,7 +2983,7 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Assert
     final var messages = transactionTemplate.execute(ts -> {
-      return messageRepository.peekAll(0L, 100);
+      return messageRepository.peekAllAfter(null, MessageFilter.none(), 10, 100);
     });
 
     assertNotNull(messages);
@@ -1761,10 +3050,131 @@ class JpaMessageConsumerTest extends PersistenceTest {
 
     // Assert
     final var messages = transactionTemplate.execute(ts -> {
-      return messageRepository.peekAll(0L, 100);
+      return messageRepository.peekAllAfter(null, MessageFilter.none(), 10, 100);
+    });
+
+    assertNotNull(messages);
+    assertEquals(0, messages.size());
+  }
+
+  @Test
+  void countWithScheduledMessageShouldReturnMessageCountsWithoutLockedCount() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(60L),
+        null,
+        0));
+    });
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var messageCounts = transactionTemplate.execute(ts -> {
+      return messageConsumer.count();
+    });
+
+    // Assert
+    assertNotNull(messageCounts);
+    assertEquals(1, messageCounts.activeCount());
+    assertEquals(0, messageCounts.lockedCount());
+  }
+
+  @Test
+  void lockAllNextActiveWithScheduledMessageShouldReturnMessageOnlyWhenDue() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      messageRepository.enqueue(MessageFixture.newMessage(
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH.plusSeconds(60L),
+        null,
+        0));
+    });
+    final var dueMessageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH.plusSeconds(60L), ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
+    });
+    final var dueMessages = transactionTemplate.execute(ts -> {
+      return dueMessageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), 100);
     });
 
+    // Assert
     assertNotNull(messages);
     assertEquals(0, messages.size());
+    assertNotNull(dueMessages);
+    assertEquals(1, dueMessages.size());
+    assertEquals(1L, dueMessages.getFirst().sequenceNumber());
+  }
+
+  @Test
+  void backfillPartitionKeysWithMessageEnqueuedBeforePartitioningShouldMatchProducerPartitionKey() {
+    // Arrange
+    final var groupId = "\uD83C\uDFAB-A";
+
+    flyway.clean();
+    Flyway.configure()
+      .configuration(flyway.getConfiguration())
+      .target("0.0")
+      .load()
+      .migrate();
+    jdbcTemplate.update("""
+      INSERT INTO outbox_message (
+        sequence_number,
+        group_id,
+        enqueued_at,
+        available_at,
+        lock_id,
+        attempt_count,
+        subject,
+        body)
+      VALUES (1, ?, TIMESTAMP '1970-01-01 00:00:00', TIMESTAMP '1970-01-01 00:00:00', NULL, 0, 'TestEvent', X'00')
+      """, groupId);
+    flyway.migrate();
+    final var partitions = new Partitions(16, IntStream.range(0, 16).boxed().toList());
+    final var messageConsumer = new JpaMessageConsumer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      10);
+    final var heldMessages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextActive(UUID.fromString("00000000-0000-0000-0000-000000000000"), partitions, 100);
+    });
+
+    // Act
+    final var backfillCount = transactionTemplate.execute(ts -> {
+      return messageConsumer.backfillPartitionKeys(100);
+    });
+
+    // Assert
+    assertNotNull(heldMessages);
+    assertEquals(0, heldMessages.size());
+    assertEquals(1, backfillCount);
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageConsumer.lockAllNextActive(
+        UUID.fromString("00000000-0000-0000-0000-000000000000"),
+        new Partitions(16, List.of(Message.partitionKeyOf(groupId) % 16)),
+        100);
+    });
+    assertNotNull(messages);
+    assertEquals(1, messages.size());
+    assertEquals(groupId, messages.getFirst().groupId());
+    assertEquals(0, messageConsumer.backfillPartitionKeys(100));
   }
 }
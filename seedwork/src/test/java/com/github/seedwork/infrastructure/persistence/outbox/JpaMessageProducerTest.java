@@ -1,6 +1,6 @@
 package com.github.seedwork.infrastructure.persistence.outbox;
 
-import com.github.seedwork.domain.TestEvent;
+import com.github.seedwork.infrastructure.outbox.MessageContent;
 import com.github.seedwork.infrastructure.persistence.PersistenceTest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +9,7 @@ import org.springframework.transaction.support.TransactionTemplate;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneOffset;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -28,7 +29,7 @@ class JpaMessageProducerTest extends PersistenceTest {
 
     // Act
     final var message = transactionTemplate.execute(ts -> {
-      return messageProducer.enqueue("A", "TestEvent", new TestEvent());
+      return messageProducer.enqueue("A", "TestEvent", new byte[]{0x01});
     });
 
     // Assert
@@ -40,6 +41,35 @@ class JpaMessageProducerTest extends PersistenceTest {
     assertNull(message.lockId());
     assertEquals(0, message.attemptCount());
     assertEquals("TestEvent", message.subject());
-    assertInstanceOf(TestEvent.class, message.body());
+    assertArrayEquals(new byte[]{0x01}, message.body());
+  }
+
+  @Test
+  void enqueueAllShouldReturnEnqueuedMessages() {
+    // Arrange
+    final var messageProducer = new JpaMessageProducer(
+      messageRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+
+    // Act
+    final var messages = transactionTemplate.execute(ts -> {
+      return messageProducer.enqueueAll("A", List.of(
+        new MessageContent("TestEvent", new byte[]{0x01}),
+        new MessageContent("TestEvent", new byte[]{0x02})));
+    });
+
+    // Assert
+    assertNotNull(messages);
+    assertEquals(2, messages.size());
+    assertEquals(1, messages.getFirst().sequenceNumber());
+    assertEquals("A", messages.getFirst().groupId());
+    assertEquals(Instant.EPOCH, messages.getFirst().enqueuedAt());
+    assertEquals("TestEvent", messages.getFirst().subject());
+    assertArrayEquals(new byte[]{0x01}, messages.getFirst().body());
+    assertEquals(2, messages.getLast().sequenceNumber());
+    assertEquals("A", messages.getLast().groupId());
+    assertEquals(Instant.EPOCH, messages.getLast().enqueuedAt());
+    assertEquals("TestEvent", messages.getLast().subject());
+    assertArrayEquals(new byte[]{0x02}, messages.getLast().body());
   }
 }
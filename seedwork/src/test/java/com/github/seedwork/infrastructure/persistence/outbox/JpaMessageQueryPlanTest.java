@@ -0,0 +1,47 @@
+package com.github.seedwork.infrastructure.persistence.outbox;
+
+import com.github.seedwork.infrastructure.persistence.PersistenceTest;
+import jakarta.persistence.EntityManager;
+import org.hibernate.query.Query;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JpaMessageQueryPlanTest extends PersistenceTest {
+
+  @Autowired
+  private EntityManager entityManager;
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Test
+  void explainClaimAllNextActiveGroupsShouldLookUpGroupsByIndex() {
+    // Arrange
+    final var sql = entityManager.createNamedQuery("Message.claimAllNextActiveGroups")
+      .unwrap(Query.class)
+      .getQueryString();
+
+    // Act
+    final var plan = transactionTemplate.execute(ts -> {
+      return String.valueOf(entityManager.createNativeQuery("EXPLAIN " + sql)
+        .setParameter("locked_at", Instant.EPOCH)
+        .setParameter("max_attempt_count", 10)
+        .setParameter("partition_count", 1)
+        .setParameter("partitions", List.of(0))
+        .setParameter("lane_subjects", List.of(""))
+        .setParameter("lane_excluded", true)
+        .setParameter("limit", 100)
+        .getSingleResult());
+    });
+
+    // Assert
+    // The head and dead-letter checks run per candidate row, so a scan in either is quadratic in the backlog.
+    assertTrue(plan.toLowerCase().contains("outbox_message_group_id_sequence_number_i"), plan);
+    assertTrue(plan.toLowerCase().contains("outbox_dead_letter_group_id_sequence_number_i"), plan);
+  }
+}
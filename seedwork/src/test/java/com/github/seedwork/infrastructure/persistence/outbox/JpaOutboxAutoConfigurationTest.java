@@ -0,0 +1,62 @@
+package com.github.seedwork.infrastructure.persistence.outbox;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JpaOutboxAutoConfigurationTest {
+
+  @Test
+  void supportsUpdateReturningWithPostgreSqlShouldReturnTrue() throws SQLException {
+    // Arrange
+    final var dataSource = dataSourceOf("PostgreSQL");
+
+    // Act
+    final var supportsUpdateReturning = JpaOutboxAutoConfiguration.supportsUpdateReturning(dataSource);
+
+    // Assert
+    assertTrue(supportsUpdateReturning);
+  }
+
+  @Test
+  void supportsUpdateReturningWithH2ShouldReturnFalse() throws SQLException {
+    // Arrange
+    final var dataSource = dataSourceOf("H2");
+
+    // Act
+    final var supportsUpdateReturning = JpaOutboxAutoConfiguration.supportsUpdateReturning(dataSource);
+
+    // Assert
+    assertFalse(supportsUpdateReturning);
+  }
+
+  @Test
+  void supportsUpdateReturningWithUnavailableDataSourceShouldReturnFalse() throws SQLException {
+    // Arrange
+    final var dataSource = mock(DataSource.class);
+    when(dataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+    // Act
+    final var supportsUpdateReturning = JpaOutboxAutoConfiguration.supportsUpdateReturning(dataSource);
+
+    // Assert
+    assertFalse(supportsUpdateReturning);
+  }
+
+  private static DataSource dataSourceOf(final String databaseProductName) throws SQLException {
+    final var metaData = mock(DatabaseMetaData.class);
+    when(metaData.getDatabaseProductName()).thenReturn(databaseProductName);
+    final var connection = mock(Connection.class);
+    when(connection.getMetaData()).thenReturn(metaData);
+    final var dataSource = mock(DataSource.class);
+    when(dataSource.getConnection()).thenReturn(connection);
+
+    return dataSource;
+  }
+}
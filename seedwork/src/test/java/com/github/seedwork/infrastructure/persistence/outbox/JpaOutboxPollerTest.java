@@ -0,0 +1,139 @@
+package com.github.seedwork.infrastructure.persistence.outbox;
+
+import com.github.seedwork.infrastructure.outbox.DispatchResult;
+import com.github.seedwork.infrastructure.outbox.Message;
+import com.github.seedwork.infrastructure.outbox.MessageCoalescer;
+import com.github.seedwork.infrastructure.outbox.MessageCountsCache;
+import com.github.seedwork.infrastructure.outbox.MessageDispatcher;
+import com.github.seedwork.infrastructure.outbox.MessageFixture;
+import com.github.seedwork.infrastructure.outbox.OutboxMetrics;
+import com.github.seedwork.infrastructure.outbox.OutboxPoller;
+import com.github.seedwork.infrastructure.outbox.OutboxPropertiesFixture;
+import com.github.seedwork.infrastructure.outbox.PartitionLeaseManager;
+import com.github.seedwork.infrastructure.outbox.Partitions;
+import com.github.seedwork.infrastructure.persistence.PersistenceTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JpaOutboxPollerTest extends PersistenceTest {
+
+  @Autowired
+  private JpaMessageRepository messageRepository;
+  @Autowired
+  private JpaMessageConsumer messageConsumer;
+  @Autowired
+  private JpaPartitionLeaseRepository partitionLeaseRepository;
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  private PartitionLeaseManager newPartitionLeaseManager() {
+    final var partitionLeaseManager = new JpaPartitionLeaseManager(
+      partitionLeaseRepository,
+      Clock.systemUTC(),
+      Duration.ofSeconds(30L),
+      4);
+
+    return new PartitionLeaseManager() {
+
+      @Override
+      public Partitions renewLeases(final UUID nodeId) {
+        return transactionTemplate.execute(ts -> partitionLeaseManager.renewLeases(nodeId));
+      }
+
+      @Override
+      public void releaseLeases(final UUID nodeId) {
+        transactionTemplate.executeWithoutResult(ts -> partitionLeaseManager.releaseLeases(nodeId));
+      }
+    };
+  }
+
+  private OutboxPoller newOutboxPoller(final MessageDispatcher messageDispatcher,
+                                       final PartitionLeaseManager partitionLeaseManager) {
+    return new OutboxPoller(
+      OutboxPropertiesFixture.newOutboxProperties(Duration.ofSeconds(10L), 4, Duration.ofSeconds(30L)),
+      messageConsumer,
+      messageDispatcher,
+      partitionLeaseManager,
+      OutboxMetrics.noop(),
+      new MessageCountsCache(messageConsumer, Clock.systemUTC(), Duration.ZERO),
+      MessageCoalescer.none());
+  }
+
+  @Test
+  void runWithMultiplePollersShouldDispatchEachMessageOnceInGroupOrder() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      for (var i = 0; i < 5; i++) {
+        for (final var groupId : List.of("A", "B", "C", "D")) {
+          messageRepository.enqueue(MessageFixture.newMessage(
+            groupId,
+            Instant.EPOCH,
+            Instant.EPOCH,
+            null,
+            0));
+        }
+      }
+    });
+    final var dispatchedMessages = new ConcurrentHashMap<UUID, List<Message>>();
+    final var partitionLeaseManager = newPartitionLeaseManager();
+    final var outboxPollers = new CopyOnWriteArrayList<OutboxPoller>();
+
+    for (var i = 0; i < 2; i++) {
+      final var pollerMessages = new CopyOnWriteArrayList<Message>();
+      final var outboxPoller = newOutboxPoller(m -> {
+        pollerMessages.addAll(m);
+
+        return CompletableFuture.completedFuture(DispatchResult.acknowledged(m.size()));
+      }, partitionLeaseManager);
+
+      dispatchedMessages.put(outboxPoller.nodeId(), pollerMessages);
+      outboxPollers.add(outboxPoller);
+    }
+    // Registers both nodes before polling, so each poller renews into its final, disjoint partition assignment.
+    outboxPollers.forEach(p -> partitionLeaseManager.renewLeases(p.nodeId()));
+    outboxPollers.forEach(p -> partitionLeaseManager.renewLeases(p.nodeId()));
+
+    // Act
+    CompletableFuture.allOf(outboxPollers.stream()
+        .map(p -> CompletableFuture.runAsync(() -> {
+          // Each poll locks the next message per group, so five polls drain all five messages of every group.
+          for (var i = 0; i < 5; i++) {
+            p.run();
+          }
+        }))
+        .toArray(CompletableFuture[]::new))
+      .join();
+
+    // Assert
+    final var messages = dispatchedMessages.values().stream()
+      .flatMap(List::stream)
+      .toList();
+
+    assertEquals(20, messages.size());
+    assertEquals(20, messages.stream().map(Message::sequenceNumber).distinct().count());
+    assertTrue(dispatchedMessages.values().stream().noneMatch(List::isEmpty));
+    final var groupSequenceNumbers = messages.stream()
+      .collect(Collectors.groupingBy(
+        Message::groupId,
+        Collectors.mapping(Message::sequenceNumber, Collectors.toList())));
+
+    groupSequenceNumbers.values().forEach(s -> assertEquals(s.stream().sorted().toList(), s));
+    final var messageCounts = transactionTemplate.execute(ts -> messageConsumer.count());
+
+    assertNotNull(messageCounts);
+    assertEquals(0, messageCounts.totalCount());
+  }
+}
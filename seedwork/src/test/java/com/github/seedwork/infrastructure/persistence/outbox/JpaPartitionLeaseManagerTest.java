@@ -0,0 +1,187 @@
+package com.github.seedwork.infrastructure.persistence.outbox;
+
+import com.github.seedwork.infrastructure.persistence.PersistenceTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JpaPartitionLeaseManagerTest extends PersistenceTest {
+
+  @Autowired
+  private JpaPartitionLeaseRepository partitionLeaseRepository;
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Test
+  void renewLeasesWithSingleNodeShouldReturnAllPartitions() {
+    // Arrange
+    final var partitionLeaseManager = new JpaPartitionLeaseManager(
+      partitionLeaseRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      4);
+
+    // Act
+    final var partitions = transactionTemplate.execute(ts -> {
+      return partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    });
+
+    // Assert
+    assertNotNull(partitions);
+    assertEquals(4, partitions.count());
+    assertEquals(List.of(0, 1, 2, 3), partitions.numbers());
+  }
+
+  @Test
+  void renewLeasesWithMultipleNodesShouldReturnDisjointPartitions() {
+    // Arrange
+    final var partitionLeaseManager = new JpaPartitionLeaseManager(
+      partitionLeaseRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      4);
+
+    transactionTemplate.executeWithoutResult(ts -> {
+      partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+      partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    });
+
+    // Act
+    final var partitions0 = transactionTemplate.execute(ts -> {
+      return partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    });
+    final var partitions1 = transactionTemplate.execute(ts -> {
+      return partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    });
+
+    // Assert
+    assertNotNull(partitions0);
+    assertEquals(List.of(0, 2), partitions0.numbers());
+    assertNotNull(partitions1);
+    assertEquals(List.of(1, 3), partitions1.numbers());
+  }
+
+  @Test
+  void renewLeasesWithReleasedNodeShouldReturnAllPartitions() {
+    // Arrange
+    final var partitionLeaseManager = new JpaPartitionLeaseManager(
+      partitionLeaseRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      4);
+
+    transactionTemplate.executeWithoutResult(ts -> {
+      partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+      partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+      partitionLeaseManager.releaseLeases(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    });
+
+    // Act
+    final var partitions = transactionTemplate.execute(ts -> {
+      return partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    });
+
+    // Assert
+    assertNotNull(partitions);
+    assertEquals(List.of(0, 1, 2, 3), partitions.numbers());
+  }
+
+  @Test
+  void renewLeasesWithExpiredNodeShouldReturnAllPartitions() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      final var partitionLeaseManager = new JpaPartitionLeaseManager(
+        partitionLeaseRepository,
+        Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+        Duration.ofSeconds(30L),
+        4);
+
+      partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+      partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    });
+    final var partitionLeaseManager = new JpaPartitionLeaseManager(
+      partitionLeaseRepository,
+      Clock.fixed(Instant.EPOCH.plusSeconds(60L), ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      4);
+
+    // Act
+    final var partitions = transactionTemplate.execute(ts -> {
+      return partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    });
+
+    // Assert
+    assertNotNull(partitions);
+    assertEquals(List.of(0, 1, 2, 3), partitions.numbers());
+  }
+
+  @Test
+  void renewLeasesWithMaxPollersShouldReturnNoPartitionsToStandbyNode() {
+    // Arrange
+    final var partitionLeaseManager = new JpaPartitionLeaseManager(
+      partitionLeaseRepository,
+      Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      4,
+      1);
+
+    transactionTemplate.executeWithoutResult(ts -> {
+      partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+      partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    });
+
+    // Act
+    final var partitions0 = transactionTemplate.execute(ts -> {
+      return partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+    });
+    final var partitions1 = transactionTemplate.execute(ts -> {
+      return partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    });
+
+    // Assert
+    assertNotNull(partitions0);
+    assertEquals(List.of(0, 1, 2, 3), partitions0.numbers());
+    assertNotNull(partitions1);
+    assertTrue(partitions1.isEmpty());
+  }
+
+  @Test
+  void renewLeasesWithMaxPollersAndExpiredNodeShouldFailOverToStandbyNode() {
+    // Arrange
+    transactionTemplate.executeWithoutResult(ts -> {
+      final var partitionLeaseManager = new JpaPartitionLeaseManager(
+        partitionLeaseRepository,
+        Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+        Duration.ofSeconds(30L),
+        4,
+        1);
+
+      partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000000"));
+      partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    });
+    final var partitionLeaseManager = new JpaPartitionLeaseManager(
+      partitionLeaseRepository,
+      Clock.fixed(Instant.EPOCH.plusSeconds(30L), ZoneOffset.UTC),
+      Duration.ofSeconds(30L),
+      4,
+      1);
+
+    // Act
+    final var partitions = transactionTemplate.execute(ts -> {
+      return partitionLeaseManager.renewLeases(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    });
+
+    // Assert
+    assertNotNull(partitions);
+    assertEquals(List.of(0, 1, 2, 3), partitions.numbers());
+  }
+}
@@ -1,6 +1,7 @@
 package com.github.seedwork.infrastructure.web.outbox;
 
 import com.github.seedwork.infrastructure.outbox.MessageConsumer;
+import com.github.seedwork.infrastructure.outbox.MessageFilter;
 import com.github.seedwork.infrastructure.outbox.MessageFixture;
 import com.github.seedwork.infrastructure.web.ControllerTest;
 import org.junit.jupiter.api.Test;
@@ -23,14 +24,14 @@ class MessageControllerTest extends ControllerTest {
   @Test
   void peekMessagesShouldReturnPeekMessagesResponse() throws Exception {
     // Arrange
-    when(messageConsumer.peekAll(eq(0L), eq(10)))
+    when(messageConsumer.peekAllAfter(isNull(), eq(MessageFilter.none()), eq(10)))
       .thenReturn(List.of(MessageFixture.newMessage(
         0L,
         "A",
         Instant.EPOCH,
         Instant.EPOCH,
         null,
-        0)));
+        0).header()));
 
     // Act
     // Assert
@@ -44,7 +45,36 @@ class MessageControllerTest extends ControllerTest {
       .andExpect(jsonPath("$.messages[0].enqueuedAt").value("1970-01-01T00:00:00Z"))
       .andExpect(jsonPath("$.messages[0].availableAt").value("1970-01-01T00:00:00Z"))
       .andExpect(jsonPath("$.messages[0].attemptCount").value(0))
-      .andExpect(jsonPath("$.messages[0].subject").value("TestEvent"));
+      .andExpect(jsonPath("$.messages[0].subject").value("TestEvent"))
+      .andExpect(jsonPath("$.after").doesNotExist());
+  }
+
+  @Test
+  void peekMessagesWithFilterShouldReturnPeekMessagesResponseWithAfter() throws Exception {
+    // Arrange
+    when(messageConsumer.peekAllAfter(eq(5L), eq(new MessageFilter("A", "TestEvent", true)), eq(1)))
+      .thenReturn(List.of(MessageFixture.newMessage(
+        6L,
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        10).header()));
+
+    // Act
+    // Assert
+    mockMvc().perform(get("/outbox/messages")
+        .queryParam("after", "5")
+        .queryParam("group_id", "A")
+        .queryParam("subject", "TestEvent")
+        .queryParam("failed", "true")
+        .queryParam("limit", "1")
+        .contentType(MediaType.APPLICATION_JSON))
+      .andExpect(status().isOk())
+      .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+      .andExpect(jsonPath("$.messages.length()").value(1))
+      .andExpect(jsonPath("$.messages[0].sequenceNumber").value(6))
+      .andExpect(jsonPath("$.after").value(6));
   }
 
   @Test
@@ -128,4 +158,45 @@ class MessageControllerTest extends ControllerTest {
         .contentType(MediaType.APPLICATION_JSON))
       .andExpect(status().isNoContent());
   }
+
+  @Test
+  void peekDeadLettersShouldReturnPeekDeadLettersResponse() throws Exception {
+    // Arrange
+    when(messageConsumer.peekAllDeadLettered(eq(0L), eq(10)))
+      .thenReturn(List.of(MessageFixture.newMessage(
+        0L,
+        "A",
+        Instant.EPOCH,
+        Instant.EPOCH,
+        null,
+        10).header()));
+
+    // Act
+    // Assert
+    mockMvc().perform(get("/outbox/dead-letters")
+        .contentType(MediaType.APPLICATION_JSON))
+      .andExpect(status().isOk())
+      .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+      .andExpect(jsonPath("$.messages.length()").value(1))
+      .andExpect(jsonPath("$.messages[0].sequenceNumber").value(0))
+      .andExpect(jsonPath("$.messages[0].groupId").value("A"))
+      .andExpect(jsonPath("$.messages[0].attemptCount").value(10))
+      .andExpect(jsonPath("$.messages[0].subject").value("TestEvent"));
+  }
+
+  @Test
+  void replayDeadLettersShouldReturnReplayDeadLettersResponse() throws Exception {
+    // Arrange
+    when(messageConsumer.replayAllDeadLettered(eq("A")))
+      .thenReturn(2);
+
+    // Act
+    // Assert
+    mockMvc().perform(post("/outbox/dead-letters/replays")
+        .queryParam("group_id", "A")
+        .contentType(MediaType.APPLICATION_JSON))
+      .andExpect(status().isOk())
+      .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+      .andExpect(jsonPath("$.replayedCount").value(2));
+  }
 }